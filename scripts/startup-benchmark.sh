@@ -0,0 +1,66 @@
+#!/usr/bin/env bash
+# Замер времени старта до первого успешного ответа GET /catalog.
+# Сравнивает fat jar (как в Dockerfile) и сборку профиля fast-startup (AOT + CDS).
+#
+# Подготовка:
+#   mvn -Pfast-startup package -DskipTests
+# Запуск (нужна доступная БД, параметры берутся из SPRING_DATASOURCE_*):
+#   scripts/startup-benchmark.sh [количество запусков]
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=${PORT:-8080}
+VERSION=0.0.1-SNAPSHOT
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+FAT_JAR="$ROOT/target/food-delivery-$VERSION.jar"
+FAST_DIR="$ROOT/target/fast-startup"
+LOG=$(mktemp)
+
+for file in "$FAT_JAR" "$FAST_DIR/food-delivery-$VERSION.jar" "$FAST_DIR/application.jsa"; do
+    if [[ ! -f "$file" ]]; then
+        echo "Не найден $file, выполните: mvn -Pfast-startup package -DskipTests" >&2
+        exit 1
+    fi
+done
+
+# Запустить приложение и вернуть время в мс до первого ответа 200 на /catalog
+measure() {
+    local dir=$1
+    shift
+    local start end pid
+    start=$(date +%s%N)
+    (cd "$dir" && exec "$@" --server.port="$PORT") >"$LOG" 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "http://localhost:$PORT/catalog"; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "Приложение завершилось, лог: $LOG" >&2
+            exit 1
+        fi
+        sleep 0.02
+    done
+    end=$(date +%s%N)
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    echo $(((end - start) / 1000000))
+}
+
+# Вывести минимум и медиану по результатам замеров
+summary() {
+    local label=$1
+    shift
+    local sorted
+    sorted=$(printf '%s\n' "$@" | sort -n)
+    printf '%-28s min %6s ms   median %6s ms   (%s)\n' "$label" \
+        "$(echo "$sorted" | head -1)" "$(echo "$sorted" | sed -n "$(((${#@} + 1) / 2))p")" "$*"
+}
+
+fat=()
+fast=()
+for ((i = 1; i <= RUNS; i++)); do
+    fat+=("$(measure "$ROOT" java -jar "$FAT_JAR")")
+    fast+=("$(measure "$FAST_DIR" java -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true \
+        -jar "food-delivery-$VERSION.jar")")
+done
+
+summary "fat jar" "${fat[@]}"
+summary "fast-startup (AOT + CDS)" "${fast[@]}"
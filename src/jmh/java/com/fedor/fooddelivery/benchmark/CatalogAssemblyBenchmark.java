@@ -0,0 +1,53 @@
+package com.fedor.fooddelivery.benchmark;
+
+import com.fedor.fooddelivery.cache.CatalogCacheManager;
+import com.fedor.fooddelivery.dto.CatalogResponseDto;
+import com.fedor.fooddelivery.dto.CategoryDto;
+import com.fedor.fooddelivery.mapper.CatalogProductMapper;
+import com.fedor.fooddelivery.mapper.CategoryMapper;
+import com.fedor.fooddelivery.service.CatalogService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сборка ответов CatalogService поверх репозиториев в памяти.
+ * Измеряет только работу сервиса и мапперов без обращения к БД
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CatalogAssemblyBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    private int productsPerCategory;
+
+    private CatalogService catalogService;
+
+    @Setup
+    public void setUp() {
+        InMemoryCatalog catalog = new InMemoryCatalog(6, productsPerCategory);
+        catalogService = new CatalogService(catalog.categoryRepository(), catalog.productRepository(),
+                new CategoryMapper(), new CatalogProductMapper(), catalog.transactionManager(),
+                // Кэши отключены: бенчмарк измеряет сборку ответа, а не чтение из кэша
+                new CatalogCacheManager(Duration.ofSeconds(30), Duration.ZERO, 0.2, 1, Duration.ZERO, 0,
+                        new SimpleMeterRegistry()),
+                Duration.ofSeconds(5));
+    }
+
+    @Benchmark
+    public CatalogResponseDto getProductsByCategory() {
+        return catalogService.getProductsByCategory(1L);
+    }
+
+    @Benchmark
+    public List<CategoryDto> getAllCategories() {
+        return catalogService.getAllCategories();
+    }
+}
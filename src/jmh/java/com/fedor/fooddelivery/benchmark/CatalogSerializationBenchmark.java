@@ -0,0 +1,85 @@
+package com.fedor.fooddelivery.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fedor.fooddelivery.dto.CatalogProductDto;
+import com.fedor.fooddelivery.dto.CatalogResponseDto;
+import com.fedor.fooddelivery.dto.CategoryDto;
+import com.fedor.fooddelivery.entity.Category;
+import com.fedor.fooddelivery.entity.Product;
+import com.fedor.fooddelivery.mapper.CatalogProductMapper;
+import com.fedor.fooddelivery.mapper.CatalogResponseWriter;
+import com.fedor.fooddelivery.mapper.CategoryMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сериализация CatalogResponseDto в JSON тем же ObjectMapper, что строит Spring Boot,
+ * и потоковая запись того же ответа напрямую из сущностей (CatalogResponseWriter)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CatalogSerializationBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    private int products;
+
+    private ObjectMapper objectMapper;
+    private CatalogResponseDto response;
+    private CatalogResponseWriter responseWriter;
+    private Category category;
+    private List<Product> entities;
+    private ByteArrayOutputStream output;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        category = new Category();
+        category.setId(1L);
+        category.setName("Шаверма");
+        category.setUrl("https://drive.google.com/uc?export=download&id=1hkm9SX0iSMmVqS8VCh--bXKAma5dkH3r");
+
+        CatalogProductMapper productMapper = new CatalogProductMapper();
+        entities = new ArrayList<>(products);
+        List<CatalogProductDto> productDtos = new ArrayList<>(products);
+        for (long id = 1; id <= products; id++) {
+            Product product = InMemoryCatalog.createProduct(id, category);
+            entities.add(product);
+            productDtos.add(productMapper.toCatalogDto(product));
+        }
+        CategoryDto categoryDto = new CategoryMapper().toCategoryDto(category);
+
+        response = new CatalogResponseDto();
+        response.setCategory(categoryDto);
+        response.setProducts(productDtos);
+
+        responseWriter = new CatalogResponseWriter(objectMapper);
+        output = new ByteArrayOutputStream();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    /**
+     * Запись в переиспользуемый буфер, как в поток ответа: без DTO и без итогового массива байт
+     */
+    @Benchmark
+    public int streamingWriter() throws IOException {
+        output.reset();
+        responseWriter.write(category, entities, output);
+        return output.size();
+    }
+}
@@ -0,0 +1,97 @@
+package com.fedor.fooddelivery.benchmark;
+
+import com.fedor.fooddelivery.entity.Category;
+import com.fedor.fooddelivery.entity.CurrencyCode;
+import com.fedor.fooddelivery.entity.Product;
+import com.fedor.fooddelivery.repository.CategoryRepository;
+import com.fedor.fooddelivery.repository.ProductRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Синтетический каталог в памяти и репозитории-заглушки поверх него.
+ * Заглушки реализуют только методы, которые вызывают сервисы
+ */
+public class InMemoryCatalog {
+
+    private final Map<Long, Category> categories = new HashMap<>();
+    private final Map<Long, Product> products = new HashMap<>();
+    private final Map<Long, List<Product>> productsByCategory = new HashMap<>();
+
+    /**
+     * Создать каталог заданного размера
+     * @param categoryCount количество категорий
+     * @param productsPerCategory количество товаров в каждой категории
+     */
+    public InMemoryCatalog(int categoryCount, int productsPerCategory) {
+        long productId = 1;
+        for (long categoryId = 1; categoryId <= categoryCount; categoryId++) {
+            Category category = new Category();
+            category.setId(categoryId);
+            category.setName("Категория " + categoryId);
+            category.setUrl("https://example.com/categories/" + categoryId);
+            categories.put(categoryId, category);
+
+            List<Product> categoryProducts = new ArrayList<>(productsPerCategory);
+            for (int i = 0; i < productsPerCategory; i++, productId++) {
+                Product product = createProduct(productId, category);
+                products.put(productId, product);
+                categoryProducts.add(product);
+            }
+            productsByCategory.put(categoryId, categoryProducts);
+        }
+    }
+
+    /**
+     * Создать товар с типичными для меню значениями полей
+     */
+    public static Product createProduct(long id, Category category) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Шаверма Классическая " + id);
+        product.setDescription("Лаваш, куриное мясо, помидоры, огурец, капуста, кетчуп, сметана, лук красный, 400 гр");
+        product.setPrice(22000 + id % 100 * 100);
+        product.setCategory(category);
+        product.setUrl("https://drive.google.com/uc?export=download&id=1SbsFA1gu8M3llRX3eblaO2AJ2O_kxG7" + id);
+        product.setCurrency(CurrencyCode.RUB);
+        return product;
+    }
+
+    public CategoryRepository categoryRepository() {
+        return stub(CategoryRepository.class, (proxy, method, args) -> switch (method.getName()) {
+            case "findById" -> Optional.ofNullable(categories.get((Long) args[0]));
+            case "findAll" -> new ArrayList<>(categories.values());
+            case "existsById" -> categories.containsKey((Long) args[0]);
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    public ProductRepository productRepository() {
+        return stub(ProductRepository.class, (proxy, method, args) -> switch (method.getName()) {
+            case "findById" -> Optional.ofNullable(products.get((Long) args[0]));
+            case "findByCategoryId" -> productsByCategory.getOrDefault((Long) args[0], List.of());
+            case "existsById" -> products.containsKey((Long) args[0]);
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    public PlatformTransactionManager transactionManager() {
+        return stub(PlatformTransactionManager.class, (proxy, method, args) -> switch (method.getName()) {
+            case "getTransaction" -> new SimpleTransactionStatus();
+            case "commit", "rollback" -> null;
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    private static <T> T stub(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+}
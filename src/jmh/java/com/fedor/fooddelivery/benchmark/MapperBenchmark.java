@@ -0,0 +1,56 @@
+package com.fedor.fooddelivery.benchmark;
+
+import com.fedor.fooddelivery.dto.CatalogProductDto;
+import com.fedor.fooddelivery.dto.CategoryDto;
+import com.fedor.fooddelivery.dto.ProductDto;
+import com.fedor.fooddelivery.entity.Category;
+import com.fedor.fooddelivery.entity.Product;
+import com.fedor.fooddelivery.mapper.CatalogProductMapper;
+import com.fedor.fooddelivery.mapper.CategoryMapper;
+import com.fedor.fooddelivery.mapper.ProductMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность мапперов сущностей в DTO
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    private final CategoryMapper categoryMapper = new CategoryMapper();
+    private final CatalogProductMapper catalogProductMapper = new CatalogProductMapper();
+    private final ProductMapper productMapper = new ProductMapper();
+
+    private Category category;
+    private Product product;
+
+    @Setup
+    public void setUp() {
+        category = new Category();
+        category.setId(1L);
+        category.setName("Шаверма");
+        category.setUrl("https://drive.google.com/uc?export=download&id=1hkm9SX0iSMmVqS8VCh--bXKAma5dkH3r");
+        product = InMemoryCatalog.createProduct(12L, category);
+    }
+
+    @Benchmark
+    public CategoryDto categoryMapper() {
+        return categoryMapper.toCategoryDto(category);
+    }
+
+    @Benchmark
+    public CatalogProductDto catalogProductMapper() {
+        return catalogProductMapper.toCatalogDto(product);
+    }
+
+    @Benchmark
+    public ProductDto productMapper() {
+        return productMapper.toProductDto(product);
+    }
+}
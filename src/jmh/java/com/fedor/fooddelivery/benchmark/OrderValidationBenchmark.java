@@ -0,0 +1,83 @@
+package com.fedor.fooddelivery.benchmark;
+
+import com.fedor.fooddelivery.dto.OrderRequestDto;
+import com.fedor.fooddelivery.dto.OrderResponseDto;
+import com.fedor.fooddelivery.exceptions.InvalidOrderException;
+import com.fedor.fooddelivery.metrics.OrderValidationMetrics;
+import com.fedor.fooddelivery.service.OrderService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость валидации заказа: имя, телефон и существование товаров.
+ * Ошибочные сценарии включают создание и выброс InvalidOrderException
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderValidationBenchmark {
+
+    @Param({"1", "10"})
+    private int items;
+
+    private OrderService orderService;
+    private OrderRequestDto validOrder;
+    private OrderRequestDto blankName;
+    private OrderRequestDto invalidPhone;
+
+    @Setup
+    public void setUp() {
+        InMemoryCatalog catalog = new InMemoryCatalog(1, Math.max(items, 1));
+        orderService = new OrderService(catalog.productRepository(),
+                new OrderValidationMetrics(new SimpleMeterRegistry()));
+
+        validOrder = createOrder("Иван Иванов", "+7 (911) 000-11-22");
+        blankName = createOrder("   ", "+7 (911) 000-11-22");
+        invalidPhone = createOrder("Иван Иванов", "911-000-11-22");
+    }
+
+    @Benchmark
+    public OrderResponseDto validOrder() {
+        return orderService.createOrder(validOrder);
+    }
+
+    @Benchmark
+    public Object blankName() {
+        return invokeExpectingFailure(blankName);
+    }
+
+    @Benchmark
+    public Object invalidPhone() {
+        return invokeExpectingFailure(invalidPhone);
+    }
+
+    private Object invokeExpectingFailure(OrderRequestDto order) {
+        try {
+            return orderService.createOrder(order);
+        } catch (InvalidOrderException e) {
+            return e;
+        }
+    }
+
+    private OrderRequestDto createOrder(String name, String phone) {
+        OrderRequestDto order = new OrderRequestDto();
+        order.setCustomerName(name);
+        order.setPhoneNumber(phone);
+        List<OrderRequestDto.OrderItemDto> orderItems = new ArrayList<>();
+        for (long id = 1; id <= items; id++) {
+            OrderRequestDto.OrderItemDto item = new OrderRequestDto.OrderItemDto();
+            item.setProductId(id);
+            item.setQuantity(1);
+            orderItems.add(item);
+        }
+        order.setItems(orderItems);
+        return order;
+    }
+}
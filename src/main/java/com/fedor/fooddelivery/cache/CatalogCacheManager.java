@@ -0,0 +1,96 @@
+package com.fedor.fooddelivery.cache;
+
+import com.fedor.fooddelivery.event.CatalogChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.function.Function;
+
+/**
+ * Кэши ответов каталога и общий планировщик их фонового обновления,
+ * а также кэши отсутствующих идентификаторов категорий и товаров.
+ * Сроки жизни и число потоков обновления задаются в app.catalog.cache.*, кэши отсутствующих
+ * идентификаторов - в app.catalog.negative-cache.*. Все кэши сбрасываются при публикации новой версии каталога
+ */
+@Component
+public class CatalogCacheManager {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogCacheManager.class);
+
+    private final RefreshingCache.Settings settings;
+    private final MeterRegistry registry;
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final Duration negativeTtl;
+    private final int negativeMaxSize;
+    private final List<RefreshingCache<?, ?>> caches = new CopyOnWriteArrayList<>();
+    private final List<NegativeLookupCache> negativeCaches = new CopyOnWriteArrayList<>();
+
+    public CatalogCacheManager(@Value("${app.catalog.cache.soft-ttl:30s}") Duration softTtl,
+                               @Value("${app.catalog.cache.hard-ttl:10m}") Duration hardTtl,
+                               @Value("${app.catalog.cache.jitter:0.2}") double jitter,
+                               @Value("${app.catalog.cache.refresh-threads:2}") int refreshThreads,
+                               @Value("${app.catalog.negative-cache.ttl:30s}") Duration negativeTtl,
+                               @Value("${app.catalog.negative-cache.max-size:10000}") int negativeMaxSize,
+                               MeterRegistry registry) {
+        this.settings = new RefreshingCache.Settings(softTtl, hardTtl, jitter);
+        this.negativeTtl = negativeTtl;
+        this.negativeMaxSize = negativeMaxSize;
+        this.registry = registry;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("catalog-refresh-");
+        threadFactory.setDaemon(true);
+        this.scheduler = new ScheduledThreadPoolExecutor(refreshThreads, threadFactory);
+        this.scheduler.setRemoveOnCancelPolicy(true);
+        if (!settings.enabled()) {
+            log.info("Кэш ответов каталога отключен (app.catalog.cache.hard-ttl=0)");
+        }
+    }
+
+    /**
+     * Создать кэш, обновляемый общим планировщиком
+     * @param name имя кэша для метрик
+     * @param loader загрузка значения по ключу
+     * @return новый кэш
+     */
+    public <K, V> RefreshingCache<K, V> create(String name, Function<K, V> loader) {
+        RefreshingCache<K, V> cache = new RefreshingCache<>(name, loader, settings, scheduler, registry, System::nanoTime);
+        caches.add(cache);
+        return cache;
+    }
+
+    /**
+     * Создать кэш отсутствующих идентификаторов
+     * @param name имя кэша для метрик
+     * @return новый кэш
+     */
+    public NegativeLookupCache createNegative(String name) {
+        NegativeLookupCache cache = new NegativeLookupCache(name, negativeTtl, negativeMaxSize, registry, System::nanoTime);
+        negativeCaches.add(cache);
+        return cache;
+    }
+
+    /**
+     * Сбросить все кэши при новой версии каталога
+     * @param event событие новой версии каталога
+     */
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        caches.forEach(RefreshingCache::invalidateAll);
+        negativeCaches.forEach(NegativeLookupCache::invalidateAll);
+        log.debug("Кэши ответов каталога очищены для версии каталога {}", event.version());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
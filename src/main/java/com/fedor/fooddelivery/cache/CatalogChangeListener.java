@@ -0,0 +1,138 @@
+package com.fedor.fooddelivery.cache;
+
+import com.fedor.fooddelivery.service.CatalogVersionService;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Получение изменений каталога от других узлов через PostgreSQL LISTEN/NOTIFY.
+ * Триггеры на таблицах categories и products (миграция V3__catalog_notify_triggers.sql)
+ * отправляют NOTIFY при любом изменении, в том числе сделанном не приложением,
+ * а, например, скриптом администратора.
+ * Слушатель держит отдельное соединение с основной БД (реплики не поддерживают LISTEN)
+ * и на каждую пачку уведомлений публикует новую версию каталога, по которой сбрасываются кэши.
+ * Узел, изменивший каталог, тоже получает уведомление, но версия из БД к этому времени им уже
+ * опубликована, и CatalogVersionService второй раз ее не публикует.
+ * Для других СУБД (H2 в тестах) слушатель не запускается
+ */
+@Component
+public class CatalogChangeListener implements SmartLifecycle {
+
+    /**
+     * Канал уведомлений об изменении каталога, совпадает с каналом в функции notify_catalog_changed()
+     */
+    public static final String CHANNEL = "catalog_changed";
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogChangeListener.class);
+
+    private static final long POLL_TIMEOUT_MILLIS = 500;
+    private static final long MAX_RECONNECT_DELAY_MILLIS = 30_000;
+
+    private final CatalogVersionService catalogVersionService;
+    private final DataSource dataSource;
+    private final boolean enabled;
+
+    private volatile boolean running;
+    private volatile Thread thread;
+
+    public CatalogChangeListener(CatalogVersionService catalogVersionService,
+                                 DataSourceProperties dataSourceProperties,
+                                 @Value("${app.catalog.notify.enabled:true}") boolean enabled) {
+        this.catalogVersionService = catalogVersionService;
+        this.dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(SimpleDriverDataSource.class)
+                .build();
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            log.info("Прослушивание изменений каталога отключено");
+            return;
+        }
+        running = true;
+        thread = new Thread(this::listen, "catalog-notify-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread listener = thread;
+        if (listener != null) {
+            listener.interrupt();
+            thread = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        long reconnectDelay = 1_000;
+        boolean connectedBefore = false;
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                if (!connection.isWrapperFor(PGConnection.class)) {
+                    log.info("БД не PostgreSQL, прослушивание изменений каталога не запускается");
+                    running = false;
+                    return;
+                }
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                log.info("Подписка на канал {} установлена", CHANNEL);
+                // После переподключения часть уведомлений могла быть потеряна
+                if (connectedBefore) {
+                    catalogVersionService.publishNewVersion();
+                }
+                connectedBefore = true;
+                reconnectDelay = 1_000;
+                poll(connection.unwrap(PGConnection.class));
+            } catch (SQLException | DataAccessException e) {
+                // Версия читается через основной пул; если он недоступен, после переподключения
+                // версия публикуется заново
+                if (!running) {
+                    return;
+                }
+                log.warn("Соединение для LISTEN {} потеряно, повтор через {} мс: {}",
+                        CHANNEL, reconnectDelay, e.getMessage());
+                try {
+                    TimeUnit.MILLISECONDS.sleep(reconnectDelay);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+                reconnectDelay = Math.min(reconnectDelay * 2, MAX_RECONNECT_DELAY_MILLIS);
+            }
+        }
+    }
+
+    private void poll(PGConnection connection) throws SQLException {
+        while (running) {
+            PGNotification[] notifications = connection.getNotifications((int) POLL_TIMEOUT_MILLIS);
+            if (notifications != null && notifications.length > 0) {
+                log.debug("Получено {} уведомлений об изменении каталога, первое: {}",
+                        notifications.length, notifications[0].getParameter());
+                catalogVersionService.publishNewVersion();
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.fedor.fooddelivery.cache;
+
+import com.fedor.fooddelivery.event.CatalogChangedEvent;
+import com.fedor.fooddelivery.repository.CatalogJdbcRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Транзакция загрузки кэшей каталога.
+ * Загрузка идет в read-only транзакции, то есть при настроенных репликах - с реплики (ReadReplicaConfig).
+ * Реплика может отставать: после публикации версии каталога (CatalogChangedEvent) кэши сбрасываются,
+ * и загрузка с отставшей реплики снова закэшировала бы старые данные, а только что добавленный
+ * идентификатор запомнила бы как отсутствующий. Поэтому после первой публикации загрузка сначала
+ * сверяет версию каталога на реплике в той же транзакции и, если реплика еще не дошла
+ * до опубликованной версии, повторяется на основной БД
+ */
+@Component
+public class CatalogLoadTransaction {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogLoadTransaction.class);
+
+    /**
+     * Результат загрузки с реплики, отставшей от опубликованной версии
+     */
+    private static final Object REPLICA_BEHIND = new Object();
+
+    private final CatalogJdbcRepository catalogJdbcRepository;
+    private final TransactionTemplate replicaTransaction;
+    private final TransactionTemplate primaryTransaction;
+    private final boolean replicasEnabled;
+    // 0 - версия еще не публиковалась, реплика не сверяется
+    private final AtomicLong publishedVersion = new AtomicLong();
+
+    public CatalogLoadTransaction(CatalogJdbcRepository catalogJdbcRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.datasource.replicas[0].url:}") String firstReplicaUrl) {
+        this.catalogJdbcRepository = catalogJdbcRepository;
+        this.replicaTransaction = new TransactionTemplate(transactionManager);
+        this.replicaTransaction.setReadOnly(true);
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+        this.replicasEnabled = !firstReplicaUrl.isBlank();
+    }
+
+    /**
+     * Выполнить загрузку с реплики, если она не отстает от опубликованной версии каталога, иначе с основной БД.
+     * Без реплик загрузка выполняется в read-only транзакции без сверки версии
+     * @param action загрузка
+     * @return результат загрузки
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(TransactionCallback<T> action) {
+        long required = publishedVersion.get();
+        if (!replicasEnabled || required == 0) {
+            return replicaTransaction.execute(action);
+        }
+        Object result = replicaTransaction.execute(status -> catalogJdbcRepository.findCatalogVersion() >= required
+                ? action.doInTransaction(status) : REPLICA_BEHIND);
+        if (result != REPLICA_BEHIND) {
+            return (T) result;
+        }
+        log.debug("Реплика отстает от версии каталога {}, загрузка из основной БД", required);
+        return primaryTransaction.execute(action);
+    }
+
+    /**
+     * Запомнить опубликованную версию раньше, чем кэши будут сброшены и начнутся загрузки
+     * @param event событие новой версии каталога
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        publishedVersion.accumulateAndGet(event.version(), Math::max);
+    }
+}
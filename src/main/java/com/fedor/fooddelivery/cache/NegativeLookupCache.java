@@ -0,0 +1,139 @@
+package com.fedor.fooddelivery.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Кэш отсутствующих идентификаторов (negative lookup cache).
+ * Идентификатор, не найденный в БД, запоминается на ttl, и повторные запросы с ним
+ * получают 404 без обращения к БД. Размер ограничен maxSize: при переполнении
+ * сначала удаляются истекшие записи, а если места все равно нет, новые идентификаторы не запоминаются.
+ * Поиск истекших записей просматривает весь кэш, поэтому выполняется не чаще раза в ttl/10,
+ * а не на каждый промах при полном кэше.
+ * Сбрасывается при новой версии каталога, поэтому добавленная категория или товар становятся видны сразу.
+ * При ttl, равном нулю, кэш отключен
+ */
+public class NegativeLookupCache {
+
+    public static final String HITS_METRIC = "app.catalog.negative-cache.hits";
+
+    private static final int PURGES_PER_TTL = 10;
+
+    private final Duration ttl;
+    private final int maxSize;
+    private final LongSupplier nanoTime;
+    private final long purgeIntervalNanos;
+
+    private final ConcurrentMap<Long, Long> expiresAt = new ConcurrentHashMap<>();
+    // Увеличивается при сбросе: поиск, начатый до сброса, не должен запомнить отсутствие после него
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong nextPurgeAt;
+    private final Counter hits;
+
+    /**
+     * @param name имя кэша, попадает в тег cache метрик
+     * @param ttl сколько помнить отсутствующий идентификатор
+     * @param maxSize максимальное количество идентификаторов
+     * @param registry реестр метрик
+     * @param nanoTime источник времени, System::nanoTime вне тестов
+     */
+    public NegativeLookupCache(String name, Duration ttl, int maxSize, MeterRegistry registry, LongSupplier nanoTime) {
+        this.ttl = ttl;
+        this.maxSize = maxSize;
+        this.nanoTime = nanoTime;
+        this.purgeIntervalNanos = ttl.toNanos() / PURGES_PER_TTL;
+        this.nextPurgeAt = new AtomicLong(nanoTime.getAsLong());
+        this.hits = Counter.builder(HITS_METRIC)
+                .description("Запросы отсутствующих идентификаторов, отвеченные без обращения к БД")
+                .tag("cache", name)
+                .register(registry);
+        Gauge.builder("app.catalog.negative-cache.size", expiresAt, ConcurrentMap::size)
+                .description("Количество запомненных отсутствующих идентификаторов")
+                .tag("cache", name)
+                .register(registry);
+    }
+
+    /**
+     * Отметка для последующего {@link #recordMissing(Long, long)}, берется до обращения к БД
+     */
+    public long stamp() {
+        return generation.get();
+    }
+
+    /**
+     * Известно ли, что идентификатор отсутствует
+     * @param id идентификатор
+     * @return true, если идентификатор недавно не нашелся в БД
+     */
+    public boolean isMissing(Long id) {
+        if (id == null || ttl.isZero()) {
+            return false;
+        }
+        Long expires = expiresAt.get(id);
+        if (expires == null) {
+            return false;
+        }
+        if (nanoTime.getAsLong() - expires >= 0) {
+            expiresAt.remove(id, expires);
+            return false;
+        }
+        hits.increment();
+        return true;
+    }
+
+    /**
+     * Запомнить, что идентификатор не найден
+     * @param id идентификатор
+     * @param stamp отметка {@link #stamp()}, взятая до обращения к БД
+     */
+    public void recordMissing(Long id, long stamp) {
+        if (id == null || ttl.isZero()) {
+            return;
+        }
+        long now = nanoTime.getAsLong();
+        if (expiresAt.size() >= maxSize) {
+            purgeExpired(now);
+            if (expiresAt.size() >= maxSize) {
+                return;
+            }
+        }
+        expiresAt.put(id, now + ttl.toNanos());
+        if (generation.get() != stamp) {
+            expiresAt.remove(id);
+        }
+    }
+
+    /**
+     * Удалить истекшие записи, если с прошлого удаления прошло не меньше ttl/10.
+     * Удаляет один поток, остальные в это время не ждут, а просто не запоминают идентификатор
+     */
+    private void purgeExpired(long now) {
+        long next = nextPurgeAt.get();
+        if (now - next < 0 || !nextPurgeAt.compareAndSet(next, now + purgeIntervalNanos)) {
+            return;
+        }
+        expiresAt.values().removeIf(expires -> now - expires >= 0);
+    }
+
+    /**
+     * Забыть все отсутствующие идентификаторы
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        expiresAt.clear();
+    }
+
+    /**
+     * Количество запомненных идентификаторов
+     */
+    public int size() {
+        return expiresAt.size();
+    }
+}
@@ -0,0 +1,304 @@
+package com.fedor.fooddelivery.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Кэш с отдачей устаревших значений на время фонового обновления (stale-while-revalidate).
+ * <ul>
+ *     <li>моложе soft TTL - значение свежее и отдается как есть;</li>
+ *     <li>старше soft TTL, но моложе hard TTL - значение отдается сразу, а обновление уходит в планировщик;</li>
+ *     <li>старше hard TTL или отсутствует - загружается в потоке запроса.</li>
+ * </ul>
+ * Кроме того, каждое значение обновляется планировщиком заранее, до истечения soft TTL.
+ * Момент обновления сдвигается случайно в пределах jitter, чтобы значения, загруженные одновременно
+ * (например, на старте), не обновлялись одной волной. Параллельность обновлений ограничена
+ * числом потоков планировщика. Значения, которые не читали дольше hard TTL, не обновляются, а удаляются.
+ * При hard TTL, равном нулю, кэш отключен и каждое обращение идет в загрузчик.
+ * Обращения с ключом null не кэшируются
+ * @param <K> тип ключа
+ * @param <V> тип значения
+ */
+public class RefreshingCache<K, V> {
+
+    public static final String REQUESTS_METRIC = "app.catalog.cache.requests";
+    public static final String STALENESS_METRIC = "app.catalog.cache.staleness";
+    public static final String REFRESH_METRIC = "app.catalog.cache.refresh";
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshingCache.class);
+
+    private final String name;
+    private final Function<K, V> loader;
+    private final Settings settings;
+    private final ScheduledExecutorService scheduler;
+    private final LongSupplier nanoTime;
+
+    private final ConcurrentMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    // Увеличивается при сбросе: загрузка, начатая до сброса, не должна попасть в кэш после него
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Counter hits;
+    private final Counter staleHits;
+    private final Counter misses;
+    private final Timer staleness;
+    private final Timer refreshSuccess;
+    private final Timer refreshFailure;
+
+    /**
+     * @param name имя кэша, попадает в тег cache метрик
+     * @param loader загрузка значения по ключу
+     * @param settings сроки жизни значений
+     * @param scheduler планировщик фоновых обновлений
+     * @param registry реестр метрик
+     * @param nanoTime источник времени, System::nanoTime вне тестов
+     */
+    public RefreshingCache(String name, Function<K, V> loader, Settings settings,
+                           ScheduledExecutorService scheduler, MeterRegistry registry, LongSupplier nanoTime) {
+        this.name = name;
+        this.loader = loader;
+        this.settings = settings;
+        this.scheduler = scheduler;
+        this.nanoTime = nanoTime;
+
+        hits = requestCounter(registry, "hit");
+        staleHits = requestCounter(registry, "stale");
+        misses = requestCounter(registry, "miss");
+        staleness = Timer.builder(STALENESS_METRIC)
+                .description("Насколько отданное значение старше soft TTL")
+                .tag("cache", name)
+                .register(registry);
+        refreshSuccess = refreshTimer(registry, "success");
+        refreshFailure = refreshTimer(registry, "failure");
+        Gauge.builder("app.catalog.cache.size", entries, ConcurrentMap::size)
+                .description("Количество значений в кэше")
+                .tag("cache", name)
+                .register(registry);
+    }
+
+    /**
+     * Получить значение: из кэша, если оно моложе hard TTL, иначе загрузить в текущем потоке
+     * @param key ключ
+     * @return значение
+     */
+    public V get(K key) {
+        if (!settings.enabled() || key == null) {
+            return loader.apply(key);
+        }
+        Entry<V> entry = entries.get(key);
+        V value = cached(key, entry, nanoTime.getAsLong());
+        if (value != null) {
+            return value;
+        }
+        misses.increment();
+        long loadGeneration = generation.get();
+        value = loader.apply(key);
+        store(key, entry, value, loadGeneration);
+        return value;
+    }
+
+    /**
+     * Получить значения нескольких ключей. Значения моложе hard TTL отдаются из кэша, как в get,
+     * остальные загружаются одним вызовом bulkLoader в текущем потоке и сохраняются в кэш
+     * @param keys ключи без повторов
+     * @param bulkLoader загрузка значений по ключам; ключа, которого нет в его результате, нет и в ответе
+     * @return значения в порядке keys
+     */
+    public Map<K, V> getAll(Collection<K> keys, Function<Collection<K>, Map<K, V>> bulkLoader) {
+        Map<K, V> result = new LinkedHashMap<>();
+        if (!settings.enabled()) {
+            Map<K, V> loaded = bulkLoader.apply(keys);
+            for (K key : keys) {
+                V value = loaded.get(key);
+                if (value != null) {
+                    result.put(key, value);
+                }
+            }
+            return result;
+        }
+        long now = nanoTime.getAsLong();
+        // Отсутствующие ключи с прежним значением (старше hard TTL) или null
+        Map<K, Entry<V>> missing = new HashMap<>();
+        for (K key : keys) {
+            Entry<V> entry = entries.get(key);
+            V value = cached(key, entry, now);
+            // Место в порядке ответа занимается сразу, ключи, которые не удалось загрузить, потом удаляются
+            result.put(key, value);
+            if (value == null) {
+                missing.put(key, entry);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+        misses.increment(missing.size());
+        long loadGeneration = generation.get();
+        Map<K, V> loaded = bulkLoader.apply(missing.keySet());
+        missing.forEach((key, entry) -> {
+            V value = loaded.get(key);
+            if (value == null) {
+                result.remove(key);
+                return;
+            }
+            store(key, entry, value, loadGeneration);
+            result.put(key, value);
+        });
+        return result;
+    }
+
+    /**
+     * Значение из кэша, если оно моложе hard TTL; устаревшее значение ставится на фоновое обновление
+     * @return значение или null, если его нужно загрузить
+     */
+    private V cached(K key, Entry<V> entry, long now) {
+        if (entry == null) {
+            return null;
+        }
+        long age = now - entry.loadedAt;
+        if (age < settings.softTtl().toNanos()) {
+            entry.lastAccess = now;
+            hits.increment();
+            return entry.value;
+        }
+        if (age < settings.hardTtl().toNanos()) {
+            entry.lastAccess = now;
+            staleHits.increment();
+            staleness.record(age - settings.softTtl().toNanos(), TimeUnit.NANOSECONDS);
+            if (!scheduler.isShutdown() && entry.refreshing.compareAndSet(false, true)) {
+                scheduler.execute(() -> refresh(key, entry));
+            }
+            return entry.value;
+        }
+        return null;
+    }
+
+    /**
+     * Удалить все значения. Обновления, которые уже выполняются, свой результат не сохранят
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    /**
+     * Количество значений в кэше
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private void refresh(K key, Entry<V> entry) {
+        if (entries.get(key) != entry) {
+            return;
+        }
+        long now = nanoTime.getAsLong();
+        if (now - entry.lastAccess >= settings.hardTtl().toNanos()) {
+            log.debug("Кэш {}: значение {} давно не запрашивали, удалено", name, key);
+            entries.remove(key, entry);
+            return;
+        }
+
+        long loadGeneration = generation.get();
+        long start = System.nanoTime();
+        try {
+            V value = loader.apply(key);
+            store(key, entry, value, loadGeneration);
+            refreshSuccess.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        } catch (RuntimeException e) {
+            refreshFailure.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (now - entry.loadedAt >= settings.hardTtl().toNanos()) {
+                log.warn("Кэш {}: не удалось обновить {}, значение старше hard TTL удалено: {}", name, key, e.getMessage());
+                entries.remove(key, entry);
+                return;
+            }
+            log.warn("Кэш {}: не удалось обновить {}, отдается прежнее значение: {}", name, key, e.getMessage());
+            entry.refreshing.set(false);
+            scheduleRefresh(key, entry);
+        }
+    }
+
+    private void store(K key, Entry<V> previous, V value, long loadGeneration) {
+        Entry<V> created = new Entry<>(value, nanoTime.getAsLong());
+        boolean stored = (previous != null && entries.replace(key, previous, created))
+                || entries.putIfAbsent(key, created) == null;
+        if (!stored || generation.get() != loadGeneration) {
+            // Ключ уже обновили другим путем или кэш сбросили во время загрузки
+            entries.remove(key, created);
+            return;
+        }
+        scheduleRefresh(key, created);
+    }
+
+    private void scheduleRefresh(K key, Entry<V> entry) {
+        if (scheduler.isShutdown()) {
+            return;
+        }
+        long softTtl = settings.softTtl().toNanos();
+        long delay = softTtl - (long) (softTtl * settings.jitter() * ThreadLocalRandom.current().nextDouble());
+        scheduler.schedule(() -> {
+            if (entry.refreshing.compareAndSet(false, true)) {
+                refresh(key, entry);
+            }
+        }, delay, TimeUnit.NANOSECONDS);
+    }
+
+    private Counter requestCounter(MeterRegistry registry, String result) {
+        return Counter.builder(REQUESTS_METRIC)
+                .description("Обращения к кэшу каталога: свежее значение, устаревшее значение, загрузка")
+                .tag("cache", name)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private Timer refreshTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder(REFRESH_METRIC)
+                .description("Время фонового обновления значения")
+                .tag("cache", name)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    /**
+     * Сроки жизни значений
+     * @param softTtl после этого срока значение отдается, но обновляется в фоне
+     * @param hardTtl после этого срока значение не отдается; ноль отключает кэш
+     * @param jitter доля soft TTL (от 0 до 1), на которую случайно раньше планируется обновление
+     */
+    public record Settings(Duration softTtl, Duration hardTtl, double jitter) {
+
+        public boolean enabled() {
+            return !hardTtl.isZero();
+        }
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long loadedAt;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        private volatile long lastAccess;
+
+        private Entry(V value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+            this.lastAccess = loadedAt;
+        }
+    }
+}
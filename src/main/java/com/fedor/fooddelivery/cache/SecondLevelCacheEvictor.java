@@ -0,0 +1,40 @@
+package com.fedor.fooddelivery.cache;
+
+import com.fedor.fooddelivery.entity.Category;
+import com.fedor.fooddelivery.entity.Product;
+import com.fedor.fooddelivery.event.CatalogChangedEvent;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Сброс кэша второго уровня Hibernate при публикации новой версии каталога.
+ * Записи через репозитории Hibernate инвалидирует сам, а массовые изменения
+ * через JDBC (например, импорт каталога) проходят мимо него
+ */
+@Component
+@RequiredArgsConstructor
+public class SecondLevelCacheEvictor {
+
+    private static final Logger log = LoggerFactory.getLogger(SecondLevelCacheEvictor.class);
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Очистить регионы категорий, товаров и кэш запросов
+     * @param event событие новой версии каталога
+     */
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        cache.evictEntityData(Category.class);
+        cache.evictEntityData(Product.class);
+        cache.evictQueryRegions();
+        log.debug("Кэш второго уровня очищен для версии каталога {}", event.version());
+    }
+}
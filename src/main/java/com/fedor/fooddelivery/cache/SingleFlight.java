@@ -0,0 +1,89 @@
+package com.fedor.fooddelivery.cache;
+
+import com.fedor.fooddelivery.exceptions.CatalogLoadTimeoutException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Объединение одновременных загрузок по одному ключу (single-flight).
+ * Первый вызов для ключа выполняет загрузку в своем потоке, остальные вызовы, пришедшие
+ * до ее окончания, ждут тот же результат не дольше заданного времени. Результат не кэшируется:
+ * после завершения загрузки следующий вызов снова идет в источник. Вызовы с ключом null не объединяются.
+ * Поэтому при холодном старте число обращений к БД пропорционально числу разных ключей, а не запросов
+ * @param <K> тип ключа
+ * @param <V> тип результата
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Duration timeout;
+
+    /**
+     * @param timeout сколько ожидающий вызов ждет чужую загрузку того же ключа
+     */
+    public SingleFlight(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * Получить значение, присоединившись к уже идущей загрузке ключа или запустив ее
+     * @param key ключ
+     * @param loader загрузка значения, выполняется в потоке первого вызова
+     * @return загруженное значение
+     * @throws CatalogLoadTimeoutException если чужая загрузка не завершилась за timeout
+     */
+    public V load(K key, Supplier<V> loader) {
+        if (key == null) {
+            return loader.get();
+        }
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            return await(key, existing);
+        }
+        try {
+            V value = loader.get();
+            created.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, created);
+        }
+    }
+
+    /**
+     * Количество ключей, загрузка которых идет прямо сейчас
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private V await(K key, CompletableFuture<V> future) {
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new CatalogLoadTimeoutException(key, timeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CatalogLoadTimeoutException(key, timeout);
+        } catch (ExecutionException e) {
+            // Ожидающие получают то же исключение, что и загружавший поток (например, CategoryNotFoundException)
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.fedor.fooddelivery.changes;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fedor.fooddelivery.dto.CatalogChangeDto;
+import com.fedor.fooddelivery.event.CatalogChangesDetectedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Рассылка изменений каталога подписчикам GET /catalog/stream (Server-Sent Events).
+ * Каждое изменение сериализуется в кадр SSE один раз, и один и тот же массив байт ставится
+ * в очереди всех подписчиков. Публикующий поток только кладет кадры в очереди и не ждет сети:
+ * отправку выполняет общий пул потоков, по одной задаче на подписчика с непустой очередью.
+ * Подписчик, очередь которого переполнилась (клиент не успевает читать), отключается,
+ * клиент переподключается сам по полю retry и передает Last-Event-ID - версию последнего полученного
+ * изменения в БД; пропущенные изменения он получает из журнала CatalogChangeJournal
+ */
+@Component
+public class CatalogChangeBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogChangeBroadcaster.class);
+
+    private static final MediaType FRAME_TYPE = MediaType.APPLICATION_OCTET_STREAM;
+    private static final byte[] HEARTBEAT = ": ping\n\n".getBytes(StandardCharsets.UTF_8);
+    /**
+     * Через сколько миллисекунд клиент переподключается после разрыва
+     */
+    private static final long RETRY_MILLIS = 5000;
+
+    private final ObjectMapper objectMapper;
+    private final CatalogChangeJournal catalogChangeJournal;
+    private final int queueSize;
+    private final Duration timeout;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService sendExecutor;
+    private final ScheduledExecutorService heartbeatExecutor;
+    private final Counter droppedCounter;
+
+    public CatalogChangeBroadcaster(ObjectMapper objectMapper,
+                                    CatalogChangeJournal catalogChangeJournal,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.catalog.stream.queue-size:256}") int queueSize,
+                                    @Value("${app.catalog.stream.timeout:30m}") Duration timeout,
+                                    @Value("${app.catalog.stream.heartbeat:15s}") Duration heartbeat,
+                                    @Value("${app.catalog.stream.send-threads:4}") int sendThreads) {
+        this.objectMapper = objectMapper;
+        this.catalogChangeJournal = catalogChangeJournal;
+        this.queueSize = queueSize;
+        this.timeout = timeout;
+        CustomizableThreadFactory sendThreadFactory = new CustomizableThreadFactory("catalog-stream-");
+        sendThreadFactory.setDaemon(true);
+        this.sendExecutor = Executors.newFixedThreadPool(sendThreads, sendThreadFactory);
+        CustomizableThreadFactory heartbeatThreadFactory = new CustomizableThreadFactory("catalog-stream-heartbeat-");
+        heartbeatThreadFactory.setDaemon(true);
+        this.heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(heartbeatThreadFactory);
+        this.heartbeatExecutor.scheduleWithFixedDelay(() -> broadcast(List.of(HEARTBEAT)),
+                heartbeat.toMillis(), heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+        Gauge.builder("app.catalog.stream.subscribers", subscribers, Set::size)
+                .description("Число подключенных подписчиков GET /catalog/stream")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("app.catalog.stream.dropped")
+                .description("Подписчики GET /catalog/stream, отключенные из-за переполнения очереди")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Подключить нового подписчика
+     * @param lastEventId версия последнего полученного изменения из заголовка Last-Event-ID;
+     *                    null - клиент подключается впервые
+     * @return emitter, который нужно вернуть из контроллера
+     */
+    public ResponseBodyEmitter subscribe(Long lastEventId) {
+        return subscribe(new ResponseBodyEmitter(timeout.toMillis()), lastEventId);
+    }
+
+    /**
+     * Подключить подписчика с заданным emitter.
+     * Первым кадром клиент получает интервал переподключения и версию каталога, с которой начинается
+     * поток, затем изменения после lastEventId, пропущенные за время переподключения
+     * @param emitter emitter ответа
+     * @param lastEventId версия последнего полученного изменения; null - клиент подключается впервые
+     * @return тот же emitter
+     */
+    public ResponseBodyEmitter subscribe(ResponseBodyEmitter emitter, Long lastEventId) {
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(subscriber::timeout);
+        emitter.onError(e -> subscribers.remove(subscriber));
+        // Подписчик добавляется под блокировкой журнала: изменения, опубликованные после повтора,
+        // он получит рассылкой, а не пропустит
+        catalogChangeJournal.replay(lastEventId, (version, missed) -> {
+            subscribers.add(subscriber);
+            String hello = "retry: " + RETRY_MILLIS + "\n: catalog version " + version + "\n\n";
+            subscriber.offer(hello.getBytes(StandardCharsets.UTF_8));
+            for (CatalogChangeDto change : missed) {
+                if (!subscriber.offer(frame(change))) {
+                    break;
+                }
+            }
+        });
+        return emitter;
+    }
+
+    /**
+     * Разослать изменения новой версии каталога
+     * @param event изменения версии каталога
+     */
+    @EventListener
+    public void onChangesDetected(CatalogChangesDetectedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        List<byte[]> frames = new ArrayList<>(event.changes().size());
+        for (CatalogChangeDto change : event.changes()) {
+            frames.add(frame(change));
+        }
+        broadcast(frames);
+    }
+
+    private void broadcast(List<byte[]> frames) {
+        for (Subscriber subscriber : subscribers) {
+            for (byte[] frame : frames) {
+                if (!subscriber.offer(frame)) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private byte[] frame(CatalogChangeDto change) {
+        try {
+            String frame = "id: " + change.getVersion() + "\nevent: " + change.getType().getTag()
+                    + "\ndata: " + objectMapper.writeValueAsString(change) + "\n\n";
+            return frame.getBytes(StandardCharsets.UTF_8);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Число подключенных подписчиков
+     * @return число подписчиков
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeatExecutor.shutdownNow();
+        subscribers.forEach(Subscriber::close);
+        sendExecutor.shutdown();
+    }
+
+    /**
+     * Подключение с собственной очередью кадров.
+     * Очередь разбирает не больше одной задачи пула одновременно, поэтому кадры уходят по порядку
+     */
+    private final class Subscriber {
+
+        private final ResponseBodyEmitter emitter;
+        private final BlockingQueue<byte[]> queue = new ArrayBlockingQueue<>(queueSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+        private volatile boolean completed;
+
+        private Subscriber(ResponseBodyEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /**
+         * Поставить кадр в очередь без ожидания
+         * @return false, если подписчик отключен
+         */
+        boolean offer(byte[] frame) {
+            if (closed) {
+                return false;
+            }
+            if (!queue.offer(frame)) {
+                droppedCounter.increment();
+                log.debug("Подписчик потока каталога не успевает читать, отключен");
+                close();
+                return false;
+            }
+            scheduleDrain();
+            return true;
+        }
+
+        /**
+         * Отключить подписчика. Emitter завершается потоком отправки: публикующий поток
+         * не должен ждать блокировку emitter, которую держит зависшая отправка
+         */
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+            queue.clear();
+            if (!completed) {
+                scheduleDrain();
+            }
+        }
+
+        /**
+         * Истек таймаут соединения: emitter завершается сразу, в потоке контейнера
+         */
+        void timeout() {
+            completed = true;
+            close();
+            emitter.complete();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    sendExecutor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    // Приложение останавливается
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                byte[] frame;
+                while (!closed && (frame = queue.poll()) != null) {
+                    emitter.send(frame, FRAME_TYPE);
+                }
+                if (closed && !completed) {
+                    completed = true;
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Клиент отключился, emitter уже завершен с ошибкой
+                completed = true;
+                close();
+            } finally {
+                draining.set(false);
+            }
+            // Кадр или отключение могли прийти после последней проверки, но до сброса флага
+            if (closed ? !completed : !queue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+    }
+}
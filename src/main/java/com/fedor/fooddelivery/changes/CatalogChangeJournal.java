@@ -0,0 +1,413 @@
+package com.fedor.fooddelivery.changes;
+
+import com.fedor.fooddelivery.dto.CatalogChangeDto;
+import com.fedor.fooddelivery.dto.CatalogChangesDto;
+import com.fedor.fooddelivery.dto.CategoryDto;
+import com.fedor.fooddelivery.dto.ProductDto;
+import com.fedor.fooddelivery.entity.Category;
+import com.fedor.fooddelivery.entity.Product;
+import com.fedor.fooddelivery.event.CatalogChangedEvent;
+import com.fedor.fooddelivery.event.CatalogChangesDetectedEvent;
+import com.fedor.fooddelivery.mapper.CategoryMapper;
+import com.fedor.fooddelivery.mapper.ProductMapper;
+import com.fedor.fooddelivery.repository.CatalogJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Журнал последних изменений каталога для GET /catalog/changes?since={version} и GET /catalog/stream.
+ * Версии назначает БД (столбец change_version и таблица catalog_deletions, миграция V6), поэтому
+ * они общие для всех узлов и не сбрасываются при перезапуске. Журнал хранит в памяти не больше
+ * journal-size последних изменений - по одной записи на категорию или товар с версией его
+ * последнего изменения - и дочитывает новые один раз после каждой новой версии каталога, при следующем запросе.
+ * floor - версия, начиная с которой журнал полон: клиент с since не меньше floor получает изменения
+ * из памяти, более старый (или с версией новее журнала) - весь каталог, который контроллер выгружает потоком.
+ * Раз в prune-interval журнал удаляет из catalog_deletions строки старше journal-size последних удалений.
+ * Если поток изменений включен (app.catalog.changes.enabled), журнал дочитывается в фоне сразу после
+ * новой версии и публикует CatalogChangesDetectedEvent с событиями по дочитанным строкам: вид изменения
+ * определяют столбцы created_version и previous_price (миграция V8), каталог целиком не перечитывается.
+ * Событие публикуется под блокировкой журнала, под ней же новый подписчик получает пропущенные события
+ * (replay), поэтому между повтором и следующей публикацией события не теряются
+ */
+@Component
+public class CatalogChangeJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogChangeJournal.class);
+
+    private static final String CATEGORIES_TABLE = "categories";
+
+    private final CatalogJdbcRepository catalogJdbcRepository;
+    private final CategoryMapper categoryMapper;
+    private final ProductMapper productMapper;
+    private final TransactionTemplate primaryTransaction;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxEntries;
+    private final long pruneIntervalNanos;
+    private final boolean streamEnabled;
+    private final int maxStreamChanges;
+    private final ThreadPoolExecutor executor;
+    private final Counter deltaCounter;
+    private final Counter fullCounter;
+
+    // Изменяются только под блокировкой this
+    private final NavigableMap<Long, Entry> entries = new TreeMap<>();
+    private final Map<Key, Long> entryVersions = new HashMap<>();
+    private boolean loaded;
+    private long floor;
+    private long head;
+    private long prunedAt;
+    private boolean pruned;
+
+    private volatile boolean stale = true;
+
+    public CatalogChangeJournal(CatalogJdbcRepository catalogJdbcRepository,
+                                CategoryMapper categoryMapper,
+                                ProductMapper productMapper,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                ApplicationEventPublisher eventPublisher,
+                                @Value("${app.catalog.changes.journal-size:10000}") int maxEntries,
+                                @Value("${app.catalog.changes.prune-interval:1h}") Duration pruneInterval,
+                                @Value("${app.catalog.changes.enabled:true}") boolean streamEnabled,
+                                @Value("${app.catalog.stream.max-changes:100}") int maxStreamChanges) {
+        this.catalogJdbcRepository = catalogJdbcRepository;
+        this.categoryMapper = categoryMapper;
+        this.productMapper = productMapper;
+        // Журнал дочитывается с основной БД: реплика может еще не содержать изменение, о котором пришло уведомление
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.maxEntries = maxEntries;
+        this.pruneIntervalNanos = pruneInterval.toNanos();
+        this.streamEnabled = streamEnabled;
+        this.maxStreamChanges = maxStreamChanges;
+        this.deltaCounter = counter(meterRegistry, "delta");
+        this.fullCounter = counter(meterRegistry, "full");
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("catalog-changes-");
+        threadFactory.setDaemon(true);
+        // Одно дочитывание выполняется и не больше одного ждет: оно все равно прочитает последнюю версию
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1), threadFactory, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("app.catalog.changes.requests")
+                .description("Запросы GET /catalog/changes: изменения из журнала (delta) или весь каталог (full)")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        requestRefresh();
+    }
+
+    /**
+     * Дочитать журнал: в фоне, если поток изменений включен, иначе при следующем запросе
+     * @param event событие новой версии каталога
+     */
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        stale = true;
+        requestRefresh();
+    }
+
+    private void requestRefresh() {
+        if (streamEnabled) {
+            executor.execute(this::refreshSafely);
+        }
+    }
+
+    private void refreshSafely() {
+        try {
+            synchronized (this) {
+                if (stale) {
+                    refresh();
+                }
+            }
+        } catch (RuntimeException e) {
+            // Дочитаем при следующей версии или запросе
+            log.warn("Не удалось дочитать журнал изменений каталога: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Получить изменения каталога после версии.
+     * Журнал обращается к БД только после новой версии каталога, а не по версии клиента:
+     * версия новее журнала (клиент получил ее от узла, до которого уведомление дошло раньше,
+     * или такой версии нет в БД) отвечается всем каталогом без обращения к журналу
+     * @param since версия, которая уже есть у клиента; 0 - у клиента нет каталога
+     * @return изменения после since; пусто, если журнал их не содержит и клиенту нужен весь каталог
+     */
+    public Optional<CatalogChangesDto> changesSince(long since) {
+        synchronized (this) {
+            if (stale) {
+                refresh();
+            }
+            if (since >= floor && since <= head) {
+                deltaCounter.increment();
+                return Optional.of(delta(since));
+            }
+        }
+        log.debug("Версия {} вне журнала изменений [{}, {}], отдается весь каталог", since, floor, head);
+        fullCounter.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * Передать action версию журнала и события после since так, чтобы между ними и следующей
+     * публикацией ничего не потерялось: action выполняется под блокировкой журнала, под которой
+     * публикуются и новые события. Журнал при этом не дочитывается и к БД не обращается
+     * @param since последняя версия, полученная клиентом (Last-Event-ID); null - клиент подключается впервые
+     * @param action получает версию журнала и события после since
+     */
+    public synchronized void replay(Long since, BiConsumer<Long, List<CatalogChangeDto>> action) {
+        action.accept(head, since != null ? events(since) : List.of());
+    }
+
+    private void refresh() {
+        long previousHead = head;
+        boolean wasLoaded = loaded;
+        stale = false;
+        try {
+            primaryTransaction.executeWithoutResult(status -> load());
+        } catch (RuntimeException e) {
+            stale = true;
+            throw e;
+        }
+        if (streamEnabled && head != previousHead) {
+            // Первое чтение или БД восстановлена из резервной копии: прежняя версия подписчиков неизвестна
+            List<CatalogChangeDto> changes = wasLoaded && head > previousHead
+                    ? events(previousHead)
+                    : List.of(reload());
+            eventPublisher.publishEvent(new CatalogChangesDetectedEvent(head, changes));
+        }
+        pruneDeletions();
+    }
+
+    /**
+     * Удалить старые строки catalog_deletions, не чаще раза в prune-interval.
+     * Ошибка не мешает ответу: строки удалятся при следующей попытке
+     */
+    private void pruneDeletions() {
+        long now = System.nanoTime();
+        if (pruned && now - prunedAt < pruneIntervalNanos) {
+            return;
+        }
+        pruned = true;
+        prunedAt = now;
+        try {
+            Integer deleted = primaryTransaction.execute(status -> catalogJdbcRepository.pruneDeletions(maxEntries));
+            if (deleted != null && deleted > 0) {
+                log.info("Из catalog_deletions удалено {} старых строк", deleted);
+            }
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Не удалось удалить старые строки catalog_deletions: {}", e.getMessage());
+        }
+    }
+
+    private void load() {
+        long version = catalogJdbcRepository.findCatalogVersion();
+        if (version < head) {
+            // БД восстановлена из резервной копии: версии журнала ей больше не соответствуют
+            log.warn("Версия каталога в БД {} меньше версии журнала {}, журнал изменений перечитывается", version, head);
+            entries.clear();
+            entryVersions.clear();
+            loaded = false;
+            floor = 0;
+        }
+        long after = loaded ? head : 0;
+        long newFloor = loaded ? floor : 0;
+        List<Entry> changes = new ArrayList<>();
+
+        // Запрос вернул journal-size строк - более старые изменения таблицы не прочитаны,
+        // и журнал полон только начиная с версии последней прочитанной строки
+        List<CatalogJdbcRepository.Versioned<Category>> categories =
+                catalogJdbcRepository.findChangedCategories(after, version, maxEntries);
+        categories.forEach(changed -> changes.add(new Entry(new Key(false, changed.row().getId()), changed.version(),
+                changed.createdVersion(), categoryMapper.toCategoryDto(changed.row()), null, null)));
+        if (categories.size() == maxEntries) {
+            newFloor = Math.max(newFloor, categories.get(maxEntries - 1).version() - 1);
+        }
+
+        List<CatalogJdbcRepository.Versioned<Product>> products =
+                catalogJdbcRepository.findChangedProducts(after, version, maxEntries);
+        products.forEach(changed -> changes.add(new Entry(new Key(true, changed.row().getId()), changed.version(),
+                changed.createdVersion(), null, productMapper.toProductDto(changed.row()), changed.previousPrice())));
+        if (products.size() == maxEntries) {
+            newFloor = Math.max(newFloor, products.get(maxEntries - 1).version() - 1);
+        }
+
+        List<CatalogJdbcRepository.Deletion> deletions = catalogJdbcRepository.findDeletions(after, version, maxEntries);
+        for (CatalogJdbcRepository.Deletion deletion : deletions) {
+            boolean product = !CATEGORIES_TABLE.equals(deletion.table());
+            if (deletion.id() == null) {
+                // TRUNCATE: какие строки удалены, неизвестно
+                newFloor = Math.max(newFloor, deletion.version());
+            } else {
+                changes.add(new Entry(new Key(product, deletion.id()), deletion.version(), 0, null, null, null));
+            }
+        }
+        if (deletions.size() == maxEntries) {
+            newFloor = Math.max(newFloor, deletions.get(maxEntries - 1).version() - 1);
+        }
+
+        // Строка могла быть удалена и вставлена снова: последней применяется более новая запись
+        changes.sort(Comparator.comparingLong(Entry::version));
+        changes.forEach(this::put);
+        loaded = true;
+        head = version;
+        advanceFloor(newFloor);
+        while (entries.size() > maxEntries) {
+            Map.Entry<Long, Entry> oldest = entries.pollFirstEntry();
+            entryVersions.remove(oldest.getValue().key());
+            floor = oldest.getKey();
+        }
+        log.debug("Журнал изменений каталога: версии ({}, {}], записей {}", floor, head, entries.size());
+    }
+
+    private void put(Entry entry) {
+        Long previous = entryVersions.put(entry.key(), entry.version());
+        if (previous != null) {
+            entries.remove(previous);
+        }
+        entries.put(entry.version(), entry);
+    }
+
+    private void advanceFloor(long version) {
+        if (version <= floor) {
+            return;
+        }
+        floor = version;
+        Iterator<Entry> iterator = entries.headMap(version, true).values().iterator();
+        while (iterator.hasNext()) {
+            entryVersions.remove(iterator.next().key());
+            iterator.remove();
+        }
+    }
+
+    private CatalogChangesDto delta(long since) {
+        CatalogChangesDto result = new CatalogChangesDto();
+        result.setVersion(head);
+        for (Entry entry : entries.tailMap(since, false).values()) {
+            if (entry.category() != null) {
+                result.getCategories().add(entry.category());
+            } else if (entry.product() != null) {
+                result.getProducts().add(entry.product());
+            } else if (entry.key().product()) {
+                result.getDeletedProductIds().add(entry.key().id());
+            } else {
+                result.getDeletedCategoryIds().add(entry.key().id());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * События потока после since, по одному на категорию или товар, в порядке версий.
+     * Строка, вставленная после since, для клиента добавлена; товар, у которого последнее изменение
+     * затронуло только цену, - price-changed. Если журнал не содержит изменений после since
+     * или их больше max-changes, вместо них одно событие catalog-reload
+     */
+    private List<CatalogChangeDto> events(long since) {
+        if (!loaded || since < floor) {
+            return List.of(reload());
+        }
+        List<CatalogChangeDto> changes = new ArrayList<>();
+        for (Entry entry : entries.tailMap(since, false).values()) {
+            if (changes.size() == maxStreamChanges) {
+                return List.of(reload());
+            }
+            changes.add(toChange(entry, since));
+        }
+        return changes;
+    }
+
+    private CatalogChangeDto reload() {
+        return change(CatalogChangeType.CATALOG_RELOAD, head);
+    }
+
+    private static CatalogChangeDto toChange(Entry entry, long since) {
+        boolean added = entry.createdVersion() > since;
+        CatalogChangeDto change;
+        if (entry.category() != null) {
+            change = change(added ? CatalogChangeType.CATEGORY_ADDED : CatalogChangeType.CATEGORY_UPDATED,
+                    entry.version());
+            change.setCategoryId(entry.key().id());
+            change.setName(entry.category().getName());
+            change.setUrl(entry.category().getUrl());
+        } else if (entry.product() != null) {
+            ProductDto product = entry.product();
+            if (!added && entry.previousPrice() != null) {
+                change = change(CatalogChangeType.PRICE_CHANGED, entry.version());
+                change.setPreviousPrice(entry.previousPrice());
+            } else {
+                change = change(added ? CatalogChangeType.PRODUCT_ADDED : CatalogChangeType.PRODUCT_UPDATED,
+                        entry.version());
+                change.setName(product.getName());
+                change.setUrl(product.getUrl());
+            }
+            change.setProductId(entry.key().id());
+            change.setCategoryId(product.getCategoryId());
+            change.setPrice(product.getPrice());
+            change.setCurrency(product.getCurrency());
+        } else if (entry.key().product()) {
+            change = change(CatalogChangeType.PRODUCT_REMOVED, entry.version());
+            change.setProductId(entry.key().id());
+        } else {
+            change = change(CatalogChangeType.CATEGORY_REMOVED, entry.version());
+            change.setCategoryId(entry.key().id());
+        }
+        return change;
+    }
+
+    private static CatalogChangeDto change(CatalogChangeType type, long version) {
+        CatalogChangeDto change = new CatalogChangeDto();
+        change.setType(type);
+        change.setVersion(version);
+        return change;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private record Key(boolean product, long id) {
+    }
+
+    /**
+     * Последнее изменение категории или товара; для удаления category и product равны null.
+     * createdVersion и previousPrice - из столбцов created_version и previous_price
+     */
+    private record Entry(Key key, long version, long createdVersion, CategoryDto category, ProductDto product,
+                         Long previousPrice) {
+    }
+}
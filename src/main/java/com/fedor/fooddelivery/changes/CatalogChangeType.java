@@ -0,0 +1,32 @@
+package com.fedor.fooddelivery.changes;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Тип изменения каталога.
+ * Значение tag используется как имя события SSE и поле type в JSON
+ */
+public enum CatalogChangeType {
+    CATEGORY_ADDED("category-added"),
+    CATEGORY_UPDATED("category-updated"),
+    CATEGORY_REMOVED("category-removed"),
+    PRODUCT_ADDED("product-added"),
+    PRODUCT_UPDATED("product-updated"),
+    PRODUCT_REMOVED("product-removed"),
+    PRICE_CHANGED("price-changed"),
+    /**
+     * Изменения не удалось вычислить или их слишком много: клиенту нужно перечитать каталог
+     */
+    CATALOG_RELOAD("catalog-reload");
+
+    private final String tag;
+
+    CatalogChangeType(String tag) {
+        this.tag = tag;
+    }
+
+    @JsonValue
+    public String getTag() {
+        return tag;
+    }
+}
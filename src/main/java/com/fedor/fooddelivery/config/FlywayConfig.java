@@ -0,0 +1,43 @@
+package com.fedor.fooddelivery.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Применение миграций схемы при старте.
+ * По умолчанию узел сам доводит схему до последней версии; с app.flyway.migrate-on-start=false
+ * миграции выполняются отдельным шагом развертывания, а узел стартует без обращения к БД
+ * (так же запускается тренировочный прогон для архива CDS).
+ * Strategy задается бином, а не spring.flyway.enabled: в режиме AOT условия автоконфигурации
+ * вычисляются при сборке, и отключить Flyway свойством при запуске уже нельзя
+ */
+@Configuration
+public class FlywayConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(FlywayConfig.class);
+
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(
+            @Value("${app.flyway.migrate-on-start:true}") boolean migrateOnStart) {
+        return flyway -> {
+            if (migrateOnStart) {
+                flyway.migrate();
+            } else {
+                log.info("Миграции схемы при старте пропущены (app.flyway.migrate-on-start=false)");
+            }
+        };
+    }
+
+    /**
+     * Java-миграции, найденные в контексте, Spring Boot передает Flyway вместе с SQL-миграциями
+     */
+    @Bean
+    public PriceMinorBackfillMigration priceMinorBackfillMigration(
+            @Value("${app.flyway.backfill-batch-size:10000}") int batchSize) {
+        return new PriceMinorBackfillMigration(batchSize);
+    }
+}
@@ -0,0 +1,41 @@
+package com.fedor.fooddelivery.config;
+
+import com.fedor.fooddelivery.logging.RequestLoggingFilter;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationPredicate;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.Predicate;
+
+/**
+ * Конфигурация метрик приложения.
+ * Включает обработку аннотации @Timed на сервисах.
+ * Запросы прогрева (WarmupRunner) не попадают ни в таймеры, ни в трассы: иначе после каждого
+ * развертывания метрики заказов и каталога начинались бы с сотен синтетических запросов
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Аспект, записывающий время выполнения методов, помеченных @Timed
+     * @param registry реестр метрик
+     * @return аспект для таймеров
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        Predicate<ProceedingJoinPoint> skipWarmup = joinPoint -> RequestLoggingFilter.isWarmupRequest();
+        return new TimedAspect(registry, skipWarmup);
+    }
+
+    /**
+     * Наблюдения (http.server.requests, span) не создаются внутри запросов прогрева
+     * @return условие создания наблюдения
+     */
+    @Bean
+    public ObservationPredicate skipWarmupObservations() {
+        return (name, context) -> !RequestLoggingFilter.isWarmupRequest();
+    }
+}
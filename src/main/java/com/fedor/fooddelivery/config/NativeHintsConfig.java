@@ -0,0 +1,48 @@
+package com.fedor.fooddelivery.config;
+
+import com.fedor.fooddelivery.logging.RequestSamplingTurboFilter;
+import com.fedor.fooddelivery.logging.RingBufferAsyncAppender;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Подсказки для сборки нативного образа GraalVM.
+ * Сущности, репозитории, контроллеры и DTO из сигнатур контроллеров Spring AOT
+ * регистрирует сам; здесь перечислено только то, что создается через рефлексию
+ * в обход контекста Spring
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.AppRuntimeHints.class)
+public class NativeHintsConfig {
+
+    static class AppRuntimeHints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // Logback создает классы из logback-spring.xml по имени и настраивает через сеттеры
+            hints.reflection().registerTypes(
+                    List.of(TypeReference.of(RingBufferAsyncAppender.class),
+                            TypeReference.of(RequestSamplingTurboFilter.class)),
+                    hint -> hint.withMembers(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+                            MemberCategory.INVOKE_PUBLIC_METHODS));
+            hints.resources().registerPattern("logback-spring.xml");
+            // Конфигурация регионов кэша второго уровня читается Ehcache по имени ресурса
+            hints.resources().registerPattern("ehcache.xml");
+            // QueryCountingDataSource оборачивает соединения и запросы в JDK прокси
+            hints.proxies().registerJdkProxy(Connection.class);
+            hints.proxies().registerJdkProxy(Statement.class);
+            hints.proxies().registerJdkProxy(PreparedStatement.class);
+            hints.proxies().registerJdkProxy(CallableStatement.class);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.fedor.fooddelivery.config;
+
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.Context;
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Миграция 5.1: заполнение products.price_minor для строк, существовавших до V5.
+ * Выполняется вне транзакции пакетами по batch-size строк в порядке id, каждый пакет фиксируется отдельно:
+ * строки блокируются только на время своего пакета, и узлы предыдущей версии продолжают писать в каталог.
+ * Строки, которые они вставляют или меняют во время заполнения, получают price_minor триггером V5.
+ * Регистрируется бином (FlywayConfig), а не классом в db.migration: так версия задается явно, а не именем класса
+ */
+public class PriceMinorBackfillMigration implements JavaMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(PriceMinorBackfillMigration.class);
+
+    private static final String SELECT_BATCH_END = """
+            SELECT MAX(id) FROM (
+                SELECT id FROM products WHERE id > ? ORDER BY id LIMIT ?) AS batch""";
+
+    private static final String BACKFILL_BATCH = """
+            UPDATE products SET price_minor = ROUND(price * 100)
+            WHERE id > ? AND id <= ? AND price_minor IS NULL""";
+
+    private final int batchSize;
+
+    public PriceMinorBackfillMigration(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public MigrationVersion getVersion() {
+        return MigrationVersion.fromVersion("5.1");
+    }
+
+    @Override
+    public String getDescription() {
+        return "backfill price minor";
+    }
+
+    @Override
+    public Integer getChecksum() {
+        return null;
+    }
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        long lastId = Long.MIN_VALUE;
+        long updated = 0;
+        try (PreparedStatement selectBatchEnd = connection.prepareStatement(SELECT_BATCH_END);
+             PreparedStatement backfill = connection.prepareStatement(BACKFILL_BATCH)) {
+            while (true) {
+                selectBatchEnd.setLong(1, lastId);
+                selectBatchEnd.setInt(2, batchSize);
+                long batchEnd;
+                try (ResultSet rs = selectBatchEnd.executeQuery()) {
+                    rs.next();
+                    batchEnd = rs.getLong(1);
+                    if (rs.wasNull()) {
+                        break;
+                    }
+                }
+                backfill.setLong(1, lastId);
+                backfill.setLong(2, batchEnd);
+                updated += backfill.executeUpdate();
+                if (!connection.getAutoCommit()) {
+                    connection.commit();
+                }
+                lastId = batchEnd;
+            }
+        }
+        log.info("Заполнено price_minor у {} товаров", updated);
+    }
+}
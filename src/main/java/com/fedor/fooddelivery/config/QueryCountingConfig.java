@@ -0,0 +1,45 @@
+package com.fedor.fooddelivery.config;
+
+import com.fedor.fooddelivery.datasource.QueryCountingDataSource;
+import com.fedor.fooddelivery.metrics.QueryCountingFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Подсчет SQL запросов на каждый HTTP запрос (QueryCountingFilter).
+ * Оборачивается только основной бин dataSource, через который работают JPA и JdbcTemplate;
+ * пулы основной БД и реплик под ним остаются без изменений, поэтому запрос учитывается один раз
+ */
+@Configuration
+public class QueryCountingConfig {
+
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+
+    /**
+     * Обертка dataSource после его настройки (свойства spring.datasource.hikari.* уже применены)
+     */
+    @Bean
+    public static BeanPostProcessor queryCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (DATA_SOURCE_BEAN.equals(beanName) && bean instanceof DataSource dataSource
+                        && !(bean instanceof QueryCountingDataSource)) {
+                    return new QueryCountingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public QueryCountingFilter queryCountingFilter(MeterRegistry registry,
+                                                   @Value("${app.jdbc.query-headers.enabled:true}") boolean headers) {
+        return new QueryCountingFilter(registry, headers);
+    }
+}
@@ -0,0 +1,78 @@
+package com.fedor.fooddelivery.config;
+
+import com.fedor.fooddelivery.datasource.ReadReplicaProperties;
+import com.fedor.fooddelivery.datasource.ReplicaRoundRobinDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Маршрутизация чтения на реплики.
+ * Включается, если задана хотя бы одна реплика (app.datasource.replicas[0].url).
+ * Read-only транзакции получают соединение с реплики, все остальные - с основной БД.
+ * Соединение берется лениво, при первом запросе, когда признак read-only транзакции уже известен
+ */
+@Configuration
+@EnableConfigurationProperties(ReadReplicaProperties.class)
+@ConditionalOnProperty("app.datasource.replicas[0].url")
+public class ReadReplicaConfig {
+
+    /**
+     * Пул соединений основной БД, настраивается свойствами spring.datasource.*
+     */
+    @Bean(defaultCandidate = false)
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Пулы соединений реплик с круговым выбором и исключением недоступных
+     */
+    @Bean(defaultCandidate = false)
+    public ReplicaRoundRobinDataSource replicaDataSource(ReadReplicaProperties replicaProperties,
+                                                         DataSourceProperties primaryProperties,
+                                                         @Qualifier("primaryDataSource") HikariDataSource primary) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaProperties.getReplicas().size(); i++) {
+            ReadReplicaProperties.Replica replica = replicaProperties.getReplicas().get(i);
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica-" + i);
+            dataSource.setJdbcUrl(replica.getUrl());
+            dataSource.setDriverClassName(primaryProperties.determineDriverClassName());
+            dataSource.setUsername(replica.getUsername() != null
+                    ? replica.getUsername() : primaryProperties.determineUsername());
+            dataSource.setPassword(replica.getPassword() != null
+                    ? replica.getPassword() : primaryProperties.determinePassword());
+            dataSource.setReadOnly(true);
+            dataSource.setConnectionTimeout(replicaProperties.getConnectionTimeout().toMillis());
+            // Недоступная при старте реплика не должна мешать запуску приложения
+            dataSource.setInitializationFailTimeout(-1);
+            replicas.add(dataSource);
+        }
+        return new ReplicaRoundRobinDataSource(replicas, primary, replicaProperties.getRetryInterval());
+    }
+
+    /**
+     * Источник данных для JPA и JdbcTemplate
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") HikariDataSource primary,
+                                 @Qualifier("replicaDataSource") ReplicaRoundRobinDataSource replicas) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(replicas);
+        return dataSource;
+    }
+}
@@ -1,18 +1,36 @@
 package com.fedor.fooddelivery.controller;
 
-import com.fedor.fooddelivery.dto.CatalogResponseDto;
+import com.fedor.fooddelivery.changes.CatalogChangeBroadcaster;
+import com.fedor.fooddelivery.changes.CatalogChangeJournal;
+import com.fedor.fooddelivery.dto.CatalogChangesDto;
 import com.fedor.fooddelivery.dto.CategoryDto;
+import com.fedor.fooddelivery.exceptions.InvalidCatalogRequestException;
+import com.fedor.fooddelivery.mapper.CatalogResponseWriter;
+import com.fedor.fooddelivery.mapper.CategoryMapper;
+import com.fedor.fooddelivery.service.CatalogExportService;
 import com.fedor.fooddelivery.service.CatalogService;
+import com.fedor.fooddelivery.snapshot.CatalogSnapshotStore;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Контроллер для работы с каталогом товаров.
- * Обрабатывает HTTP запросы связанные с категориями и товарами
+ * Обрабатывает HTTP запросы связанные с категориями и товарами.
+ * При недоступности БД категории и товары отдаются по снимку каталога на диске
+ * с заголовком X-Catalog-Degraded
  */
 @RestController
 @RequestMapping("/catalog")
@@ -22,19 +40,42 @@ public class CatalogController {
 
     private static final Logger log = LoggerFactory.getLogger(CatalogController.class);
 
+    private static final String INCLUDE_PRODUCTS = "products";
+    /**
+     * Сколько категорий можно запросить одним GET /catalog?ids=...&include=products
+     */
+    private static final int MAX_CATEGORY_IDS = 100;
+
     private final CatalogService catalogService;
+    private final CatalogExportService catalogExportService;
+    private final CatalogResponseWriter catalogResponseWriter;
+    private final CatalogSnapshotStore catalogSnapshotStore;
+    private final CategoryMapper categoryMapper;
+    private final CatalogChangeBroadcaster catalogChangeBroadcaster;
+    private final CatalogChangeJournal catalogChangeJournal;
 
     /**
      * Получить все категории товаров
      * GET /catalog
      *
+     * @param ids не используется без include: запрос с ids без include отклоняется, а не отдает весь каталог
+     * @param response HTTP ответ
      * @return коллекция DTO категорий
      */
     @GetMapping
-    public Collection<CategoryDto> getAllCategories() {
-        log.info("HTTP GET /catalog - запрос на получение всех категорий");
+    public Collection<CategoryDto> getAllCategories(@RequestParam(required = false) String ids,
+                                                    HttpServletResponse response) {
+        log.debug("HTTP GET /catalog - запрос на получение всех категорий");
 
-        Collection<CategoryDto> categories = catalogService.getAllCategories();
+        if (ids != null) {
+            throw new InvalidCatalogRequestException("Параметр ids используется только вместе с include=products");
+        }
+
+        CatalogSnapshotStore.Result<List<CategoryDto>> result = catalogSnapshotStore.read(
+                catalogService::getAllCategories,
+                snapshot -> snapshot.categories().stream().map(categoryMapper::toCategoryDto).toList());
+        markDegraded(result, response);
+        Collection<CategoryDto> categories = result.value();
 
         log.debug("HTTP GET /catalog - возвращено {} категорий", categories.size());
         return categories;
@@ -43,18 +84,187 @@ public class CatalogController {
     /**
      * Получить товары по идентификатору категории
      * GET /catalog/{id}
+     * Ответ в формате CatalogResponseDto пишется в поток напрямую из сущностей, без промежуточных DTO
      *
      * @param id идентификатор категории
-     * @return DTO ответа с категорией и списком товаров
+     * @param response HTTP ответ
      */
     @GetMapping("/{id}")
-    public CatalogResponseDto getProductsByCategory(@PathVariable Long id) {
-        log.info("HTTP GET /catalog/{} - запрос товаров категории", id);
+    public void getProductsByCategory(@PathVariable Long id, HttpServletResponse response) throws IOException {
+        log.debug("HTTP GET /catalog/{} - запрос товаров категории", id);
+
+        CatalogSnapshotStore.Result<CatalogService.CategoryProducts> result = catalogSnapshotStore.read(
+                () -> catalogService.getCategoryProducts(id),
+                snapshot -> snapshot.categoryProducts(id));
+        markDegraded(result, response);
+        CatalogService.CategoryProducts categoryProducts = result.value();
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        catalogResponseWriter.write(categoryProducts.category(), categoryProducts.products(),
+                response.getOutputStream());
+
+        log.debug("HTTP GET /catalog/{} - возвращено {} товаров", id, categoryProducts.products().size());
+    }
+
+    /**
+     * Получить несколько категорий с товарами одним запросом
+     * GET /catalog?ids=1,2,5&include=products
+     * Массив элементов в формате CatalogResponseDto в порядке ids. Категории, которых нет в каталоге,
+     * пропускаются. Категории, которых нет в кэше, загружаются вместе, двумя запросами к БД
+     *
+     * @param idsParam идентификаторы категорий через запятую, не больше MAX_CATEGORY_IDS
+     * @param include что добавить к категориям, поддерживается только products
+     * @param response HTTP ответ
+     */
+    @GetMapping(params = "include")
+    public void getCategoriesWithProducts(@RequestParam(value = "ids", required = false) String idsParam,
+                                          @RequestParam String include,
+                                          HttpServletResponse response) throws IOException {
+        log.debug("HTTP GET /catalog?ids={}&include={} - запрос категорий с товарами", idsParam, include);
 
-        CatalogResponseDto response = catalogService.getProductsByCategory(id);
+        if (!INCLUDE_PRODUCTS.equals(include)) {
+            throw new InvalidCatalogRequestException("Неподдерживаемое значение include: " + include);
+        }
+        List<Long> ids = parseCategoryIds(idsParam);
+        if (ids.size() > MAX_CATEGORY_IDS) {
+            throw new InvalidCatalogRequestException(
+                    "Запрошено " + ids.size() + " категорий, можно не больше " + MAX_CATEGORY_IDS);
+        }
+        CatalogSnapshotStore.Result<List<CatalogService.CategoryProducts>> result = catalogSnapshotStore.read(
+                () -> catalogService.getCategoriesProducts(ids),
+                snapshot -> ids.stream()
+                        .distinct()
+                        .filter(snapshot::containsCategory)
+                        .map(snapshot::categoryProducts)
+                        .toList());
+        markDegraded(result, response);
+        List<CatalogService.CategoryProducts> categories = result.value();
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        catalogResponseWriter.writeAll(categories, response.getOutputStream());
+
+        log.debug("HTTP GET /catalog?ids={}&include={} - возвращено {} категорий", ids, include, categories.size());
+    }
+
+    /**
+     * Разобрать ids вручную, а не конвертером Spring: без ids или с нечисловым идентификатором
+     * клиент получает 400 с понятным сообщением, а не 500
+     */
+    private static List<Long> parseCategoryIds(String ids) {
+        if (ids == null || ids.isBlank()) {
+            throw new InvalidCatalogRequestException("Не указан параметр ids");
+        }
+        List<Long> parsed = new ArrayList<>();
+        for (String id : ids.split(",", -1)) {
+            try {
+                parsed.add(Long.parseLong(id.trim()));
+            } catch (NumberFormatException e) {
+                throw new InvalidCatalogRequestException("Некорректный идентификатор категории: '" + id.trim() + "'");
+            }
+        }
+        return parsed;
+    }
+
+    /**
+     * Разобрать since вручную, как и ids: без него или с нечисловой версией клиент получает 400, а не 500
+     */
+    private static long parseSince(String since) {
+        if (since == null || since.isBlank()) {
+            throw new InvalidCatalogRequestException("Не указан параметр since");
+        }
+        long version;
+        try {
+            version = Long.parseLong(since.trim());
+        } catch (NumberFormatException e) {
+            version = -1;
+        }
+        if (version < 0) {
+            throw new InvalidCatalogRequestException("Некорректная версия каталога: '" + since.trim() + "'");
+        }
+        return version;
+    }
+
+    private static void markDegraded(CatalogSnapshotStore.Result<?> result, HttpServletResponse response) {
+        if (result.degraded()) {
+            response.setHeader(CatalogSnapshotStore.DEGRADED_HEADER, result.degradedHeader());
+        }
+    }
+
+    /**
+     * Выгрузить весь каталог: по строке NDJSON на категорию вместе с ее товарами
+     * GET /catalog/export
+     *
+     * @param response HTTP ответ, в который каталог пишется по мере чтения из БД
+     */
+    @GetMapping("/export")
+    public void exportCatalog(HttpServletResponse response) throws IOException {
+        log.debug("HTTP GET /catalog/export - запрос выгрузки каталога");
+
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        catalogExportService.exportCatalog(response.getOutputStream());
+    }
+
+    /**
+     * Получить изменения каталога после версии
+     * GET /catalog/changes?since={version}
+     * Ответ в формате CatalogChangesDto. Если изменений после since нет в журнале узла,
+     * весь каталог с full = true выгружается потоком по мере чтения из БД
+     *
+     * @param sinceParam версия каталога, которая уже есть у клиента (version из предыдущего ответа), 0 - каталога нет
+     * @param response HTTP ответ с изменениями или всем каталогом и версией, которую нужно передать в следующий раз
+     */
+    @GetMapping("/changes")
+    public void getChanges(@RequestParam(value = "since", required = false) String sinceParam,
+                           HttpServletResponse response) throws IOException {
+        log.debug("HTTP GET /catalog/changes?since={} - запрос изменений каталога", sinceParam);
+
+        long since = parseSince(sinceParam);
+
+        Optional<CatalogChangesDto> changes = catalogChangeJournal.changesSince(since);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        if (changes.isEmpty()) {
+            catalogExportService.exportChanges(response.getOutputStream());
+            log.debug("HTTP GET /catalog/changes?since={} - выгружен весь каталог", since);
+            return;
+        }
+        catalogResponseWriter.writeChanges(changes.get(), response.getOutputStream());
+
+        log.debug("HTTP GET /catalog/changes?since={} - версия {}, категорий {}, товаров {}",
+                since, changes.get().getVersion(), changes.get().getCategories().size(), changes.get().getProducts().size());
+    }
+
+    /**
+     * Подписаться на изменения каталога
+     * GET /catalog/stream
+     * Поток Server-Sent Events: событие на каждое изменение (category-added, product-updated,
+     * price-changed и т.д.) с версией изменения в БД в поле id. При переподключении клиент передает
+     * Last-Event-ID и получает изменения, пропущенные после этой версии
+     *
+     * @param lastEventId версия последнего полученного события; нечисловое значение - клиенту нужно
+     *                    перечитать каталог (catalog-reload)
+     * @return поток событий, открытый до отключения клиента или app.catalog.stream.timeout
+     */
+    @GetMapping("/stream")
+    public ResponseEntity<ResponseBodyEmitter> streamChanges(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        log.debug("HTTP GET /catalog/stream - подписка на изменения каталога, Last-Event-ID: {}", lastEventId);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .body(catalogChangeBroadcaster.subscribe(parseLastEventId(lastEventId)));
+    }
 
-        log.debug("HTTP GET /catalog/{} - возвращено {} товаров",
-                id, response.getProducts() != null ? response.getProducts().size() : 0);
-        return response;
+    private static Long parseLastEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            // Версия неизвестна: журнал ответит событием catalog-reload
+            return -1L;
+        }
     }
 }
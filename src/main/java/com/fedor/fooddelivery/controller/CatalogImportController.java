@@ -0,0 +1,57 @@
+package com.fedor.fooddelivery.controller;
+
+import com.fedor.fooddelivery.dto.CatalogImportResultDto;
+import com.fedor.fooddelivery.importer.CatalogImportFormat;
+import com.fedor.fooddelivery.importer.CatalogImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+/**
+ * Административный контроллер импорта каталога.
+ * Тело запроса читается потоком и не буферизуется целиком.
+ * Аутентификации в приложении нет, поэтому эндпоинт по умолчанию выключен
+ * (app.catalog.import.http-enabled=false) и отвечает 404. Свойство проверяется при запросе,
+ * а не условием на бине: при AOT-сборке набор бинов фиксируется на этапе сборки
+ */
+@RestController
+@RequestMapping("/admin/catalog")
+public class CatalogImportController {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogImportController.class);
+
+    private final CatalogImportService catalogImportService;
+    private final boolean httpEnabled;
+
+    public CatalogImportController(CatalogImportService catalogImportService,
+                                   @Value("${app.catalog.import.http-enabled:false}") boolean httpEnabled) {
+        this.catalogImportService = catalogImportService;
+        this.httpEnabled = httpEnabled;
+    }
+
+    /**
+     * Импортировать каталог из CSV или JSON
+     * POST /admin/catalog/import
+     * Content-Type: text/csv, application/json или application/x-ndjson
+     *
+     * @param request HTTP запрос с файлом в теле
+     * @return количество загруженных записей и номер новой версии каталога; 404, если импорт по HTTP выключен
+     */
+    @PostMapping("/import")
+    public ResponseEntity<CatalogImportResultDto> importCatalog(HttpServletRequest request) throws IOException {
+        log.debug("HTTP POST /admin/catalog/import - Content-Type {}", request.getContentType());
+        if (!httpEnabled) {
+            return ResponseEntity.notFound().build();
+        }
+
+        CatalogImportFormat format = CatalogImportFormat.fromContentType(request.getContentType());
+        return ResponseEntity.ok(catalogImportService.importCatalog(request.getInputStream(), format));
+    }
+}
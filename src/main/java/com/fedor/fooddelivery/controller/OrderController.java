@@ -33,13 +33,13 @@ public class OrderController {
      */
     @PostMapping("/cart")
     public OrderResponseDto createOrder(@RequestBody OrderRequestDto orderRequest) {
-        log.info("HTTP POST /cart - запрос на создание заказа. Клиент: {}, товаров: {}",
+        log.debug("HTTP POST /cart - запрос на создание заказа. Клиент: {}, товаров: {}",
                 orderRequest.getCustomerName() != null ? orderRequest.getCustomerName() : "не указано",
                 orderRequest.getItems() != null ? orderRequest.getItems().size() : 0);
 
         OrderResponseDto response = orderService.createOrder(orderRequest);
 
-        log.info("HTTP POST /cart - заказ успешно создан для клиента: {}",
+        log.debug("HTTP POST /cart - заказ успешно создан для клиента: {}",
                 orderRequest.getCustomerName() != null ? orderRequest.getCustomerName() : "не указано");
         return response;
     }
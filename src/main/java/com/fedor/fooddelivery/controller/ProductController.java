@@ -0,0 +1,35 @@
+package com.fedor.fooddelivery.controller;
+
+import com.fedor.fooddelivery.dto.ProductDto;
+import com.fedor.fooddelivery.service.ProductService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Контроллер для просмотра отдельных товаров
+ */
+@RestController
+@RequestMapping("/products")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class ProductController {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductController.class);
+
+    private final ProductService productService;
+
+    /**
+     * Получить полную информацию о товаре
+     * GET /products/{id}
+     *
+     * @param id идентификатор товара
+     * @return DTO товара с описанием
+     */
+    @GetMapping("/{id}")
+    public ProductDto getProduct(@PathVariable Long id) {
+        log.debug("HTTP GET /products/{} - запрос товара", id);
+        return productService.getProduct(id);
+    }
+}
@@ -1,6 +1,9 @@
 package com.fedor.fooddelivery.controller.exception;
 
+import com.fedor.fooddelivery.exceptions.CatalogImportException;
+import com.fedor.fooddelivery.exceptions.CatalogLoadTimeoutException;
 import com.fedor.fooddelivery.exceptions.CategoryNotFoundException;
+import com.fedor.fooddelivery.exceptions.InvalidCatalogRequestException;
 import com.fedor.fooddelivery.exceptions.InvalidOrderException;
 import com.fedor.fooddelivery.exceptions.ProductNotFoundException;
 import org.slf4j.Logger;
@@ -21,24 +24,35 @@ public class GlobalExceptionHandler {
 
     /**
      * Обработка исключений "Не найдено" (404)
-     * Обрабатывает CategoryNotFoundException и ProductNotFoundException
+     * Обрабатывает CategoryNotFoundException и ProductNotFoundException.
+     * Пишется в DEBUG: несуществующие идентификаторы массово запрашивают боты и сломанные клиенты
      */
     @ExceptionHandler({CategoryNotFoundException.class, ProductNotFoundException.class})
     public ResponseEntity<ErrorResponse> handleNotFound(RuntimeException ex) {
-        log.warn("Ошибка 404 Not Found: {}", ex.getMessage());
+        log.debug("Ошибка 404 Not Found: {}", ex.getMessage());
         return createResponse(ex, HttpStatus.NOT_FOUND);
     }
 
     /**
      * Обработка исключений "Неверный запрос" (400)
-     * Обрабатывает ошибки валидации заказа
+     * Обрабатывает ошибки валидации заказа, ошибки в файле импорта каталога и неверные параметры запроса каталога
      */
-    @ExceptionHandler(InvalidOrderException.class)
-    public ResponseEntity<ErrorResponse> handleBadRequest(InvalidOrderException ex) {
+    @ExceptionHandler({InvalidOrderException.class, CatalogImportException.class, InvalidCatalogRequestException.class})
+    public ResponseEntity<ErrorResponse> handleBadRequest(RuntimeException ex) {
         log.warn("Ошибка 400 Bad Request: {}", ex.getMessage());
         return createResponse(ex, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Обработка исключений "Сервис временно недоступен" (503)
+     * Запрос не дождался загрузки каталога, которую уже выполняет другой запрос
+     */
+    @ExceptionHandler(CatalogLoadTimeoutException.class)
+    public ResponseEntity<ErrorResponse> handleServiceUnavailable(RuntimeException ex) {
+        log.warn("Ошибка 503 Service Unavailable: {}", ex.getMessage());
+        return createResponse(ex, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     /**
      * Обработка всех остальных исключений (500)
      * Перехватывает любые непредвиденные ошибки
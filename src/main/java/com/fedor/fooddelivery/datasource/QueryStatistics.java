@@ -0,0 +1,61 @@
+package com.fedor.fooddelivery.datasource;
+
+/**
+ * Число выполненных SQL запросов и время их выполнения в текущем потоке.
+ * Подсчет начинается в QueryCountingFilter в начале HTTP запроса и заканчивается в его конце,
+ * каждое выполнение запроса учитывает QueryCountingDataSource. Запросы вне подсчета
+ * (фоновое обновление кэшей, старт приложения) не учитываются
+ */
+public final class QueryStatistics {
+
+    private static final ThreadLocal<QueryStatistics> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long nanos;
+
+    private QueryStatistics() {
+    }
+
+    /**
+     * Начать подсчет в текущем потоке
+     * @return счетчик, который будет пополняться до вызова stop()
+     */
+    public static QueryStatistics start() {
+        QueryStatistics statistics = new QueryStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    /**
+     * Закончить подсчет в текущем потоке
+     */
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Учесть выполненный запрос, если в текущем потоке идет подсчет
+     * @param elapsedNanos время выполнения запроса
+     */
+    static void record(long elapsedNanos) {
+        QueryStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.statements++;
+            statistics.nanos += elapsedNanos;
+        }
+    }
+
+    /**
+     * Число выполненных запросов; пакет (executeBatch) считается одним запросом
+     */
+    public int statements() {
+        return statements;
+    }
+
+    /**
+     * Суммарное время выполнения запросов в наносекундах
+     */
+    public long nanos() {
+        return nanos;
+    }
+}
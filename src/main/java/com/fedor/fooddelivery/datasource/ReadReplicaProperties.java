@@ -0,0 +1,49 @@
+package com.fedor.fooddelivery.datasource;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Настройки реплик для чтения (app.datasource.*).
+ * Пока список реплик пуст, все запросы идут в основную БД из spring.datasource
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@ConfigurationProperties("app.datasource")
+public class ReadReplicaProperties {
+
+    /**
+     * Реплики, на которые направляются read-only транзакции
+     */
+    private List<Replica> replicas = new ArrayList<>();
+
+    /**
+     * Через сколько времени снова пробовать реплику, к которой не удалось подключиться
+     */
+    private Duration retryInterval = Duration.ofSeconds(5);
+
+    /**
+     * Сколько ждать соединения с репликой, прежде чем перейти к следующей
+     */
+    private Duration connectionTimeout = Duration.ofSeconds(1);
+
+    /**
+     * Параметры подключения к одной реплике.
+     * Если логин и пароль не заданы, используются логин и пароль основной БД
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
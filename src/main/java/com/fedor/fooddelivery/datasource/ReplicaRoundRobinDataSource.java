@@ -0,0 +1,97 @@
+package com.fedor.fooddelivery.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Источник соединений для чтения: перебирает реплики по кругу.
+ * Реплика, к которой не удалось подключиться, исключается из ротации на retryInterval.
+ * Если недоступны все реплики, соединение берется из основной БД
+ */
+public class ReplicaRoundRobinDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoundRobinDataSource.class);
+
+    private final List<Replica> replicas;
+    private final DataSource fallback;
+    private final long retryIntervalNanos;
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * @param replicas пулы соединений реплик
+     * @param fallback основная БД на случай недоступности всех реплик
+     * @param retryInterval время исключения недоступной реплики из ротации
+     */
+    public ReplicaRoundRobinDataSource(List<DataSource> replicas, DataSource fallback, Duration retryInterval) {
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.fallback = fallback;
+        this.retryIntervalNanos = retryInterval.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            int index = (start + i) % size;
+            Replica replica = replicas.get(index);
+            long now = System.nanoTime();
+            if (replica.down && now - replica.retryAt < 0) {
+                continue;
+            }
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                if (replica.down) {
+                    replica.down = false;
+                    log.info("Реплика {} снова доступна", index);
+                }
+                return connection;
+            } catch (SQLException e) {
+                replica.retryAt = now + retryIntervalNanos;
+                replica.down = true;
+                log.warn("Реплика {} недоступна, исключена из ротации: {}", index, e.getMessage());
+            }
+        }
+        log.warn("Нет доступных реплик, чтение выполняется из основной БД");
+        return fallback.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Реплики используют логин и пароль из конфигурации");
+    }
+
+    /**
+     * Закрыть пулы соединений реплик
+     */
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    /**
+     * Реплика и ее состояние: при down = true она пропускается до момента retryAt (System.nanoTime)
+     */
+    private static class Replica {
+        private final DataSource dataSource;
+        private volatile boolean down;
+        private volatile long retryAt;
+
+        Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.fedor.fooddelivery.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fedor.fooddelivery.changes.CatalogChangeType;
+import com.fedor.fooddelivery.entity.CurrencyCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO изменения каталога для потока GET /catalog/stream.
+ * Заполняются только поля, относящиеся к типу изменения: для категории - categoryId, name, url,
+ * для товара - productId, categoryId, name, price, currency, url, для смены цены - productId,
+ * categoryId, price, currency и previousPrice, для удаления - только categoryId или productId.
+ * version - версия изменения в БД (change_version). Цена указывается в минимальных единицах валюты (копейках)
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CatalogChangeDto {
+    private CatalogChangeType type;
+    private long version;
+    private Long categoryId;
+    private Long productId;
+    private String name;
+    private Long price;
+    private Long previousPrice;
+    private CurrencyCode currency;
+    private String url;
+}
@@ -0,0 +1,26 @@
+package com.fedor.fooddelivery.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO ответа GET /catalog/changes?since={version}.
+ * Если full = false, содержит категории и товары, вставленные или измененные после версии since,
+ * и идентификаторы удаленных; если full = true - весь каталог, который заменяет сохраненный клиентом.
+ * В следующий раз клиент передает since = version
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class CatalogChangesDto {
+    private long version;
+    private boolean full;
+    private List<CategoryDto> categories = new ArrayList<>();
+    private List<ProductDto> products = new ArrayList<>();
+    private List<Long> deletedCategoryIds = new ArrayList<>();
+    private List<Long> deletedProductIds = new ArrayList<>();
+}
@@ -0,0 +1,19 @@
+package com.fedor.fooddelivery.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO результата импорта каталога.
+ * Содержит количество загруженных записей и номер опубликованной версии
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class CatalogImportResultDto {
+    private long categories;
+    private long products;
+    private long version;
+    private long durationMs;
+}
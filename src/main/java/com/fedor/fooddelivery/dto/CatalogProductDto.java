@@ -1,12 +1,14 @@
 package com.fedor.fooddelivery.dto;
 
+import com.fedor.fooddelivery.entity.CurrencyCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 /**
  * DTO для отображения продукта в каталоге.
- * Содержит упрощенную информацию о продукте для списков
+ * Содержит упрощенную информацию о продукте для списков.
+ * Цена указывается в минимальных единицах валюты (копейках)
  */
 @Getter
 @Setter
@@ -14,7 +16,7 @@ import lombok.Setter;
 public class CatalogProductDto {
     private Long id;
     private String name;
-    private Double price;
+    private Long price;
     private String url;
-    private String currency;
+    private CurrencyCode currency;
 }
@@ -1,22 +1,27 @@
 package com.fedor.fooddelivery.dto;
 
+import com.fedor.fooddelivery.entity.CurrencyCode;
+import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 /**
  * DTO для передачи полной информации о продукте.
- * Используется для детального просмотра продукта
+ * Используется для детального просмотра продукта.
+ * Конструктор со всеми полями нужен для проекции в ProductRepository.
+ * Цена указывается в минимальных единицах валюты (копейках)
  */
 @Getter
 @Setter
 @NoArgsConstructor
+@AllArgsConstructor
 public class ProductDto {
     private Long id;
     private String name;
     private String description;
-    private Double price;
+    private Long price;
     private Long categoryId;
     private String url;
-    private String currency;
+    private CurrencyCode currency;
 }
@@ -4,17 +4,22 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.List;
 
 /**
  * Класс-сущность, представляющий категорию товаров в системе доставки еды.
  * Категории содержат связанные продукты (например, Шаверма, Салаты, Гарниры).
+ * Хранится в кэше второго уровня Hibernate (регион описан в ehcache.xml).
  */
 @Getter
 @Setter
 @NoArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "categories")
 public class Category {
 
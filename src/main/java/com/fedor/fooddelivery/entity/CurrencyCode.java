@@ -0,0 +1,26 @@
+package com.fedor.fooddelivery.entity;
+
+import java.math.BigDecimal;
+
+/**
+ * Валюты цен товаров (коды ISO 4217).
+ * Цены хранятся целым числом минимальных единиц валюты (копеек, центов);
+ * у всех перечисленных валют в основной единице 100 минимальных
+ */
+public enum CurrencyCode {
+    RUB,
+    USD,
+    EUR;
+
+    private static final int MINOR_UNIT_DIGITS = 2;
+
+    /**
+     * Перевести сумму в основных единицах (например, "220.50" рубля) в минимальные единицы
+     * @param amount сумма в основных единицах
+     * @return сумма в минимальных единицах
+     * @throws ArithmeticException если у суммы больше знаков после запятой, чем у валюты
+     */
+    public long toMinorUnits(BigDecimal amount) {
+        return amount.movePointRight(MINOR_UNIT_DIGITS).longValueExact();
+    }
+}
@@ -4,16 +4,22 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Класс-сущность, представляющий продукт питания в системе доставки.
  * Каждый продукт принадлежит определенной категории.
+ * Хранится в кэше второго уровня Hibernate (регион описан в ehcache.xml).
  */
 @Getter
 @Setter
 @NoArgsConstructor
 @Entity
-@Table(name = "products")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+// Индекс создается миграцией V2; здесь он описан для схемы, которую Hibernate строит во встроенной БД тестов
+@Table(name = "products", indexes = @Index(name = "products_category_id_idx", columnList = "category_id, id"))
 public class Product {
 
     @Id
@@ -27,17 +33,24 @@ public class Product {
     @Column(name = "description", nullable = false)
     private String description;
 
-    @Column(name = "price", nullable = false)
-    private Double price;
+    // Цена в минимальных единицах валюты (копейках): без ошибок округления double
+    // и без отдельного объекта-обертки на каждый товар.
+    // Столбец price_minor добавлен рядом со старым price (миграции V5, V5.1), см. README
+    @Column(name = "price_minor", nullable = false)
+    private long price;
 
-    // Связь многие-к-одному с категорией
-    @ManyToOne
+    // Связь многие-к-одному с категорией.
+    // Загружается лениво: каталогу и карточке товара достаточно category_id,
+    // а getCategory().getId() у прокси не обращается к БД
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id")
     private Category category;
 
     @Column(name = "url", nullable = false)
     private String url;
 
-    @Column(name = "currency", nullable = false)
-    private String currency = "RUB"; // Валюта по умолчанию - российский рубль
+    // Один экземпляр enum на все товары вместо отдельной строки "RUB" в каждой загруженной записи
+    @Enumerated(EnumType.STRING)
+    @Column(name = "currency", nullable = false, length = 3)
+    private CurrencyCode currency = CurrencyCode.RUB; // Валюта по умолчанию - российский рубль
 }
@@ -0,0 +1,9 @@
+package com.fedor.fooddelivery.event;
+
+/**
+ * Событие публикации новой версии каталога.
+ * Отправляется после того, как изменения каталога зафиксированы в БД
+ * @param version номер новой версии каталога
+ */
+public record CatalogChangedEvent(long version) {
+}
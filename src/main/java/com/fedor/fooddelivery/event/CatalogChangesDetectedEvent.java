@@ -0,0 +1,14 @@
+package com.fedor.fooddelivery.event;
+
+import com.fedor.fooddelivery.dto.CatalogChangeDto;
+
+import java.util.List;
+
+/**
+ * Событие с изменениями каталога для потока GET /catalog/stream.
+ * Отправляется журналом CatalogChangeJournal после CatalogChangedEvent, когда он дочитал строки новой версии
+ * @param version номер версии каталога, до которой дочитан журнал
+ * @param changes изменения после предыдущей версии журнала в порядке версий или одно событие catalog-reload
+ */
+public record CatalogChangesDetectedEvent(long version, List<CatalogChangeDto> changes) {
+}
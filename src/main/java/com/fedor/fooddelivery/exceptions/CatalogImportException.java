@@ -0,0 +1,25 @@
+package com.fedor.fooddelivery.exceptions;
+
+/**
+ * Исключение вызываемое при ошибке в файле импорта каталога
+ * Например: неизвестный формат, отсутствующая колонка, неверное число
+ */
+public class CatalogImportException extends RuntimeException {
+
+    /**
+     * Конструктор с сообщением об ошибке
+     * @param message описание ошибки в файле импорта
+     */
+    public CatalogImportException(String message) {
+        super(message);
+    }
+
+    /**
+     * Конструктор с сообщением и причиной
+     * @param message описание ошибки в файле импорта
+     * @param cause исходное исключение
+     */
+    public CatalogImportException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
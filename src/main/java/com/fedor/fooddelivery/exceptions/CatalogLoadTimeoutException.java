@@ -0,0 +1,20 @@
+package com.fedor.fooddelivery.exceptions;
+
+import java.time.Duration;
+
+/**
+ * Исключение вызываемое, когда запрос не дождался загрузки каталога,
+ * которую по тому же ключу уже выполняет другой запрос
+ */
+public class CatalogLoadTimeoutException extends RuntimeException {
+
+    /**
+     * Конструктор с ключом и временем ожидания
+     * @param key ключ загрузки (например, идентификатор категории)
+     * @param timeout сколько длилось ожидание
+     */
+    public CatalogLoadTimeoutException(Object key, Duration timeout) {
+        super("Загрузка каталога (ключ " + key + ") не завершилась за " + timeout.toMillis()
+                + " мс, повторите запрос позже");
+    }
+}
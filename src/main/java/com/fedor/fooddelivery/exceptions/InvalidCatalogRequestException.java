@@ -0,0 +1,16 @@
+package com.fedor.fooddelivery.exceptions;
+
+/**
+ * Исключение вызываемое при неверных параметрах запроса каталога
+ * Например: неизвестное значение include или слишком много идентификаторов категорий
+ */
+public class InvalidCatalogRequestException extends RuntimeException {
+
+    /**
+     * Конструктор с сообщением об ошибке
+     * @param message описание неверного параметра
+     */
+    public InvalidCatalogRequestException(String message) {
+        super(message);
+    }
+}
@@ -10,6 +10,7 @@ public class ProductNotFoundException extends RuntimeException {
      * @param productId идентификатор ненайденного товара
      */
     public ProductNotFoundException(Long productId) {
-        super("Блюдо с ID " + productId + " не найдено");
+        // Стек не заполняется: 404 - ожидаемый ответ, место выброса известно и без него
+        super("Блюдо с ID " + productId + " не найдено", null, false, false);
     }
 }
@@ -0,0 +1,49 @@
+package com.fedor.fooddelivery.importer;
+
+import com.fedor.fooddelivery.dto.CatalogImportResultDto;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Импорт каталога из командной строки.
+ * Запуск: java -jar food-delivery.jar --app.catalog.import.file=menu.csv --spring.main.web-application-type=none
+ * После импорта приложение завершается, если не задано app.catalog.import.exit=false
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty("app.catalog.import.file")
+public class CatalogImportCommand implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogImportCommand.class);
+
+    private final CatalogImportService catalogImportService;
+    private final ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        Path file = Path.of(context.getEnvironment().getRequiredProperty("app.catalog.import.file"));
+        log.info("Импорт каталога из файла {}", file);
+
+        CatalogImportResultDto result;
+        try (InputStream input = Files.newInputStream(file)) {
+            result = catalogImportService.importCatalog(input, CatalogImportFormat.fromFileName(file.toString()));
+        }
+        log.info("Файл {} импортирован: {} категорий, {} товаров, версия {}",
+                file, result.getCategories(), result.getProducts(), result.getVersion());
+
+        if (context.getEnvironment().getProperty("app.catalog.import.exit", Boolean.class, true)) {
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+}
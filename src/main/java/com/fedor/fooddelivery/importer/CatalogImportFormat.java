@@ -0,0 +1,58 @@
+package com.fedor.fooddelivery.importer;
+
+import com.fedor.fooddelivery.exceptions.CatalogImportException;
+
+import java.util.Locale;
+
+/**
+ * Поддерживаемые форматы файла импорта каталога
+ */
+public enum CatalogImportFormat {
+
+    /**
+     * CSV с заголовком, одна строка на товар:
+     * category_id,category_name,category_url,product_id,product_name,description,price,product_url,currency.
+     * Цена в основных единицах валюты (250 или 249.90)
+     */
+    CSV,
+
+    /**
+     * JSON массив или NDJSON поток объектов вида {"category": {...}, "products": [...]}.
+     * Цена в минимальных единицах валюты, как в ответах API
+     */
+    JSON;
+
+    /**
+     * Определить формат по Content-Type запроса
+     * @param contentType значение заголовка Content-Type
+     * @return формат импорта
+     * @throws CatalogImportException если тип не поддерживается
+     */
+    public static CatalogImportFormat fromContentType(String contentType) {
+        String type = contentType == null ? "" : contentType.toLowerCase(Locale.ROOT);
+        if (type.startsWith("text/csv")) {
+            return CSV;
+        }
+        if (type.startsWith("application/json") || type.startsWith("application/x-ndjson")) {
+            return JSON;
+        }
+        throw new CatalogImportException("Неподдерживаемый тип файла импорта: " + contentType);
+    }
+
+    /**
+     * Определить формат по расширению файла
+     * @param fileName имя файла
+     * @return формат импорта
+     * @throws CatalogImportException если расширение не поддерживается
+     */
+    public static CatalogImportFormat fromFileName(String fileName) {
+        String name = fileName.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) {
+            return CSV;
+        }
+        if (name.endsWith(".json") || name.endsWith(".ndjson")) {
+            return JSON;
+        }
+        throw new CatalogImportException("Неподдерживаемое расширение файла импорта: " + fileName);
+    }
+}
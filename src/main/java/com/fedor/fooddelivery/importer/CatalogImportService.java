@@ -0,0 +1,292 @@
+package com.fedor.fooddelivery.importer;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fedor.fooddelivery.dto.CatalogImportResultDto;
+import com.fedor.fooddelivery.dto.CategoryDto;
+import com.fedor.fooddelivery.dto.ProductDto;
+import com.fedor.fooddelivery.entity.CurrencyCode;
+import com.fedor.fooddelivery.exceptions.CatalogImportException;
+import com.fedor.fooddelivery.repository.CatalogJdbcRepository;
+import com.fedor.fooddelivery.service.CatalogVersionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Сервис массового импорта каталога.
+ * В CSV цена указывается в основных единицах валюты ("220.50"), в JSON - в минимальных (22050),
+ * как ее отдает API.
+ * Файл читается потоково, записи накапливаются в батчи фиксированного размера
+ * и записываются через CatalogJdbcRepository, поэтому память не зависит от размера файла.
+ * Весь импорт выполняется в одной транзакции и завершается публикацией одной новой версии каталога.
+ * Идентификаторы берутся из файла, после записи генераторы id продвигаются за наибольший из них
+ */
+@Service
+public class CatalogImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogImportService.class);
+
+    private static final List<String> CSV_COLUMNS = List.of("category_id", "category_name", "category_url",
+            "product_id", "product_name", "description", "price", "product_url", "currency");
+    private static final CurrencyCode DEFAULT_CURRENCY = CurrencyCode.RUB;
+
+    private final CatalogJdbcRepository catalogJdbcRepository;
+    private final CatalogVersionService catalogVersionService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    public CatalogImportService(CatalogJdbcRepository catalogJdbcRepository,
+                                CatalogVersionService catalogVersionService,
+                                TransactionTemplate transactionTemplate,
+                                ObjectMapper objectMapper,
+                                @Value("${app.catalog.import.batch-size:5000}") int batchSize) {
+        this.catalogJdbcRepository = catalogJdbcRepository;
+        this.catalogVersionService = catalogVersionService;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Импортировать каталог из потока
+     * @param input содержимое файла импорта, поток не закрывается
+     * @param format формат файла
+     * @return количество загруженных записей и номер новой версии каталога
+     * @throws CatalogImportException если файл содержит ошибку, в этом случае ничего не сохраняется
+     */
+    public CatalogImportResultDto importCatalog(InputStream input, CatalogImportFormat format) {
+        log.info("Начат импорт каталога, формат {}", format);
+        long start = System.nanoTime();
+
+        ImportBatch batch = transactionTemplate.execute(status -> {
+            ImportBatch importBatch = new ImportBatch();
+            try {
+                switch (format) {
+                    case CSV -> readCsv(input, importBatch);
+                    case JSON -> readJson(input, importBatch);
+                }
+            } catch (JsonProcessingException e) {
+                throw new CatalogImportException("Некорректный JSON: " + e.getOriginalMessage(), e);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            importBatch.flush();
+            catalogJdbcRepository.alignIdentitySequences();
+            return importBatch;
+        });
+
+        CatalogImportResultDto result = new CatalogImportResultDto();
+        result.setCategories(batch.categoryIds.size());
+        result.setProducts(batch.productCount);
+        result.setVersion(catalogVersionService.publishNewVersion());
+        result.setDurationMs((System.nanoTime() - start) / 1_000_000);
+
+        log.info("Импорт каталога завершен: {} категорий, {} товаров за {} мс, версия {}",
+                result.getCategories(), result.getProducts(), result.getDurationMs(), result.getVersion());
+        return result;
+    }
+
+    private void readCsv(InputStream input, ImportBatch batch) throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(
+                new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 64 * 1024));
+        List<String> header = reader.next();
+        if (header == null) {
+            throw new CatalogImportException("Файл импорта пуст");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            // BOM, который добавляет Excel, не должен ломать имя первой колонки
+            columns.put(header.get(i).strip().replace("\uFEFF", ""), i);
+        }
+        int[] index = new int[CSV_COLUMNS.size()];
+        for (int i = 0; i < index.length; i++) {
+            Integer column = columns.get(CSV_COLUMNS.get(i));
+            if (column == null) {
+                throw new CatalogImportException("В заголовке CSV нет колонки " + CSV_COLUMNS.get(i));
+            }
+            index[i] = column;
+        }
+
+        List<String> row;
+        while ((row = reader.next()) != null) {
+            long line = reader.getRecordLine();
+            long categoryId = parseId(field(row, index[0]), "category_id", line);
+            batch.addCategory(categoryId, field(row, index[1]), field(row, index[2]));
+            String productId = field(row, index[3]);
+            // Строка без товара описывает пустую категорию
+            if (!productId.isBlank()) {
+                CurrencyCode currency = parseCurrency(field(row, index[8]), line);
+                batch.addProduct(parseId(productId, "product_id", line), field(row, index[4]), field(row, index[5]),
+                        parsePrice(field(row, index[6]), currency, line), categoryId, field(row, index[7]), currency);
+            }
+        }
+    }
+
+    private void readJson(InputStream input, ImportBatch batch) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(input)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+            while (token != null && token != JsonToken.END_ARRAY) {
+                if (token != JsonToken.START_OBJECT) {
+                    throw new CatalogImportException("Ожидался объект категории, строка " + line(parser));
+                }
+                readJsonCategory(parser, batch);
+                token = parser.nextToken();
+            }
+        }
+    }
+
+    /**
+     * Прочитать объект {"category": {...}, "products": [...]}.
+     * Товары пишутся в батч по одному, поэтому объект категории должен идти раньше списка товаров
+     */
+    private void readJsonCategory(JsonParser parser, ImportBatch batch) throws IOException {
+        Long categoryId = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("category".equals(field)) {
+                CategoryDto category = parser.readValueAs(CategoryDto.class);
+                if (category == null || category.getId() == null) {
+                    throw new CatalogImportException("У категории не указан id, строка " + line(parser));
+                }
+                categoryId = category.getId();
+                long line = line(parser);
+                batch.addCategory(categoryId, requireText(category.getName(), "name", line),
+                        requireText(category.getUrl(), "url", line));
+            } else if ("products".equals(field) && value == JsonToken.START_ARRAY) {
+                if (categoryId == null) {
+                    throw new CatalogImportException("Список товаров указан раньше категории, строка " + line(parser));
+                }
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    ProductDto product = parser.readValueAs(ProductDto.class);
+                    if (product == null || product.getId() == null || product.getPrice() == null) {
+                        throw new CatalogImportException("У товара не указан id или цена, строка " + line(parser));
+                    }
+                    long line = line(parser);
+                    batch.addProduct(product.getId(), requireText(product.getName(), "name", line),
+                            requireText(product.getDescription(), "description", line),
+                            requireNonNegativePrice(product.getPrice(), line), categoryId,
+                            requireText(product.getUrl(), "url", line),
+                            product.getCurrency());
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private static String field(List<String> row, int index) {
+        return index < row.size() ? row.get(index) : "";
+    }
+
+    /**
+     * Обязательное поле JSON: отсутствующее значение отклоняется здесь с номером строки,
+     * а не ограничением NOT NULL в БД посреди импорта. Пустая строка допустима, как и пустое поле CSV
+     */
+    private static String requireText(String value, String field, long line) {
+        if (value == null) {
+            throw new CatalogImportException("Не указано поле " + field + ", строка " + line);
+        }
+        return value;
+    }
+
+    private static long parseId(String value, String column, long line) {
+        try {
+            return Long.parseLong(value.strip());
+        } catch (NumberFormatException e) {
+            throw new CatalogImportException("Некорректное значение " + column + " '" + value + "', строка " + line);
+        }
+    }
+
+    private static long parsePrice(String value, CurrencyCode currency, long line) {
+        long price;
+        try {
+            price = currency.toMinorUnits(new BigDecimal(value.strip()));
+        } catch (ArithmeticException | NumberFormatException e) {
+            throw new CatalogImportException("Некорректная цена '" + value + "', строка " + line);
+        }
+        return requireNonNegativePrice(price, line);
+    }
+
+    private static long requireNonNegativePrice(long price, long line) {
+        if (price < 0) {
+            throw new CatalogImportException("Отрицательная цена " + price + ", строка " + line);
+        }
+        return price;
+    }
+
+    private static CurrencyCode parseCurrency(String value, long line) {
+        if (value.isBlank()) {
+            return DEFAULT_CURRENCY;
+        }
+        try {
+            return CurrencyCode.valueOf(value.strip());
+        } catch (IllegalArgumentException e) {
+            throw new CatalogImportException("Неизвестная валюта '" + value + "', строка " + line);
+        }
+    }
+
+    private static long line(JsonParser parser) {
+        return parser.currentLocation().getLineNr();
+    }
+
+    /**
+     * Накопитель строк для записи батчами.
+     * Категории сбрасываются раньше товаров, чтобы внешний ключ products.category_id был выполнен
+     */
+    private class ImportBatch {
+        private final List<Object[]> categories = new ArrayList<>();
+        private final List<Object[]> products = new ArrayList<>(batchSize);
+        private final Set<Long> categoryIds = new HashSet<>();
+        private long productCount;
+
+        void addCategory(long id, String name, String url) {
+            if (categoryIds.add(id)) {
+                categories.add(new Object[]{id, name, url});
+            }
+        }
+
+        void addProduct(long id, String name, String description, long price, long categoryId,
+                        String url, CurrencyCode currency) {
+            CurrencyCode productCurrency = currency == null ? DEFAULT_CURRENCY : currency;
+            products.add(new Object[]{id, name, description, price, categoryId, url, productCurrency.name()});
+            productCount++;
+            if (products.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            catalogJdbcRepository.upsertCategories(categories);
+            catalogJdbcRepository.upsertProducts(products);
+            categories.clear();
+            products.clear();
+            log.debug("Записано {} товаров", productCount);
+        }
+    }
+}
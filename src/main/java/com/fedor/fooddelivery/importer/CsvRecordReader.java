@@ -0,0 +1,108 @@
+package com.fedor.fooddelivery.importer;
+
+import com.fedor.fooddelivery.exceptions.CatalogImportException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Потоковое чтение CSV по RFC 4180: поля в двойных кавычках могут содержать
+ * запятые, переводы строк и экранированные кавычки ("").
+ * В памяти держится только текущая запись
+ */
+public class CsvRecordReader {
+
+    private static final int END = -1;
+
+    private final Reader reader;
+    private final StringBuilder field = new StringBuilder();
+    private long lineNumber = 1;
+    private long recordLine;
+    private int pending = -2;
+
+    /**
+     * @param reader источник символов, буферизация остается на вызывающем коде
+     */
+    public CsvRecordReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Прочитать следующую запись
+     * @return поля записи или null, если файл закончился
+     * @throws CatalogImportException если в записи не закрыта кавычка
+     */
+    public List<String> next() throws IOException {
+        int ch = read();
+        // Пустые строки между записями пропускаются
+        while (ch == '\r' || ch == '\n') {
+            ch = read();
+        }
+        if (ch == END) {
+            return null;
+        }
+        recordLine = lineNumber;
+        List<String> fields = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (ch == END) {
+                    throw new CatalogImportException("Незакрытая кавычка в записи со строки " + recordLine);
+                }
+                if (ch == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        ch = next;
+                        continue;
+                    }
+                } else {
+                    field.append((char) ch);
+                }
+            } else if (ch == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (ch == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (ch == '\r' || ch == '\n' || ch == END) {
+                if (ch == '\r') {
+                    int next = read();
+                    if (next != '\n') {
+                        pending = next;
+                    }
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) ch);
+            }
+            ch = read();
+        }
+    }
+
+    /**
+     * Номер строки файла, с которой началась последняя прочитанная запись
+     */
+    public long getRecordLine() {
+        return recordLine;
+    }
+
+    private int read() throws IOException {
+        int ch;
+        if (pending != -2) {
+            ch = pending;
+            pending = -2;
+        } else {
+            ch = reader.read();
+        }
+        if (ch == '\n') {
+            lineNumber++;
+        }
+        return ch;
+    }
+}
@@ -0,0 +1,101 @@
+package com.fedor.fooddelivery.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Фильтр, который для каждого HTTP запроса решает, попадает ли он в выборку
+ * подробного логирования, и пишет одну итоговую строку о запросе.
+ * Решение передается в RequestSamplingTurboFilter через MDC; там же отбрасываются
+ * сообщения ниже WARN для запросов прогрева
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestLoggingFilter extends OncePerRequestFilter {
+
+    public static final String MDC_SAMPLED = "sampled";
+    public static final String MDC_WARMUP = "warmup";
+    public static final String SAMPLED = "1";
+    public static final String NOT_SAMPLED = "0";
+
+    /**
+     * Заголовок, принудительно включающий подробное логирование запроса
+     */
+    public static final String DEBUG_HEADER = "X-Debug-Log";
+
+    /**
+     * Заголовок запросов прогрева при старте (WarmupRunner). Учитывается только для запросов
+     * с loopback-адреса; сообщения ниже WARN для таких запросов не пишутся, а метрики и трассы
+     * не записываются (MetricsConfig, QueryCountingFilter)
+     */
+    public static final String WARMUP_HEADER = "X-Warmup";
+
+    private static final Logger log = LoggerFactory.getLogger(RequestLoggingFilter.class);
+
+    private final double sampleRate;
+
+    public RequestLoggingFilter(@Value("${app.logging.sample-rate:0.01}") double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean sampled = isSampled(request);
+        MDC.put(MDC_SAMPLED, sampled ? SAMPLED : NOT_SAMPLED);
+        if (isWarmup(request)) {
+            MDC.put(MDC_WARMUP, SAMPLED);
+        }
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long durationMicros = (System.nanoTime() - start) / 1_000;
+            log.info("method={} uri={} status={} durationUs={} sampled={}",
+                    request.getMethod(), request.getRequestURI(), response.getStatus(), durationMicros, sampled);
+            MDC.remove(MDC_SAMPLED);
+            MDC.remove(MDC_WARMUP);
+        }
+    }
+
+    /**
+     * Выполняется ли текущий поток внутри запроса прогрева
+     * @return true для запроса с заголовком WARMUP_HEADER с loopback-адреса
+     */
+    public static boolean isWarmupRequest() {
+        return MDC.get(MDC_WARMUP) != null;
+    }
+
+    private boolean isWarmup(HttpServletRequest request) {
+        if (!"true".equalsIgnoreCase(request.getHeader(WARMUP_HEADER))) {
+            return false;
+        }
+        try {
+            return InetAddress.getByName(request.getRemoteAddr()).isLoopbackAddress();
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+
+    private boolean isSampled(HttpServletRequest request) {
+        if ("true".equalsIgnoreCase(request.getHeader(DEBUG_HEADER))) {
+            return true;
+        }
+        return sampleRate >= 1.0 || (sampleRate > 0.0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+}
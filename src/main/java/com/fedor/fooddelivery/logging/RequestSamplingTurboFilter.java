@@ -0,0 +1,44 @@
+package com.fedor.fooddelivery.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+/**
+ * Турбо-фильтр Logback для выборочного подробного логирования запросов.
+ * Внутри HTTP запроса DEBUG/TRACE сообщения пакета приложения пропускаются
+ * только для запросов, попавших в выборку (независимо от уровня логгера),
+ * и отбрасываются до форматирования для всех остальных.
+ * Для запросов прогрева (WarmupRunner) отбрасываются и сообщения INFO, чтобы сотни
+ * синтетических запросов при старте не заполняли лог.
+ * Вне запроса (старт приложения, фоновые задачи) действуют обычные уровни
+ */
+public class RequestSamplingTurboFilter extends TurboFilter {
+
+    private String packagePrefix = "com.fedor.fooddelivery";
+
+    public void setPackagePrefix(String packagePrefix) {
+        this.packagePrefix = packagePrefix;
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (!logger.getName().startsWith(packagePrefix)) {
+            return FilterReply.NEUTRAL;
+        }
+        if (RequestLoggingFilter.isWarmupRequest() && !level.isGreaterOrEqual(Level.WARN)) {
+            return FilterReply.DENY;
+        }
+        if (level.isGreaterOrEqual(Level.INFO)) {
+            return FilterReply.NEUTRAL;
+        }
+        String sampled = MDC.get(RequestLoggingFilter.MDC_SAMPLED);
+        if (sampled == null) {
+            return FilterReply.NEUTRAL;
+        }
+        return RequestLoggingFilter.SAMPLED.equals(sampled) ? FilterReply.ACCEPT : FilterReply.DENY;
+    }
+}
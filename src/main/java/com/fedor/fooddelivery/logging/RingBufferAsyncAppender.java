@@ -0,0 +1,205 @@
+package com.fedor.fooddelivery.logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Асинхронный аппендер Logback на основе кольцевого буфера без блокировок.
+ * Потоки приложения только кладут событие в буфер (CAS по позиции записи),
+ * а запись в вложенные аппендеры выполняет один фоновый поток.
+ * При переполнении буфера событие отбрасывается, поток запроса никогда не ждет
+ */
+public class RingBufferAsyncAppender extends UnsynchronizedAppenderBase<ILoggingEvent>
+        implements AppenderAttachable<ILoggingEvent> {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+    private final AtomicLong enqueuePosition = new AtomicLong();
+    private final LongAdder droppedEvents = new LongAdder();
+
+    private int bufferSize = 8192;
+    private long maxFlushTimeMillis = 1000;
+
+    private ILoggingEvent[] events;
+    private AtomicLongArray sequences;
+    private int mask;
+    private long dequeuePosition;
+    private Thread worker;
+
+    /**
+     * Размер буфера, округляется вверх до степени двойки
+     * @param bufferSize количество событий в буфере
+     */
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Максимальное время дозаписи оставшихся событий при остановке
+     * @param maxFlushTimeMillis время в миллисекундах
+     */
+    public void setMaxFlushTimeMillis(long maxFlushTimeMillis) {
+        this.maxFlushTimeMillis = maxFlushTimeMillis;
+    }
+
+    /**
+     * Количество событий, отброшенных из-за переполнения буфера
+     * @return число отброшенных событий
+     */
+    public long getDroppedCount() {
+        return droppedEvents.sum();
+    }
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        if (bufferSize < 2) {
+            addError("bufferSize должен быть не меньше 2");
+            return;
+        }
+        int capacity = Integer.highestOneBit(bufferSize - 1) << 1;
+        events = new ILoggingEvent[capacity];
+        sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        mask = capacity - 1;
+        enqueuePosition.set(0);
+        dequeuePosition = 0;
+
+        super.start();
+        worker = new Thread(this::drainLoop, "logback-ring-" + getName());
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        LockSupport.unpark(worker);
+        try {
+            worker.join(maxFlushTimeMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (worker.isAlive()) {
+            addWarn("Не все события были записаны за " + maxFlushTimeMillis + " мс");
+        }
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        event.prepareForDeferredProcessing();
+        if (!offer(event)) {
+            droppedEvents.increment();
+        }
+    }
+
+    /**
+     * Положить событие в буфер. Алгоритм ограниченной очереди Вьюкова:
+     * слот свободен для записи, когда его номер последовательности равен позиции
+     */
+    private boolean offer(ILoggingEvent event) {
+        long position = enqueuePosition.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (enqueuePosition.compareAndSet(position, position + 1)) {
+                    events[index] = event;
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = enqueuePosition.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = enqueuePosition.get();
+            }
+        }
+    }
+
+    /**
+     * Забрать событие из буфера. Вызывается только фоновым потоком
+     */
+    private ILoggingEvent poll() {
+        int index = (int) (dequeuePosition & mask);
+        if (sequences.get(index) != dequeuePosition + 1) {
+            return null;
+        }
+        ILoggingEvent event = events[index];
+        events[index] = null;
+        sequences.set(index, dequeuePosition + mask + 1);
+        dequeuePosition++;
+        return event;
+    }
+
+    private void drainLoop() {
+        while (true) {
+            ILoggingEvent event = poll();
+            if (event != null) {
+                appenders.appendLoopOnAppenders(event);
+            } else if (isStarted()) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            } else {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void addAppender(Appender<ILoggingEvent> appender) {
+        appenders.addAppender(appender);
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+        return appenders.iteratorForAppenders();
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(String name) {
+        return appenders.getAppender(name);
+    }
+
+    @Override
+    public boolean isAttached(Appender<ILoggingEvent> appender) {
+        return appenders.isAttached(appender);
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public boolean detachAppender(Appender<ILoggingEvent> appender) {
+        return appenders.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(String name) {
+        return appenders.detachAppender(name);
+    }
+}
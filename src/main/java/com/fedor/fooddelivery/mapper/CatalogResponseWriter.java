@@ -0,0 +1,120 @@
+package com.fedor.fooddelivery.mapper;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fedor.fooddelivery.dto.CatalogChangesDto;
+import com.fedor.fooddelivery.entity.Category;
+import com.fedor.fooddelivery.entity.CurrencyCode;
+import com.fedor.fooddelivery.entity.Product;
+import com.fedor.fooddelivery.service.CatalogService.CategoryProducts;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Запись ответов GET /catalog/{id} и GET /catalog?ids=...&include=products напрямую из сущностей в JSON,
+ * а также ответа GET /catalog/changes с изменениями из журнала.
+ * Формат совпадает с сериализацией CatalogResponseDto байт в байт, но список
+ * CatalogProductDto не создается и Jackson не обходит DTO через рефлексию:
+ * поля пишутся генератором по одному, поэтому на товар не выделяется ни одного объекта.
+ * Генератор создается тем же ObjectMapper, что и у Spring MVC, с теми же правилами экранирования
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogResponseWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogResponseWriter.class);
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Записать категорию и ее товары в поток
+     * @param category категория
+     * @param products товары категории
+     * @param output поток ответа, не закрывается
+     */
+    public void write(Category category, List<Product> products, OutputStream output) throws IOException {
+        log.debug("Запись ответа каталога для категории {}, товаров: {}", category.getId(), products.size());
+
+        try (JsonGenerator generator = createGenerator(output)) {
+            writeCategory(generator, category, products);
+        }
+    }
+
+    /**
+     * Записать несколько категорий с товарами в поток JSON массивом.
+     * Каждый элемент массива имеет формат CatalogResponseDto, как ответ GET /catalog/{id}
+     * @param categories категории с товарами
+     * @param output поток ответа, не закрывается
+     */
+    public void writeAll(List<CategoryProducts> categories, OutputStream output) throws IOException {
+        log.debug("Запись ответа каталога для {} категорий", categories.size());
+
+        try (JsonGenerator generator = createGenerator(output)) {
+            generator.writeStartArray();
+            for (CategoryProducts categoryProducts : categories) {
+                writeCategory(generator, categoryProducts.category(), categoryProducts.products());
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    /**
+     * Записать изменения каталога из журнала в поток
+     * @param changes изменения после версии клиента
+     * @param output поток ответа, не закрывается
+     */
+    public void writeChanges(CatalogChangesDto changes, OutputStream output) throws IOException {
+        try (JsonGenerator generator = createGenerator(output)) {
+            generator.writeObject(changes);
+        }
+    }
+
+    private JsonGenerator createGenerator(OutputStream output) throws IOException {
+        JsonGenerator generator = objectMapper.createGenerator(output, JsonEncoding.UTF8);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return generator;
+    }
+
+    private static void writeCategory(JsonGenerator generator, Category category, List<Product> products)
+            throws IOException {
+        generator.writeStartObject();
+
+        generator.writeFieldName("category");
+        generator.writeStartObject();
+        writeNumberField(generator, "id", category.getId());
+        generator.writeStringField("name", category.getName());
+        generator.writeStringField("url", category.getUrl());
+        generator.writeEndObject();
+
+        generator.writeArrayFieldStart("products");
+        for (Product product : products) {
+            generator.writeStartObject();
+            writeNumberField(generator, "id", product.getId());
+            generator.writeStringField("name", product.getName());
+            generator.writeNumberField("price", product.getPrice());
+            generator.writeStringField("url", product.getUrl());
+            CurrencyCode currency = product.getCurrency();
+            generator.writeStringField("currency", currency != null ? currency.name() : null);
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+
+        generator.writeEndObject();
+    }
+
+    private static void writeNumberField(JsonGenerator generator, String name, Long value) throws IOException {
+        generator.writeFieldName(name);
+        if (value != null) {
+            generator.writeNumber(value);
+        } else {
+            generator.writeNull();
+        }
+    }
+}
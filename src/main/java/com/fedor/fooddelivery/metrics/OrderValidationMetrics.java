@@ -0,0 +1,37 @@
+package com.fedor.fooddelivery.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Счетчики ошибок валидации заказов в разрезе причин.
+ * Все счетчики регистрируются заранее, поэтому запись не создает объектов
+ */
+@Component
+public class OrderValidationMetrics {
+
+    public static final String METRIC_NAME = "order.validation.failures";
+
+    private final Map<ValidationFailureReason, Counter> counters = new EnumMap<>(ValidationFailureReason.class);
+
+    public OrderValidationMetrics(MeterRegistry registry) {
+        for (ValidationFailureReason reason : ValidationFailureReason.values()) {
+            counters.put(reason, Counter.builder(METRIC_NAME)
+                    .description("Количество заказов, не прошедших валидацию")
+                    .tag("reason", reason.getTag())
+                    .register(registry));
+        }
+    }
+
+    /**
+     * Учесть ошибку валидации
+     * @param reason причина отказа
+     */
+    public void recordFailure(ValidationFailureReason reason) {
+        counters.get(reason).increment();
+    }
+}
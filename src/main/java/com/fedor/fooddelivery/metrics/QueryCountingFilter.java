@@ -0,0 +1,124 @@
+package com.fedor.fooddelivery.metrics;
+
+import com.fedor.fooddelivery.datasource.QueryStatistics;
+import com.fedor.fooddelivery.logging.RequestLoggingFilter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Число SQL запросов и время их выполнения на каждый HTTP запрос.
+ * Пишется в метрики app.http.jdbc.statements и app.http.jdbc.time (теги method, uri), кроме запросов прогрева.
+ * С app.jdbc.query-headers.enabled=true (везде, кроме prod) те же значения отдаются в заголовках
+ * X-Query-Count и X-Query-Time-Us. Заголовки выставляются перед началом записи тела ответа:
+ * для потоковых ответов они учитывают только запросы, выполненные до первого байта.
+ * Регистрируется в QueryCountingConfig вместе с оберткой источника данных
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class QueryCountingFilter extends OncePerRequestFilter {
+
+    public static final String COUNT_HEADER = "X-Query-Count";
+    public static final String TIME_HEADER = "X-Query-Time-Us";
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final MeterRegistry registry;
+    private final boolean headers;
+
+    /**
+     * @param registry реестр метрик
+     * @param headers отдавать ли значения в заголовках ответа
+     */
+    public QueryCountingFilter(MeterRegistry registry, boolean headers) {
+        this.registry = registry;
+        this.headers = headers;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        QueryStatistics statistics = QueryStatistics.start();
+        try {
+            chain.doFilter(request, headers ? new QueryHeadersResponse(response, statistics) : response);
+        } finally {
+            QueryStatistics.stop();
+            if (headers && !response.isCommitted()) {
+                writeHeaders(response, statistics);
+            }
+            if (!RequestLoggingFilter.isWarmupRequest()) {
+                record(request, statistics);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, QueryStatistics statistics) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : UNKNOWN_URI;
+        DistributionSummary.builder("app.http.jdbc.statements")
+                .description("Число SQL запросов на HTTP запрос")
+                .tags("method", request.getMethod(), "uri", uri)
+                .register(registry)
+                .record(statistics.statements());
+        Timer.builder("app.http.jdbc.time")
+                .description("Время SQL запросов на HTTP запрос")
+                .tags("method", request.getMethod(), "uri", uri)
+                .register(registry)
+                .record(statistics.nanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private static void writeHeaders(HttpServletResponse response, QueryStatistics statistics) {
+        response.setHeader(COUNT_HEADER, Integer.toString(statistics.statements()));
+        response.setHeader(TIME_HEADER, Long.toString(TimeUnit.NANOSECONDS.toMicros(statistics.nanos())));
+    }
+
+    /**
+     * Ответ, выставляющий заголовки при получении потока тела, пока ответ еще не отправлен
+     */
+    private static final class QueryHeadersResponse extends HttpServletResponseWrapper {
+
+        private final QueryStatistics statistics;
+
+        private QueryHeadersResponse(HttpServletResponse response, QueryStatistics statistics) {
+            super(response);
+            this.statistics = statistics;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            beforeBody();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            beforeBody();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            beforeBody();
+            super.flushBuffer();
+        }
+
+        private void beforeBody() {
+            if (!isCommitted()) {
+                writeHeaders((HttpServletResponse) getResponse(), statistics);
+            }
+        }
+    }
+}
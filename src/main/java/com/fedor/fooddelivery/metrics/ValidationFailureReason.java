@@ -0,0 +1,23 @@
+package com.fedor.fooddelivery.metrics;
+
+/**
+ * Причины отказа в валидации заказа.
+ * Значение tag используется как тег метрики order.validation.failures
+ */
+public enum ValidationFailureReason {
+    CUSTOMER_NAME_MISSING("customer_name_missing"),
+    PHONE_MISSING("phone_missing"),
+    PHONE_INVALID("phone_invalid"),
+    EMPTY_ORDER("empty_order"),
+    PRODUCT_NOT_FOUND("product_not_found");
+
+    private final String tag;
+
+    ValidationFailureReason(String tag) {
+        this.tag = tag;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+}
@@ -0,0 +1,283 @@
+package com.fedor.fooddelivery.repository;
+
+import com.fedor.fooddelivery.entity.Category;
+import com.fedor.fooddelivery.entity.CurrencyCode;
+import com.fedor.fooddelivery.entity.Product;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Репозиторий для массовых операций с каталогом через JDBC в обход JPA.
+ * Используется там, где построчная работа через EntityManager слишком дорога
+ */
+@Repository
+@RequiredArgsConstructor
+public class CatalogJdbcRepository {
+
+    // Стандартный MERGE поддерживают и PostgreSQL 15+, и H2
+    private static final String UPSERT_CATEGORY = """
+            MERGE INTO categories AS c
+            USING (VALUES (CAST(? AS BIGINT), CAST(? AS VARCHAR), CAST(? AS VARCHAR))) AS s(id, name, url)
+            ON c.id = s.id
+            WHEN MATCHED THEN UPDATE SET name = s.name, url = s.url
+            WHEN NOT MATCHED THEN INSERT (id, name, url) VALUES (s.id, s.name, s.url)""";
+
+    private static final String UPSERT_PRODUCT = """
+            MERGE INTO products AS p
+            USING (VALUES (CAST(? AS BIGINT), CAST(? AS VARCHAR), CAST(? AS VARCHAR), CAST(? AS BIGINT),
+                           CAST(? AS BIGINT), CAST(? AS VARCHAR), CAST(? AS VARCHAR)))
+                AS s(id, name, description, price_minor, category_id, url, currency)
+            ON p.id = s.id
+            WHEN MATCHED THEN UPDATE SET name = s.name, description = s.description, price_minor = s.price_minor,
+                category_id = s.category_id, url = s.url, currency = s.currency
+            WHEN NOT MATCHED THEN INSERT (id, name, description, price_minor, category_id, url, currency)
+                VALUES (s.id, s.name, s.description, s.price_minor, s.category_id, s.url, s.currency)""";
+
+    // Следующий id не меньше выданного ранее: setval только по MAX(id) мог бы вернуть последовательность
+    // назад, если параллельная транзакция уже получила больший id
+    private static final String ALIGN_POSTGRES_IDENTITY = """
+            SELECT setval(pg_get_serial_sequence('%1$s', 'id'),
+                GREATEST((SELECT MAX(id) FROM %1$s), nextval(pg_get_serial_sequence('%1$s', 'id'))))""";
+
+    // Категории без товаров тоже попадают в выборку, у них p.id = NULL
+    private static final String SELECT_CATALOG = """
+            SELECT c.id, c.name, c.url, p.id, p.name, p.description, p.price_minor, p.url, p.currency
+            FROM categories c
+            LEFT JOIN products p ON p.category_id = c.id
+            ORDER BY c.id, p.id""";
+
+    // Столбцы change_version и таблица catalog_deletions создает миграция V6, created_version и previous_price - V8
+    private static final String SELECT_CATALOG_VERSION = """
+            SELECT GREATEST(
+                (SELECT COALESCE(MAX(change_version), 0) FROM categories),
+                (SELECT COALESCE(MAX(change_version), 0) FROM products),
+                (SELECT COALESCE(MAX(change_version), 0) FROM catalog_deletions))""";
+
+    private static final String SELECT_CHANGED_CATEGORIES = """
+            SELECT id, name, url, change_version, created_version
+            FROM categories
+            WHERE change_version > ? AND change_version <= ?
+            ORDER BY change_version DESC
+            LIMIT ?""";
+
+    private static final String SELECT_CHANGED_PRODUCTS = """
+            SELECT id, name, description, price_minor, category_id, url, currency, change_version,
+                   created_version, previous_price
+            FROM products
+            WHERE change_version > ? AND change_version <= ?
+            ORDER BY change_version DESC
+            LIMIT ?""";
+
+    private static final String SELECT_DELETIONS = """
+            SELECT table_name, id, change_version
+            FROM catalog_deletions
+            WHERE change_version > ? AND change_version <= ?
+            ORDER BY change_version DESC
+            LIMIT ?""";
+
+    private static final String SELECT_DELETIONS_BOUNDARY = """
+            SELECT change_version
+            FROM catalog_deletions
+            ORDER BY change_version DESC
+            LIMIT 1 OFFSET ?""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Вставить или обновить категории одним JDBC батчем
+     * @param rows строки вида {id, name, url}
+     */
+    public void upsertCategories(List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_CATEGORY, rows);
+        }
+    }
+
+    /**
+     * Вставить или обновить товары одним JDBC батчем
+     * @param rows строки вида {id, name, description, price, categoryId, url, currency},
+     *             цена в минимальных единицах валюты, валюта - имя CurrencyCode
+     */
+    public void upsertProducts(List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_PRODUCT, rows);
+        }
+    }
+
+    /**
+     * Продвинуть генераторы идентификаторов categories и products за наибольший id в таблицах.
+     * Строки с явно указанным id (импорт) генератор не двигают, и следующая вставка через JPA
+     * получила бы уже занятый id. В PostgreSQL - setval, как в миграции V4; во встроенной H2 тестов -
+     * ALTER TABLE ... RESTART WITH
+     */
+    public void alignIdentitySequences() {
+        boolean postgres = Boolean.TRUE.equals(jdbcTemplate.execute(
+                (ConnectionCallback<Boolean>) connection -> connection.isWrapperFor(PGConnection.class)));
+        for (String table : List.of("categories", "products")) {
+            if (postgres) {
+                jdbcTemplate.queryForObject(ALIGN_POSTGRES_IDENTITY.formatted(table), Long.class);
+            } else {
+                Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+                jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH "
+                        + (maxId != null ? maxId + 1 : 1));
+            }
+        }
+    }
+
+    /**
+     * Обойти весь каталог одним запросом, упорядоченным по категории и товару.
+     * Строки читаются порциями по fetchSize; PostgreSQL использует серверный курсор
+     * только внутри транзакции, поэтому метод нужно вызывать в транзакции
+     * @param fetchSize сколько строк драйвер получает за одно обращение к БД
+     * @param consumer получает категорию и товар; для категории без товаров товар равен null.
+     *                 Объект категории один и тот же для всех ее товаров
+     */
+    public void forEachCatalogRow(int fetchSize, BiConsumer<Category, Product> consumer) {
+        Category[] current = new Category[1];
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_CATALOG,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, (ResultSet rs) -> {
+            long categoryId = rs.getLong(1);
+            Category category = current[0];
+            if (category == null || category.getId() != categoryId) {
+                category = new Category();
+                category.setId(categoryId);
+                category.setName(rs.getString(2));
+                category.setUrl(rs.getString(3));
+                current[0] = category;
+            }
+            long productId = rs.getLong(4);
+            if (rs.wasNull()) {
+                consumer.accept(category, null);
+                return;
+            }
+            Product product = new Product();
+            product.setId(productId);
+            product.setName(rs.getString(5));
+            product.setDescription(rs.getString(6));
+            product.setPrice(rs.getLong(7));
+            product.setCategory(category);
+            product.setUrl(rs.getString(8));
+            product.setCurrency(CurrencyCode.valueOf(rs.getString(9)));
+            consumer.accept(category, product);
+        });
+    }
+
+    /**
+     * Текущая версия каталога: наибольшая версия вставленной, измененной или удаленной строки
+     * @return версия каталога, 0 для пустого каталога
+     */
+    public long findCatalogVersion() {
+        Long version = jdbcTemplate.queryForObject(SELECT_CATALOG_VERSION, Long.class);
+        return version != null ? version : 0;
+    }
+
+    /**
+     * Категории, вставленные или измененные в диапазоне версий, от новых к старым
+     * @param afterVersion нижняя граница версии, не включая
+     * @param upToVersion верхняя граница версии, включая
+     * @param limit наибольшее число строк
+     * @return категории с версиями их вставки и последнего изменения
+     */
+    public List<Versioned<Category>> findChangedCategories(long afterVersion, long upToVersion, int limit) {
+        return jdbcTemplate.query(SELECT_CHANGED_CATEGORIES, (rs, rowNum) -> {
+            Category category = new Category();
+            category.setId(rs.getLong(1));
+            category.setName(rs.getString(2));
+            category.setUrl(rs.getString(3));
+            return new Versioned<>(category, rs.getLong(4), rs.getLong(5), null);
+        }, afterVersion, upToVersion, limit);
+    }
+
+    /**
+     * Товары, вставленные или измененные в диапазоне версий, от новых к старым.
+     * У категории товара заполнен только идентификатор
+     * @param afterVersion нижняя граница версии, не включая
+     * @param upToVersion верхняя граница версии, включая
+     * @param limit наибольшее число строк
+     * @return товары с версиями их вставки и последнего изменения и прежней ценой
+     */
+    public List<Versioned<Product>> findChangedProducts(long afterVersion, long upToVersion, int limit) {
+        return jdbcTemplate.query(SELECT_CHANGED_PRODUCTS, (rs, rowNum) -> {
+            Category category = new Category();
+            category.setId(rs.getLong(5));
+            Product product = new Product();
+            product.setId(rs.getLong(1));
+            product.setName(rs.getString(2));
+            product.setDescription(rs.getString(3));
+            product.setPrice(rs.getLong(4));
+            product.setCategory(category);
+            product.setUrl(rs.getString(6));
+            product.setCurrency(CurrencyCode.valueOf(rs.getString(7)));
+            long price = rs.getLong(10);
+            Long previousPrice = rs.wasNull() ? null : price;
+            return new Versioned<>(product, rs.getLong(8), rs.getLong(9), previousPrice);
+        }, afterVersion, upToVersion, limit);
+    }
+
+    /**
+     * Удаления категорий и товаров в диапазоне версий, от новых к старым
+     * @param afterVersion нижняя граница версии, не включая
+     * @param upToVersion верхняя граница версии, включая
+     * @param limit наибольшее число строк
+     * @return удаления
+     */
+    public List<Deletion> findDeletions(long afterVersion, long upToVersion, int limit) {
+        return jdbcTemplate.query(SELECT_DELETIONS, (rs, rowNum) -> {
+            long id = rs.getLong(2);
+            Long deletedId = rs.wasNull() ? null : id;
+            return new Deletion(rs.getString(1), deletedId, rs.getLong(3));
+        }, afterVersion, upToVersion, limit);
+    }
+
+    /**
+     * Удалить из catalog_deletions все строки, кроме keep последних.
+     * У самой старой из оставшихся строк стирается id: как строка TRUNCATE, она отмечает версию,
+     * раньше которой удаления неизвестны, и клиент с более старой версией получит весь каталог
+     * @param keep сколько последних удалений оставить
+     * @return число удаленных строк
+     */
+    public int pruneDeletions(int keep) {
+        List<Long> boundary = jdbcTemplate.queryForList(SELECT_DELETIONS_BOUNDARY, Long.class, keep - 1);
+        if (boundary.isEmpty()) {
+            return 0;
+        }
+        int deleted = jdbcTemplate.update("DELETE FROM catalog_deletions WHERE change_version < ?", boundary.get(0));
+        if (deleted > 0) {
+            jdbcTemplate.update("UPDATE catalog_deletions SET id = NULL WHERE change_version = ?", boundary.get(0));
+        }
+        return deleted;
+    }
+
+    /**
+     * Строка каталога с версиями ее вставки и последнего изменения (миграции V6 и V8)
+     * @param row категория или товар
+     * @param version версия последнего изменения
+     * @param createdVersion версия вставки; 0 - строка вставлена до миграции V8
+     * @param previousPrice цена товара до последнего изменения, если оно затронуло только цену или валюту;
+     *                      иначе и для категорий null
+     */
+    public record Versioned<T>(T row, long version, long createdVersion, Long previousPrice) {
+    }
+
+    /**
+     * Удаление строки каталога
+     * @param table таблица: categories или products
+     * @param id идентификатор удаленной строки; null, если таблица очищена целиком (TRUNCATE)
+     *           или более старые удаления уже удалены из catalog_deletions
+     * @param version версия удаления
+     */
+    public record Deletion(String table, Long id, long version) {
+    }
+}
@@ -1,10 +1,18 @@
 package com.fedor.fooddelivery.repository;
 
+import com.fedor.fooddelivery.dto.ProductDto;
 import com.fedor.fooddelivery.entity.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Репозиторий для работы с товарами.
@@ -14,9 +22,32 @@ import java.util.List;
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
     /**
-     * Найти все товары по идентификатору категории
+     * Найти все товары по идентификатору категории.
+     * Результат кэшируется в кэше запросов Hibernate и сбрасывается при любой записи в таблицу products
      * @param categoryId идентификатор категории
      * @return список товаров принадлежащих указанной категории
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Product> findByCategoryId(Long categoryId);
+
+    /**
+     * Найти товары нескольких категорий одним запросом
+     * @param categoryIds идентификаторы категорий
+     * @return товары указанных категорий в порядке идентификаторов
+     */
+    @Query("select p from Product p where p.category.id in :categoryIds order by p.id")
+    List<Product> findByCategoryIdIn(@Param("categoryIds") Collection<Long> categoryIds);
+
+    /**
+     * Найти товар сразу в виде DTO.
+     * Читается только столбец category_id, связь с категорией не загружается
+     * @param id идентификатор товара
+     * @return DTO с полной информацией о товаре
+     */
+    @Query("""
+            select new com.fedor.fooddelivery.dto.ProductDto(
+                p.id, p.name, p.description, p.price, p.category.id, p.url, p.currency)
+            from Product p
+            where p.id = :id""")
+    Optional<ProductDto> findProductDtoById(@Param("id") Long id);
 }
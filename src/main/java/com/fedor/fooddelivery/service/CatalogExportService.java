@@ -0,0 +1,175 @@
+package com.fedor.fooddelivery.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fedor.fooddelivery.dto.CategoryDto;
+import com.fedor.fooddelivery.entity.Category;
+import com.fedor.fooddelivery.mapper.CategoryMapper;
+import com.fedor.fooddelivery.mapper.ProductMapper;
+import com.fedor.fooddelivery.repository.CatalogJdbcRepository;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Сервис выгрузки всего каталога в формате NDJSON и в формате полного ответа GET /catalog/changes.
+ * В NDJSON каждая строка - объект {"category": {...}, "products": [...]} для одной категории.
+ * Данные читаются из БД курсором и сразу пишутся в выходной поток,
+ * поэтому память не зависит от размера каталога
+ */
+@Service
+@Timed("app.service")
+public class CatalogExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogExportService.class);
+
+    private final CatalogJdbcRepository catalogJdbcRepository;
+    private final CategoryMapper categoryMapper;
+    private final ProductMapper productMapper;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int fetchSize;
+
+    public CatalogExportService(CatalogJdbcRepository catalogJdbcRepository,
+                                CategoryMapper categoryMapper,
+                                ProductMapper productMapper,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.catalog.export.fetch-size:1000}") int fetchSize) {
+        this.catalogJdbcRepository = catalogJdbcRepository;
+        this.categoryMapper = categoryMapper;
+        this.productMapper = productMapper;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // Версия каталога и строки читаются из одного снимка БД
+        this.readOnlyTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Выгрузить каталог в поток
+     * @param output поток ответа, не закрывается
+     */
+    public void exportCatalog(OutputStream output) throws IOException {
+        log.debug("Начата выгрузка каталога");
+        try (JsonGenerator generator = objectMapper.createGenerator(output, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+            NdjsonWriter writer = new NdjsonWriter(generator);
+            readOnlyTransaction.executeWithoutResult(status ->
+                    catalogJdbcRepository.forEachCatalogRow(fetchSize, (category, product) -> {
+                        try {
+                            writer.startCategory(category);
+                            if (product != null) {
+                                generator.writeObject(productMapper.toProductDto(product));
+                            }
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }));
+            writer.finish();
+            // Последняя строка NDJSON тоже завершается переводом строки
+            generator.writeRaw('\n');
+            log.debug("Выгрузка каталога завершена, категорий: {}", writer.categories);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Выгрузить весь каталог в формате CatalogChangesDto с full = true.
+     * Товары пишутся по мере чтения из БД, в памяти собираются только категории, поэтому список
+     * products идет в ответе раньше categories. Версия читается в одной транзакции со строками
+     * и точно им соответствует
+     * @param output поток ответа, не закрывается
+     */
+    public void exportChanges(OutputStream output) throws IOException {
+        log.debug("Начата выгрузка каталога для GET /catalog/changes");
+        try (JsonGenerator generator = objectMapper.createGenerator(output, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            List<CategoryDto> categories = new ArrayList<>();
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try {
+                    generator.writeStartObject();
+                    generator.writeNumberField("version", catalogJdbcRepository.findCatalogVersion());
+                    generator.writeBooleanField("full", true);
+                    generator.writeArrayFieldStart("products");
+                    Category[] current = new Category[1];
+                    catalogJdbcRepository.forEachCatalogRow(fetchSize, (category, product) -> {
+                        if (category != current[0]) {
+                            categories.add(categoryMapper.toCategoryDto(category));
+                            current[0] = category;
+                        }
+                        if (product != null) {
+                            try {
+                                generator.writeObject(productMapper.toProductDto(product));
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        }
+                    });
+                    generator.writeEndArray();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeFieldName("categories");
+            generator.writeObject(categories);
+            generator.writeArrayFieldStart("deletedCategoryIds");
+            generator.writeEndArray();
+            generator.writeArrayFieldStart("deletedProductIds");
+            generator.writeEndArray();
+            generator.writeEndObject();
+            log.debug("Выгрузка каталога для GET /catalog/changes завершена, категорий: {}", categories.size());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Открывает и закрывает объект категории при смене категории в потоке строк
+     */
+    private class NdjsonWriter {
+        private final JsonGenerator generator;
+        private Category current;
+        private long categories;
+
+        NdjsonWriter(JsonGenerator generator) {
+            this.generator = generator;
+        }
+
+        void startCategory(Category category) throws IOException {
+            if (category == current) {
+                return;
+            }
+            finish();
+            current = category;
+            categories++;
+            generator.writeStartObject();
+            generator.writeFieldName("category");
+            generator.writeObject(categoryMapper.toCategoryDto(category));
+            generator.writeArrayFieldStart("products");
+        }
+
+        void finish() throws IOException {
+            if (current != null) {
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+        }
+    }
+}
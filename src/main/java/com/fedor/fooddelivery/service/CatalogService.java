@@ -4,38 +4,89 @@ import com.fedor.fooddelivery.dto.CatalogProductDto;
 import com.fedor.fooddelivery.dto.CatalogResponseDto;
 import com.fedor.fooddelivery.dto.CategoryDto;
 import com.fedor.fooddelivery.entity.Category;
+import com.fedor.fooddelivery.entity.Product;
 import com.fedor.fooddelivery.exceptions.CategoryNotFoundException;
 import com.fedor.fooddelivery.mapper.CatalogProductMapper;
 import com.fedor.fooddelivery.mapper.CategoryMapper;
 import com.fedor.fooddelivery.repository.CategoryRepository;
 import com.fedor.fooddelivery.repository.ProductRepository;
-import lombok.RequiredArgsConstructor;
+import com.fedor.fooddelivery.cache.CatalogCacheManager;
+import com.fedor.fooddelivery.cache.CatalogLoadTransaction;
+import com.fedor.fooddelivery.cache.NegativeLookupCache;
+import com.fedor.fooddelivery.cache.RefreshingCache;
+import com.fedor.fooddelivery.cache.SingleFlight;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
- * Сервис для работы с каталогом товаров и категорий
+ * Сервис для работы с каталогом товаров и категорий.
+ * Только читает данные, поэтому при настроенных репликах обращается к ним, пока они
+ * не отстают от опубликованной версии каталога (CatalogLoadTransaction).
+ * Ответы кэшируются (CatalogCacheManager): после первой загрузки запросы не ждут БД,
+ * устаревшие значения обновляются в фоне. Транзакция открывается только на время загрузки,
+ * поэтому запросы, обслуженные из кэша, не берут соединение из пула
  */
 @Service
-@RequiredArgsConstructor
+@Timed("app.service")
 public class CatalogService {
 
     private static final Logger log = LoggerFactory.getLogger(CatalogService.class);
 
+    private static final String ALL_CATEGORIES = "all";
+
     private final CategoryRepository categoryRepository;
     private final ProductRepository productRepository;
     private final CategoryMapper categoryMapper;
     private final CatalogProductMapper catalogProductMapper;
+    private final CatalogLoadTransaction loadTransaction;
+    private final SingleFlight<Long, CategoryProducts> categoryLoads;
+    private final RefreshingCache<String, List<CategoryDto>> categoriesCache;
+    private final RefreshingCache<Long, CategoryProducts> categoryProductsCache;
+    private final NegativeLookupCache missingCategories;
+
+    public CatalogService(CategoryRepository categoryRepository,
+                          ProductRepository productRepository,
+                          CategoryMapper categoryMapper,
+                          CatalogProductMapper catalogProductMapper,
+                          CatalogLoadTransaction loadTransaction,
+                          CatalogCacheManager catalogCacheManager,
+                          @Value("${app.catalog.load-timeout:5s}") Duration loadTimeout) {
+        this.categoryRepository = categoryRepository;
+        this.productRepository = productRepository;
+        this.categoryMapper = categoryMapper;
+        this.catalogProductMapper = catalogProductMapper;
+        this.loadTransaction = loadTransaction;
+        this.categoryLoads = new SingleFlight<>(loadTimeout);
+        this.categoriesCache = catalogCacheManager.create("categories",
+                key -> loadTransaction.execute(status -> loadAllCategories()));
+        this.categoryProductsCache = catalogCacheManager.create("category-products",
+                categoryId -> categoryLoads.load(categoryId,
+                        () -> loadTransaction.execute(status -> loadCategoryProducts(categoryId))));
+        this.missingCategories = catalogCacheManager.createNegative("categories");
+    }
 
     /**
      * Получить все категории товаров
      * @return список DTO категорий
      */
     public List<CategoryDto> getAllCategories() {
-        log.info("Запрос на получение всех категорий");
+        log.debug("Запрос на получение всех категорий");
+        return categoriesCache.get(ALL_CATEGORIES);
+    }
+
+    private List<CategoryDto> loadAllCategories() {
         List<CategoryDto> categories = categoryRepository.findAll()
                 .stream()
                 .map(categoryMapper::toCategoryDto)
@@ -51,18 +102,13 @@ public class CatalogService {
      * @throws CategoryNotFoundException если категория не найдена
      */
     public CatalogResponseDto getProductsByCategory(Long categoryId) {
-        log.info("Запрос на получение товаров для категории ID: {}", categoryId);
+        log.debug("Запрос на получение товаров для категории ID: {}", categoryId);
 
-        Category category = categoryRepository.findById(categoryId)
-                .orElseThrow(() -> {
-                    log.error("Категория с ID {} не найдена", categoryId);
-                    return new CategoryNotFoundException(categoryId);
-                });
-
-        log.debug("Найдена категория: {}", category.getName());
+        CategoryProducts categoryProducts = findCategoryProducts(categoryId);
+        Category category = categoryProducts.category();
 
         CategoryDto categoryDto = categoryMapper.toCategoryDto(category);
-        List<CatalogProductDto> catalogProductsDto = productRepository.findByCategoryId(categoryId)
+        List<CatalogProductDto> catalogProductsDto = categoryProducts.products()
                 .stream()
                 .map(catalogProductMapper::toCatalogDto)
                 .toList();
@@ -73,7 +119,114 @@ public class CatalogService {
         catalogResponseDto.setCategory(categoryDto);
         catalogResponseDto.setProducts(catalogProductsDto);
 
-        log.info("Успешно сформирован ответ для категории {}", category.getName());
+        log.debug("Успешно сформирован ответ для категории {}", category.getName());
         return catalogResponseDto;
     }
+
+    /**
+     * Получить категорию и ее товары без преобразования в DTO.
+     * Используется для потоковой записи ответа (CatalogResponseWriter) уже после завершения транзакции.
+     * Одновременные промахи кэша по одной категории (например, после его сброса) объединяются в одну загрузку:
+     * остальные ждут ее результат не дольше app.catalog.load-timeout и не занимают соединение с БД
+     * @param categoryId идентификатор категории
+     * @return категория и список ее товаров
+     * @throws CategoryNotFoundException если категория не найдена
+     * @throws com.fedor.fooddelivery.exceptions.CatalogLoadTimeoutException если загрузка не дождалась
+     */
+    public CategoryProducts getCategoryProducts(Long categoryId) {
+        log.debug("Запрос на получение товаров для категории ID: {}", categoryId);
+        return findCategoryProducts(categoryId);
+    }
+
+    /**
+     * Получить несколько категорий с товарами одним обращением.
+     * Категории, которых нет в кэше, загружаются вместе: одним запросом категорий и одним запросом
+     * их товаров, независимо от числа категорий. Отсутствующие категории в ответ не попадают
+     * и запоминаются в кэше отсутствующих идентификаторов
+     * @param categoryIds идентификаторы категорий, повторы игнорируются
+     * @return категории с товарами в порядке categoryIds
+     */
+    public List<CategoryProducts> getCategoriesProducts(Collection<Long> categoryIds) {
+        Set<Long> ids = new LinkedHashSet<>(categoryIds);
+        ids.remove(null);
+        log.debug("Запрос на получение товаров для категорий ID: {}", ids);
+
+        ids.removeIf(missingCategories::isMissing);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        long stamp = missingCategories.stamp();
+        Map<Long, CategoryProducts> found = categoryProductsCache.getAll(ids,
+                missing -> loadTransaction.execute(status -> loadCategoriesProducts(missing)));
+        for (Long categoryId : ids) {
+            if (!found.containsKey(categoryId)) {
+                missingCategories.recordMissing(categoryId, stamp);
+            }
+        }
+        return new ArrayList<>(found.values());
+    }
+
+    /**
+     * Категория с товарами из кэша. Отсутствующие категории запоминаются в кэше отсутствующих
+     * идентификаторов, и повторные запросы с ними не доходят до БД
+     */
+    private CategoryProducts findCategoryProducts(Long categoryId) {
+        if (missingCategories.isMissing(categoryId)) {
+            throw new CategoryNotFoundException(categoryId);
+        }
+        long stamp = missingCategories.stamp();
+        try {
+            return categoryProductsCache.get(categoryId);
+        } catch (CategoryNotFoundException e) {
+            missingCategories.recordMissing(categoryId, stamp);
+            throw e;
+        }
+    }
+
+    private CategoryProducts loadCategoryProducts(Long categoryId) {
+        Category category = findCategory(categoryId);
+        List<Product> products = productRepository.findByCategoryId(categoryId);
+
+        log.debug("Найдено {} товаров в категории {}", products.size(), category.getName());
+        return new CategoryProducts(category, products);
+    }
+
+    private Map<Long, CategoryProducts> loadCategoriesProducts(Collection<Long> categoryIds) {
+        List<Category> categories = categoryRepository.findAllById(categoryIds);
+        if (categories.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, List<Product>> productsByCategory = new HashMap<>();
+        List<Long> foundIds = categories.stream().map(Category::getId).toList();
+        for (Product product : productRepository.findByCategoryIdIn(foundIds)) {
+            productsByCategory.computeIfAbsent(product.getCategory().getId(), id -> new ArrayList<>()).add(product);
+        }
+
+        Map<Long, CategoryProducts> result = new HashMap<>();
+        for (Category category : categories) {
+            result.put(category.getId(),
+                    new CategoryProducts(category, productsByCategory.getOrDefault(category.getId(), List.of())));
+        }
+        log.debug("Загружено {} категорий из {} запрошенных", result.size(), categoryIds.size());
+        return result;
+    }
+
+    private Category findCategory(Long categoryId) {
+        Category category = categoryRepository.findById(categoryId)
+                .orElseThrow(() -> {
+                    log.debug("Категория с ID {} не найдена", categoryId);
+                    return new CategoryNotFoundException(categoryId);
+                });
+
+        log.debug("Найдена категория: {}", category.getName());
+        return category;
+    }
+
+    /**
+     * Категория вместе с товарами
+     * @param category категория
+     * @param products товары категории
+     */
+    public record CategoryProducts(Category category, List<Product> products) {
+    }
 }
@@ -0,0 +1,63 @@
+package com.fedor.fooddelivery.service;
+
+import com.fedor.fooddelivery.event.CatalogChangedEvent;
+import com.fedor.fooddelivery.repository.CatalogJdbcRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Сервис версий каталога.
+ * Версия каталога - наибольшая change_version в БД (миграция V6): она одна и та же на всех узлах,
+ * не сбрасывается при перезапуске и совпадает с версией GET /catalog/changes.
+ * О завершенном изменении каталога сообщается событием CatalogChangedEvent
+ */
+@Service
+@RequiredArgsConstructor
+public class CatalogVersionService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogVersionService.class);
+
+    private final CatalogJdbcRepository catalogJdbcRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    // -1 - версия еще не прочитана из БД
+    private final AtomicLong version = new AtomicLong(-1);
+    // Отдельно от version: версия, прочитанная запросом раньше публикации, не должна отменять публикацию
+    private final AtomicLong publishedVersion = new AtomicLong(-1);
+
+    /**
+     * Получить текущую версию каталога.
+     * Первый вызов читает версию из БД, дальше она обновляется при публикации
+     * @return номер версии
+     */
+    public long getCurrentVersion() {
+        long current = version.get();
+        if (current < 0) {
+            current = version.accumulateAndGet(catalogJdbcRepository.findCatalogVersion(), Math::max);
+        }
+        return current;
+    }
+
+    /**
+     * Прочитать версию каталога из основной БД и опубликовать ее, если она новее опубликованной.
+     * Вызывается после фиксации изменения каталога вне транзакции. Узел, изменивший каталог,
+     * публикует версию сам и затем получает свое же уведомление NOTIFY: версия к этому времени
+     * уже опубликована, и кэши, снимок и журнал изменений второй раз не обновляются
+     * @return текущая версия каталога
+     */
+    public long publishNewVersion() {
+        long newVersion = catalogJdbcRepository.findCatalogVersion();
+        version.accumulateAndGet(newVersion, Math::max);
+        if (publishedVersion.getAndAccumulate(newVersion, Math::max) >= newVersion) {
+            log.debug("Версия каталога {} уже опубликована", newVersion);
+            return newVersion;
+        }
+        log.info("Опубликована версия каталога {}", newVersion);
+        eventPublisher.publishEvent(new CatalogChangedEvent(newVersion));
+        return newVersion;
+    }
+}
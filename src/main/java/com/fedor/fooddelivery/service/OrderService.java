@@ -4,11 +4,15 @@ import com.fedor.fooddelivery.dto.OrderRequestDto;
 import com.fedor.fooddelivery.dto.OrderResponseDto;
 import com.fedor.fooddelivery.exceptions.InvalidOrderException;
 import com.fedor.fooddelivery.exceptions.ProductNotFoundException;
+import com.fedor.fooddelivery.metrics.OrderValidationMetrics;
+import com.fedor.fooddelivery.metrics.ValidationFailureReason;
 import com.fedor.fooddelivery.repository.ProductRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -19,11 +23,13 @@ import java.util.regex.Pattern;
  */
 @Service
 @RequiredArgsConstructor
+@Timed("app.service")
 public class OrderService {
 
     private static final Logger log = LoggerFactory.getLogger(OrderService.class);
 
     private final ProductRepository productRepository;
+    private final OrderValidationMetrics validationMetrics;
 
     /**
      * Указано регулярное выражение для проверки телефонного номера РФ.
@@ -41,8 +47,10 @@ public class OrderService {
      * @throws InvalidOrderException если данные заказа невалидны
      * @throws ProductNotFoundException если товар не найден
      */
+    // Транзакция на запись: товары проверяются по основной БД, а не по отстающей реплике
+    @Transactional
     public OrderResponseDto createOrder(OrderRequestDto orderRequest) {
-        log.info("Начало создания заказа для клиента: {}",
+        log.debug("Начало создания заказа для клиента: {}",
                 orderRequest.getCustomerName() != null ? orderRequest.getCustomerName() : "не указано");
 
         validateCustomerName(orderRequest);
@@ -63,6 +71,7 @@ public class OrderService {
 
         if (isBlank(orderRequest.getCustomerName())) {
             log.error("Ошибка валидации: не указано имя клиента");
+            validationMetrics.recordFailure(ValidationFailureReason.CUSTOMER_NAME_MISSING);
             throw new InvalidOrderException("Не указано имя клиента");
         }
 
@@ -88,6 +97,7 @@ public class OrderService {
 
         if (isBlank(orderRequest.getPhoneNumber())) {
             log.error("Ошибка валидации: не указан номер телефона");
+            validationMetrics.recordFailure(ValidationFailureReason.PHONE_MISSING);
             throw new InvalidOrderException("Не указан номер телефона");
         }
 
@@ -96,6 +106,7 @@ public class OrderService {
 
         if (!matcher.matches()) {
             log.error("Ошибка валидации: неверный формат номера телефона: {}", phoneNumber);
+            validationMetrics.recordFailure(ValidationFailureReason.PHONE_INVALID);
             throw new InvalidOrderException("Указан неверный номер телефона");
         }
 
@@ -113,12 +124,14 @@ public class OrderService {
 
         if (orderRequest.getItems() == null || orderRequest.getItems().isEmpty()) {
             log.error("Ошибка валидации: заказ не содержит товаров");
+            validationMetrics.recordFailure(ValidationFailureReason.EMPTY_ORDER);
             throw new InvalidOrderException("Заказ не может быть пустым");
         }
 
         for (OrderRequestDto.OrderItemDto item : orderRequest.getItems()) {
             if (!productRepository.existsById(item.getProductId())) {
                 log.error("Товар с ID {} не найден в базе данных", item.getProductId());
+                validationMetrics.recordFailure(ValidationFailureReason.PRODUCT_NOT_FOUND);
                 throw new ProductNotFoundException(item.getProductId());
             }
         }
@@ -0,0 +1,59 @@
+package com.fedor.fooddelivery.service;
+
+import com.fedor.fooddelivery.cache.CatalogCacheManager;
+import com.fedor.fooddelivery.cache.CatalogLoadTransaction;
+import com.fedor.fooddelivery.cache.NegativeLookupCache;
+import com.fedor.fooddelivery.dto.ProductDto;
+import com.fedor.fooddelivery.exceptions.ProductNotFoundException;
+import com.fedor.fooddelivery.repository.ProductRepository;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Сервис для получения информации о товарах.
+ * Транзакция открывается только на время запроса товара, поэтому недавно не найденные товары
+ * отвечают 404, не беря соединение из пула. С отставшей реплики товар не читается (CatalogLoadTransaction),
+ * иначе только что добавленный товар запомнился бы как отсутствующий
+ */
+@Service
+@Timed("app.service")
+public class ProductService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductService.class);
+
+    private final ProductRepository productRepository;
+    private final CatalogLoadTransaction loadTransaction;
+    private final NegativeLookupCache missingProducts;
+
+    public ProductService(ProductRepository productRepository,
+                          CatalogLoadTransaction loadTransaction,
+                          CatalogCacheManager catalogCacheManager) {
+        this.productRepository = productRepository;
+        this.loadTransaction = loadTransaction;
+        this.missingProducts = catalogCacheManager.createNegative("products");
+    }
+
+    /**
+     * Получить полную информацию о товаре.
+     * Недавно не найденные товары отвечают 404 без обращения к БД
+     * @param productId идентификатор товара
+     * @return DTO товара с описанием и идентификатором категории
+     * @throws ProductNotFoundException если товар не найден
+     */
+    public ProductDto getProduct(Long productId) {
+        log.debug("Запрос товара ID: {}", productId);
+
+        if (missingProducts.isMissing(productId)) {
+            throw new ProductNotFoundException(productId);
+        }
+        long stamp = missingProducts.stamp();
+        return loadTransaction.execute(status -> productRepository.findProductDtoById(productId))
+                .orElseThrow(() -> {
+                    log.debug("Товар с ID {} не найден", productId);
+                    missingProducts.recordMissing(productId, stamp);
+                    return new ProductNotFoundException(productId);
+                });
+    }
+}
@@ -0,0 +1,326 @@
+package com.fedor.fooddelivery.snapshot;
+
+import com.fedor.fooddelivery.entity.Category;
+import com.fedor.fooddelivery.entity.CurrencyCode;
+import com.fedor.fooddelivery.entity.Product;
+import com.fedor.fooddelivery.exceptions.CategoryNotFoundException;
+import com.fedor.fooddelivery.service.CatalogService.CategoryProducts;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Снимок каталога в компактном двоичном файле, открытый только для чтения через отображение в память.
+ * Формат: заголовок (магическое число, версия формата, версия каталога, время создания),
+ * затем записи категорий, за каждой из которых идут записи ее товаров, и завершающая запись
+ * с количеством категорий и товаров. Строки хранятся как длина и байты UTF-8, длина -1 означает null.
+ * Хранятся только поля, которые отдают GET /catalog и GET /catalog/{id}.
+ * При открытии файл просматривается один раз и строится индекс категорий; товары категории
+ * читаются из отображенного файла при каждом запросе и в куче не хранятся
+ */
+public final class CatalogSnapshot {
+
+    private static final int MAGIC = 0x46444353; // "FDCS"
+    private static final int FORMAT_VERSION = 1;
+
+    private static final byte CATEGORY_RECORD = 'C';
+    private static final byte PRODUCT_RECORD = 'P';
+    private static final byte END_RECORD = 'E';
+
+    private final long version;
+    private final Instant createdAt;
+    private final ByteBuffer buffer;
+    private final List<Category> categories;
+    private final Map<Long, ProductBlock> productBlocks;
+
+    private CatalogSnapshot(long version, Instant createdAt, ByteBuffer buffer,
+                            List<Category> categories, Map<Long, ProductBlock> productBlocks) {
+        this.version = version;
+        this.createdAt = createdAt;
+        this.buffer = buffer;
+        this.categories = categories;
+        this.productBlocks = productBlocks;
+    }
+
+    /**
+     * Открыть файл снимка
+     * @param file путь к файлу
+     * @return снимок, читающий данные из отображенного в память файла
+     * @throws IOException если файл не читается или поврежден
+     */
+    public static CatalogSnapshot open(Path file) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // Отображение остается действительным после закрытия канала
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        try {
+            return index(buffer);
+        } catch (RuntimeException e) {
+            throw new IOException("Снимок каталога " + file + " поврежден", e);
+        }
+    }
+
+    /**
+     * Начать запись снимка
+     * @param output поток файла снимка, закрывается вместе с Writer
+     * @param version версия каталога
+     * @param createdAt время создания снимка
+     * @return объект записи категорий и товаров
+     */
+    public static Writer writer(OutputStream output, long version, Instant createdAt) throws IOException {
+        return new Writer(output, version, createdAt);
+    }
+
+    /**
+     * Версия каталога, с которой сделан снимок
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Время создания снимка
+     */
+    public Instant createdAt() {
+        return createdAt;
+    }
+
+    /**
+     * Все категории в порядке идентификаторов
+     */
+    public List<Category> categories() {
+        return categories;
+    }
+
+    /**
+     * Есть ли категория в снимке
+     * @param categoryId идентификатор категории
+     */
+    public boolean containsCategory(Long categoryId) {
+        return productBlocks.containsKey(categoryId);
+    }
+
+    /**
+     * Категория вместе с товарами
+     * @param categoryId идентификатор категории
+     * @return категория и ее товары
+     * @throws CategoryNotFoundException если категории нет в снимке
+     */
+    public CategoryProducts categoryProducts(Long categoryId) {
+        ProductBlock block = productBlocks.get(categoryId);
+        if (block == null) {
+            throw new CategoryNotFoundException(categoryId);
+        }
+        Reader reader = new Reader(buffer, block.offset);
+        List<Product> products = new ArrayList<>(block.count);
+        for (int i = 0; i < block.count; i++) {
+            reader.expect(PRODUCT_RECORD);
+            products.add(reader.product(block.category));
+        }
+        return new CategoryProducts(block.category, products);
+    }
+
+    private static CatalogSnapshot index(ByteBuffer buffer) {
+        Reader reader = new Reader(buffer, 0);
+        if (reader.getInt() != MAGIC) {
+            throw new IllegalStateException("Файл не является снимком каталога");
+        }
+        int format = reader.getInt();
+        if (format != FORMAT_VERSION) {
+            throw new IllegalStateException("Неподдерживаемая версия формата снимка: " + format);
+        }
+        long version = reader.getLong();
+        Instant createdAt = Instant.ofEpochMilli(reader.getLong());
+
+        List<Category> categories = new ArrayList<>();
+        Map<Long, ProductBlock> productBlocks = new HashMap<>();
+        ProductBlock current = null;
+        long products = 0;
+        while (true) {
+            byte record = reader.get();
+            if (record == CATEGORY_RECORD) {
+                Category category = reader.category();
+                current = new ProductBlock(category, reader.position);
+                categories.add(category);
+                productBlocks.put(category.getId(), current);
+            } else if (record == PRODUCT_RECORD && current != null) {
+                reader.product(current.category);
+                current.count++;
+                products++;
+            } else if (record == END_RECORD) {
+                if (reader.getInt() != categories.size() || reader.getLong() != products) {
+                    throw new IllegalStateException("Количество записей не совпадает с итоговой записью");
+                }
+                return new CatalogSnapshot(version, createdAt, buffer,
+                        Collections.unmodifiableList(categories), productBlocks);
+            } else {
+                throw new IllegalStateException("Неизвестная запись '" + (char) record + "'");
+            }
+        }
+    }
+
+    /**
+     * Положение товаров категории в файле
+     */
+    private static final class ProductBlock {
+        private final Category category;
+        private final int offset;
+        private int count;
+
+        private ProductBlock(Category category, int offset) {
+            this.category = category;
+            this.offset = offset;
+        }
+    }
+
+    /**
+     * Чтение записей с заданной позиции. Использует только абсолютные операции буфера,
+     * поэтому несколько потоков читают один снимок без синхронизации
+     */
+    private static final class Reader {
+        private final ByteBuffer buffer;
+        private int position;
+
+        private Reader(ByteBuffer buffer, int position) {
+            this.buffer = buffer;
+            this.position = position;
+        }
+
+        byte get() {
+            return buffer.get(position++);
+        }
+
+        int getInt() {
+            int value = buffer.getInt(position);
+            position += Integer.BYTES;
+            return value;
+        }
+
+        long getLong() {
+            long value = buffer.getLong(position);
+            position += Long.BYTES;
+            return value;
+        }
+
+        String getString() {
+            int length = getInt();
+            if (length < 0) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(position, bytes);
+            position += length;
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        void expect(byte record) {
+            if (get() != record) {
+                throw new IllegalStateException("Ожидалась запись '" + (char) record + "'");
+            }
+        }
+
+        Category category() {
+            Category category = new Category();
+            category.setId(getLong());
+            category.setName(getString());
+            category.setUrl(getString());
+            return category;
+        }
+
+        Product product(Category category) {
+            Product product = new Product();
+            product.setId(getLong());
+            product.setName(getString());
+            product.setPrice(getLong());
+            product.setUrl(getString());
+            String currency = getString();
+            product.setCurrency(currency != null ? CurrencyCode.valueOf(currency) : null);
+            product.setCategory(category);
+            return product;
+        }
+    }
+
+    /**
+     * Последовательная запись снимка: категория, затем ее товары, затем следующая категория
+     */
+    public static final class Writer implements Closeable {
+        private final DataOutputStream output;
+        private int categories;
+        private long products;
+
+        private Writer(OutputStream output, long version, Instant createdAt) throws IOException {
+            this.output = new DataOutputStream(new BufferedOutputStream(output));
+            this.output.writeInt(MAGIC);
+            this.output.writeInt(FORMAT_VERSION);
+            this.output.writeLong(version);
+            this.output.writeLong(createdAt.toEpochMilli());
+        }
+
+        /**
+         * Записать категорию; следующие товары относятся к ней
+         */
+        public void category(Category category) throws IOException {
+            output.writeByte(CATEGORY_RECORD);
+            output.writeLong(category.getId());
+            writeString(category.getName());
+            writeString(category.getUrl());
+            categories++;
+        }
+
+        /**
+         * Записать товар последней записанной категории
+         */
+        public void product(Product product) throws IOException {
+            if (categories == 0) {
+                throw new IllegalStateException("Товар записывается до категории");
+            }
+            output.writeByte(PRODUCT_RECORD);
+            output.writeLong(product.getId());
+            writeString(product.getName());
+            output.writeLong(product.getPrice());
+            writeString(product.getUrl());
+            writeString(product.getCurrency() != null ? product.getCurrency().name() : null);
+            products++;
+        }
+
+        /**
+         * Записать итоговую запись. Снимок без нее считается поврежденным
+         */
+        public void finish() throws IOException {
+            output.writeByte(END_RECORD);
+            output.writeInt(categories);
+            output.writeLong(products);
+            output.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            output.close();
+        }
+
+        private void writeString(String value) throws IOException {
+            if (value == null) {
+                output.writeInt(-1);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            output.writeInt(bytes.length);
+            output.write(bytes);
+        }
+    }
+}
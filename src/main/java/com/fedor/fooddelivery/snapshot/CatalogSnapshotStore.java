@@ -0,0 +1,135 @@
+package com.fedor.fooddelivery.snapshot;
+
+import com.fedor.fooddelivery.exceptions.CatalogLoadTimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Последний удачный снимок каталога на диске и переключение на него при недоступности БД.
+ * Снимок открывается при создании бина, до первого обращения к БД. Если чтение каталога
+ * из БД завершилось ошибкой доступа к данным, ответ строится по снимку, а следующие
+ * app.catalog.snapshot.db-retry-interval запросы идут сразу в снимок, не дожидаясь таймаута соединения
+ */
+@Component
+public class CatalogSnapshotStore {
+
+    /**
+     * Заголовок ответа, построенного по снимку, а не по БД
+     */
+    public static final String DEGRADED_HEADER = "X-Catalog-Degraded";
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshotStore.class);
+
+    private final boolean enabled;
+    private final Path file;
+    private final long retryIntervalNanos;
+
+    private volatile CatalogSnapshot snapshot;
+    private volatile long databaseDownUntil;
+    private volatile boolean databaseDown;
+
+    public CatalogSnapshotStore(@Value("${app.catalog.snapshot.enabled:true}") boolean enabled,
+                                @Value("${app.catalog.snapshot.file:${java.io.tmpdir}/food-delivery-catalog.snapshot}") Path file,
+                                @Value("${app.catalog.snapshot.db-retry-interval:10s}") Duration retryInterval) {
+        this.enabled = enabled;
+        this.file = file;
+        this.retryIntervalNanos = retryInterval.toNanos();
+        if (enabled && Files.exists(file)) {
+            try {
+                snapshot = CatalogSnapshot.open(file);
+                log.info("Открыт снимок каталога {}: версия {} от {}", file, snapshot.version(), snapshot.createdAt());
+            } catch (IOException e) {
+                log.warn("Не удалось открыть снимок каталога: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Прочитать данные из БД, а при ее недоступности - из снимка
+     * @param fromDatabase чтение из БД
+     * @param fromSnapshot чтение того же из снимка
+     * @return данные и снимок, по которому они построены (null, если данные из БД)
+     */
+    public <T> Result<T> read(Supplier<T> fromDatabase, Function<CatalogSnapshot, T> fromSnapshot) {
+        CatalogSnapshot current = snapshot;
+        if (current != null && databaseDown && System.nanoTime() - databaseDownUntil < 0) {
+            return new Result<>(fromSnapshot.apply(current), current);
+        }
+        try {
+            T value = fromDatabase.get();
+            if (databaseDown) {
+                databaseDown = false;
+                log.info("БД каталога снова доступна");
+            }
+            return new Result<>(value, null);
+        } catch (DataAccessException | TransactionException | CatalogLoadTimeoutException e) {
+            if (current == null) {
+                throw e;
+            }
+            databaseDownUntil = System.nanoTime() + retryIntervalNanos;
+            if (!databaseDown) {
+                databaseDown = true;
+                log.warn("БД каталога недоступна, ответы строятся по снимку версии {} от {}: {}",
+                        current.version(), current.createdAt(), e.getMessage());
+            }
+            return new Result<>(fromSnapshot.apply(current), current);
+        }
+    }
+
+    /**
+     * Заменить текущий снимок только что записанным
+     * @param written новый снимок
+     */
+    public void replace(CatalogSnapshot written) {
+        snapshot = written;
+    }
+
+    /**
+     * Текущий снимок или null, если его еще нет
+     */
+    public CatalogSnapshot current() {
+        return snapshot;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Путь к файлу снимка
+     */
+    public Path file() {
+        return file;
+    }
+
+    /**
+     * Данные каталога вместе с источником
+     * @param value данные
+     * @param snapshot снимок, по которому построены данные, или null для данных из БД
+     */
+    public record Result<T>(T value, CatalogSnapshot snapshot) {
+
+        public boolean degraded() {
+            return snapshot != null;
+        }
+
+        /**
+         * Значение заголовка DEGRADED_HEADER: версия каталога в БД на момент снимка,
+         * клиент может передать ее в GET /catalog/changes?since={version}
+         */
+        public String degradedHeader() {
+            return "version=" + snapshot.version() + ", created=" + snapshot.createdAt();
+        }
+    }
+}
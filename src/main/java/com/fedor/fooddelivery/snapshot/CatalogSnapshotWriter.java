@@ -0,0 +1,145 @@
+package com.fedor.fooddelivery.snapshot;
+
+import com.fedor.fooddelivery.entity.Category;
+import com.fedor.fooddelivery.event.CatalogChangedEvent;
+import com.fedor.fooddelivery.repository.CatalogJdbcRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Запись снимка каталога на диск после старта приложения и после каждой новой версии каталога.
+ * Снимок пишется в фоновом потоке во временный файл и атомарно заменяет прежний, поэтому
+ * на диске всегда лежит целый последний удачный снимок. Если версии меняются быстрее, чем
+ * пишется снимок, ожидающие записи объединяются в одну.
+ * Версия снимка - версия каталога в БД (та же, что у GET /catalog/changes), прочитанная в одной
+ * транзакции с содержимым, поэтому она точно соответствует записанным строкам
+ */
+@Component
+public class CatalogSnapshotWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshotWriter.class);
+
+    private final CatalogJdbcRepository catalogJdbcRepository;
+    private final CatalogSnapshotStore catalogSnapshotStore;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int fetchSize;
+    private final ThreadPoolExecutor executor;
+
+    public CatalogSnapshotWriter(CatalogJdbcRepository catalogJdbcRepository,
+                                 CatalogSnapshotStore catalogSnapshotStore,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.catalog.export.fetch-size:1000}") int fetchSize) {
+        this.catalogJdbcRepository = catalogJdbcRepository;
+        this.catalogSnapshotStore = catalogSnapshotStore;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // Версия и строки каталога читаются из одного снимка БД
+        this.readOnlyTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.fetchSize = fetchSize;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("catalog-snapshot-");
+        threadFactory.setDaemon(true);
+        // Одна запись выполняется и не больше одной ждет: она все равно прочитает последнюю версию
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1), threadFactory, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        requestWrite();
+    }
+
+    /**
+     * Записать снимок новой версии каталога
+     * @param event событие новой версии каталога
+     */
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        requestWrite();
+    }
+
+    private void requestWrite() {
+        if (!catalogSnapshotStore.isEnabled()) {
+            return;
+        }
+        executor.execute(this::writeSafely);
+    }
+
+    private void writeSafely() {
+        try {
+            CatalogSnapshot snapshot = write(catalogSnapshotStore.file());
+            catalogSnapshotStore.replace(snapshot);
+            log.info("Записан снимок каталога версии {}: категорий {}", snapshot.version(), snapshot.categories().size());
+        } catch (IOException | RuntimeException e) {
+            // Прежний снимок остается на диске и в памяти
+            log.warn("Не удалось записать снимок каталога: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Прочитать каталог и его версию из БД и записать снимок
+     * @param file путь к файлу снимка
+     * @return открытый записанный снимок
+     */
+    public CatalogSnapshot write(Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream output = Files.newOutputStream(temporary)) {
+                readOnlyTransaction.executeWithoutResult(status -> {
+                    long version = catalogJdbcRepository.findCatalogVersion();
+                    try (CatalogSnapshot.Writer writer = CatalogSnapshot.writer(output, version, Instant.now())) {
+                        Category[] current = new Category[1];
+                        catalogJdbcRepository.forEachCatalogRow(fetchSize, (category, product) -> {
+                            try {
+                                if (category != current[0]) {
+                                    writer.category(category);
+                                    current[0] = category;
+                                }
+                                if (product != null) {
+                                    writer.product(product);
+                                }
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        });
+                        writer.finish();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        return CatalogSnapshot.open(file);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,182 @@
+package com.fedor.fooddelivery.tracing;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Экспорт завершенных span без внешнего коллектора: последние app.tracing.buffer-size span
+ * хранятся в кольцевом буфере (их отдает /actuator/traces), а при заданном app.tracing.file
+ * каждый span дописывается в файл строкой JSON.
+ * Запись в буфер не блокирует: слот выбирается атомарным счетчиком, старые span затираются.
+ * В файл span пишет фоновый поток, как в RingBufferAsyncAppender: поток запроса только кладет span
+ * в очередь, а при ее переполнении span в файл не попадает
+ */
+@Component
+public class RingBufferSpanHandler extends SpanHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(RingBufferSpanHandler.class);
+
+    private static final int FILE_QUEUE_CAPACITY = 8192;
+    private static final long FILE_POLL_MILLIS = 200;
+    private static final long MAX_FLUSH_MILLIS = 1000;
+
+    private final AtomicReferenceArray<SpanRecord> buffer;
+    private final AtomicLong written = new AtomicLong();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final BufferedWriter fileWriter;
+    private final BlockingQueue<SpanRecord> fileQueue = new ArrayBlockingQueue<>(FILE_QUEUE_CAPACITY);
+    private final LongAdder droppedSpans = new LongAdder();
+    private final Thread fileWorker;
+    private volatile boolean running = true;
+
+    public RingBufferSpanHandler(@Value("${app.tracing.buffer-size:10000}") int bufferSize,
+                                 @Value("${app.tracing.file:}") String file) throws IOException {
+        this.buffer = new AtomicReferenceArray<>(bufferSize);
+        this.fileWriter = file.isBlank() ? null : Files.newBufferedWriter(Path.of(file), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        if (fileWriter == null) {
+            this.fileWorker = null;
+        } else {
+            this.fileWorker = new Thread(this::drainLoop, "span-file-writer");
+            fileWorker.setDaemon(true);
+            fileWorker.start();
+        }
+    }
+
+    @Override
+    public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+        if (cause != Cause.FINISHED) {
+            return true;
+        }
+        Map<String, String> tags = new LinkedHashMap<>();
+        span.forEachTag((target, key, value) -> target.put(key, value), tags);
+        SpanRecord record = new SpanRecord(span.traceId(), span.id(), span.parentId(), span.name(),
+                span.startTimestamp(), span.finishTimestamp() - span.startTimestamp(), tags,
+                span.error() != null ? span.error().toString() : tags.get("error"));
+        long index = written.getAndIncrement();
+        buffer.set((int) (index % buffer.length()), record);
+        if (fileWriter != null && !fileQueue.offer(record)) {
+            droppedSpans.increment();
+        }
+        return true;
+    }
+
+    /**
+     * Span, оставшиеся в буфере, от старых к новым
+     */
+    public List<SpanRecord> spans() {
+        long end = written.get();
+        long start = Math.max(0, end - buffer.length());
+        List<SpanRecord> spans = new ArrayList<>((int) (end - start));
+        for (long i = start; i < end; i++) {
+            SpanRecord record = buffer.get((int) (i % buffer.length()));
+            if (record != null) {
+                spans.add(record);
+            }
+        }
+        return spans;
+    }
+
+    /**
+     * Span одной трассы из буфера
+     * @param traceId идентификатор трассы
+     */
+    public List<SpanRecord> trace(String traceId) {
+        return spans().stream().filter(span -> span.traceId().equals(traceId)).toList();
+    }
+
+    /**
+     * Количество span, не записанных в файл из-за переполнения очереди
+     */
+    public long getDroppedCount() {
+        return droppedSpans.sum();
+    }
+
+    /**
+     * Запись span из очереди в файл. Выполняется только фоновым потоком, файл сбрасывается на диск,
+     * когда очередь опустела
+     */
+    private void drainLoop() {
+        try {
+            while (true) {
+                SpanRecord record = fileQueue.poll(FILE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (record != null) {
+                    writeToFile(record);
+                    if (fileQueue.isEmpty()) {
+                        flushFile();
+                    }
+                } else if (!running) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeToFile(SpanRecord record) {
+        try {
+            fileWriter.write(objectMapper.writeValueAsString(record));
+            fileWriter.newLine();
+        } catch (JsonProcessingException e) {
+            log.warn("Не удалось сериализовать span {}: {}", record.name(), e.getMessage());
+        } catch (IOException e) {
+            log.warn("Не удалось записать span в файл: {}", e.getMessage());
+        }
+    }
+
+    private void flushFile() {
+        try {
+            fileWriter.flush();
+        } catch (IOException e) {
+            log.warn("Не удалось записать span в файл: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Дописать span из очереди (не дольше MAX_FLUSH_MILLIS) и закрыть файл
+     */
+    @PreDestroy
+    public void close() throws IOException {
+        if (fileWorker == null) {
+            return;
+        }
+        running = false;
+        try {
+            fileWorker.join(MAX_FLUSH_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (fileWorker.isAlive()) {
+            log.warn("Не все span записаны в файл за {} мс, осталось {}", MAX_FLUSH_MILLIS, fileQueue.size());
+            fileWorker.interrupt();
+            return;
+        }
+        fileWriter.close();
+    }
+}
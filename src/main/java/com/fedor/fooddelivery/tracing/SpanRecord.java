@@ -0,0 +1,18 @@
+package com.fedor.fooddelivery.tracing;
+
+import java.util.Map;
+
+/**
+ * Завершенный span в кольцевом буфере трассировки
+ * @param traceId идентификатор трассы
+ * @param spanId идентификатор span
+ * @param parentId идентификатор родительского span или null для корневого
+ * @param name имя span (например, CatalogService.getCategoryProducts)
+ * @param startMicros время начала, микросекунды от эпохи
+ * @param durationMicros длительность в микросекундах
+ * @param tags теги span
+ * @param error сообщение ошибки или null
+ */
+public record SpanRecord(String traceId, String spanId, String parentId, String name,
+                         long startMicros, long durationMicros, Map<String, String> tags, String error) {
+}
@@ -0,0 +1,53 @@
+package com.fedor.fooddelivery.tracing;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Последние трассы из кольцевого буфера.
+ * GET /actuator/traces - трассы от новых к старым, GET /actuator/traces/{traceId} - span одной трассы
+ */
+@Component
+@Endpoint(id = "traces")
+public class TracesEndpoint {
+
+    private final RingBufferSpanHandler spanHandler;
+
+    public TracesEndpoint(RingBufferSpanHandler spanHandler) {
+        this.spanHandler = spanHandler;
+    }
+
+    @ReadOperation
+    public List<Trace> traces() {
+        Map<String, List<SpanRecord>> byTrace = new LinkedHashMap<>();
+        for (SpanRecord span : spanHandler.spans()) {
+            byTrace.computeIfAbsent(span.traceId(), id -> new ArrayList<>()).add(span);
+        }
+        List<Trace> traces = new ArrayList<>(byTrace.size());
+        byTrace.forEach((traceId, spans) -> traces.add(new Trace(traceId, spans)));
+        Collections.reverse(traces);
+        return traces;
+    }
+
+    @ReadOperation
+    public Trace trace(@Selector String traceId) {
+        List<SpanRecord> spans = spanHandler.trace(traceId);
+        return spans.isEmpty() ? null : new Trace(traceId, spans);
+    }
+
+    /**
+     * Трасса и ее span в порядке завершения: корневой HTTP span последний
+     * @param traceId идентификатор трассы
+     * @param spans span трассы
+     */
+    public record Trace(String traceId, List<SpanRecord> spans) {
+    }
+}
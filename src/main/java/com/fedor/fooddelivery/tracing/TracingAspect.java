@@ -0,0 +1,76 @@
+package com.fedor.fooddelivery.tracing;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Дочерние span для вызовов сервисов, репозиториев и потоковой записи ответа каталога.
+ * HTTP span создает Spring MVC; здесь внутри него появляются, например,
+ * CatalogService.getCategoryProducts, CategoryRepository.findById и CatalogResponseWriter.write.
+ * Span создаются только внутри трассы, попавшей в выборку (management.tracing.sampling.probability);
+ * для остальных вызовов аспект лишь читает текущий контекст. Вызовы из фоновых потоков
+ * (обновление кэша, запись снимка) трассы не имеют и не трассируются
+ */
+@Aspect
+@Component
+public class TracingAspect {
+
+    private static final String APP_PACKAGE = "com.fedor.fooddelivery";
+
+    private final Tracer tracer;
+    private final Map<Class<?>, String> componentNames = new ConcurrentHashMap<>();
+
+    public TracingAspect(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Around("within(com.fedor.fooddelivery.service..*)"
+            + " || within(com.fedor.fooddelivery.repository..*)"
+            + " || this(org.springframework.data.repository.Repository)"
+            + " || within(com.fedor.fooddelivery.mapper.CatalogResponseWriter)")
+    public Object trace(ProceedingJoinPoint joinPoint) throws Throwable {
+        Span current = tracer.currentSpan();
+        if (current == null || !Boolean.TRUE.equals(current.context().sampled())) {
+            return joinPoint.proceed();
+        }
+        Span span = tracer.nextSpan()
+                .name(componentName(joinPoint.getThis().getClass()) + "." + joinPoint.getSignature().getName())
+                .start();
+        try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    /**
+     * Имя компонента: класс приложения, а для прокси репозиториев Spring Data - интерфейс репозитория
+     */
+    private String componentName(Class<?> type) {
+        return componentNames.computeIfAbsent(type, TracingAspect::resolveComponentName);
+    }
+
+    private static String resolveComponentName(Class<?> type) {
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            if (current.getName().startsWith(APP_PACKAGE) && !current.getName().contains("$$")) {
+                return current.getSimpleName();
+            }
+            for (Class<?> contract : current.getInterfaces()) {
+                if (contract.getName().startsWith(APP_PACKAGE)) {
+                    return contract.getSimpleName();
+                }
+            }
+        }
+        return type.getSimpleName();
+    }
+}
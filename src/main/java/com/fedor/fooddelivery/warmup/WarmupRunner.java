@@ -0,0 +1,247 @@
+package com.fedor.fooddelivery.warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fedor.fooddelivery.dto.CategoryDto;
+import com.fedor.fooddelivery.dto.OrderRequestDto;
+import com.fedor.fooddelivery.logging.RequestLoggingFilter;
+import com.fedor.fooddelivery.service.CatalogService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Прогрев узла перед приемом трафика.
+ * Spring Boot переводит readiness в ACCEPTING_TRAFFIC только после всех ApplicationRunner,
+ * поэтому пока идет прогрев, /actuator/health/readiness отвечает 503 и балансировщик
+ * не направляет на узел запросы, хотя Tomcat уже слушает порт.
+ * Шаги: загрузка каталога в кэши пакетами по PRELOAD_BATCH_SIZE категорий, затем запросы
+ * GET /catalog, GET /catalog/{id} и POST /cart через HTTP на свой порт, чтобы JIT скомпилировал
+ * путь запроса целиком (фильтры, Jackson, валидация заказа), а пул соединений открыл соединения с БД.
+ * Время каждого шага пишется в лог и в таймер app.warmup.step{step}. Запросы прогрева идут
+ * с заголовком X-Warmup: их строки INFO в лог не попадают, а в метрики запросов и сервисов
+ * (http.server.requests, app.service, app.http.jdbc.*) и в трассы они не пишутся.
+ * Ответы на них считаются только в счетчике app.warmup.requests{uri,status}.
+ * Ошибки прогрева не мешают старту: узел все равно становится готовым
+ */
+@Component
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmupRunner.class);
+
+    /**
+     * Телефон из допустимого формата, чтобы заказ прогрева проходил всю валидацию
+     */
+    private static final String WARMUP_PHONE = "+7 900 000 00 00";
+
+    /**
+     * Категорий в одном запросе к БД при загрузке каталога, как у GET /catalog?include=products
+     */
+    private static final int PRELOAD_BATCH_SIZE = 100;
+
+    private final CatalogService catalogService;
+    private final ObjectMapper objectMapper;
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int iterations;
+    private final Duration maxDuration;
+
+    public WarmupRunner(CatalogService catalogService,
+                        ObjectMapper objectMapper,
+                        Environment environment,
+                        MeterRegistry meterRegistry,
+                        @Value("${app.warmup.enabled:true}") boolean enabled,
+                        @Value("${app.warmup.iterations:200}") int iterations,
+                        @Value("${app.warmup.max-duration:30s}") Duration maxDuration) {
+        this.catalogService = catalogService;
+        this.objectMapper = objectMapper;
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.iterations = iterations;
+        this.maxDuration = maxDuration;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        long deadline = start + maxDuration.toNanos();
+        Map<String, Long> durations = new LinkedHashMap<>();
+        try {
+            PreloadedCatalog catalog = step("catalog-preload", durations, () -> preloadCatalog(deadline));
+            Integer port = environment.getProperty("local.server.port", Integer.class);
+            if (port == null) {
+                log.info("Веб-сервер не запущен, HTTP шаги прогрева пропущены");
+            } else {
+                Warmup warmup = new Warmup(port, deadline);
+                step("http-catalog", durations, () -> warmup.catalog(catalog.categories()));
+                step("http-orders", durations, () -> warmup.orders(catalog.productIds()));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Прогрев прерван, узел принимает трафик без него: {}", e.getMessage());
+        }
+        log.info("Прогрев завершен за {} мс, шаги: {}",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), durations);
+    }
+
+    private <T> T step(String name, Map<String, Long> durations, StepAction<T> action) {
+        long start = System.nanoTime();
+        try {
+            return action.run();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            durations.put(name, TimeUnit.NANOSECONDS.toMillis(elapsed));
+            Timer.builder("app.warmup.step")
+                    .description("Время шага прогрева при старте узла")
+                    .tag("step", name)
+                    .register(meterRegistry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private PreloadedCatalog preloadCatalog(long deadline) {
+        List<CategoryDto> categories = catalogService.getAllCategories();
+        List<Long> productIds = new ArrayList<>();
+        for (int from = 0; from < categories.size() && !expired(deadline); from += PRELOAD_BATCH_SIZE) {
+            List<Long> batch = categories.subList(from, Math.min(from + PRELOAD_BATCH_SIZE, categories.size()))
+                    .stream()
+                    .map(CategoryDto::getId)
+                    .toList();
+            catalogService.getCategoriesProducts(batch).forEach(categoryProducts -> categoryProducts.products()
+                    .forEach(product -> productIds.add(product.getId())));
+        }
+        return new PreloadedCatalog(categories, productIds);
+    }
+
+    private boolean expired(long deadline) {
+        if (System.nanoTime() - deadline < 0) {
+            return false;
+        }
+        log.warn("Прогрев остановлен по app.warmup.max-duration={}", maxDuration);
+        return true;
+    }
+
+    /**
+     * Категории и идентификаторы товаров для запросов прогрева
+     */
+    private record PreloadedCatalog(List<CategoryDto> categories, List<Long> productIds) {
+    }
+
+    @FunctionalInterface
+    private interface StepAction<T> {
+        T run();
+    }
+
+    /**
+     * HTTP запросы прогрева к своему порту, последовательно, пока не исчерпан бюджет времени
+     */
+    private final class Warmup {
+
+        private final HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(2))
+                .build();
+        private final String baseUrl;
+        private final long deadline;
+        private int failures;
+
+        private Warmup(int port, long deadline) {
+            this.baseUrl = "http://localhost:" + port;
+            this.deadline = deadline;
+        }
+
+        Void catalog(List<CategoryDto> categories) {
+            for (int i = 0; i < iterations && !expired(); i++) {
+                send("/catalog", request("/catalog").GET().build());
+                if (!categories.isEmpty()) {
+                    Long id = categories.get(i % categories.size()).getId();
+                    send("/catalog/{id}", request("/catalog/" + id).GET().build());
+                }
+            }
+            return null;
+        }
+
+        Void orders(List<Long> productIds) {
+            if (productIds.isEmpty()) {
+                log.info("В каталоге нет товаров, прогрев заказов пропущен");
+                return null;
+            }
+            for (int i = 0; i < iterations && !expired(); i++) {
+                String body = orderJson(productIds.get(i % productIds.size()));
+                send("/cart", request("/cart")
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build());
+            }
+            return null;
+        }
+
+        private HttpRequest.Builder request(String path) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(Duration.ofSeconds(10))
+                    .header(RequestLoggingFilter.WARMUP_HEADER, "true");
+        }
+
+        private void send(String uri, HttpRequest request) {
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                Counter.builder("app.warmup.requests")
+                        .description("Запросы прогрева при старте узла")
+                        .tags("uri", uri, "status", Integer.toString(response.statusCode()))
+                        .register(meterRegistry)
+                        .increment();
+                if (response.statusCode() >= 400 && failures++ == 0) {
+                    log.warn("Запрос прогрева {} {} вернул {}", request.method(), request.uri().getPath(),
+                            response.statusCode());
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Запрос прогрева " + request.uri().getPath() + " не выполнен", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Прогрев прерван", e);
+            }
+        }
+
+        private String orderJson(Long productId) {
+            OrderRequestDto.OrderItemDto item = new OrderRequestDto.OrderItemDto();
+            item.setProductId(productId);
+            item.setQuantity(1);
+            OrderRequestDto order = new OrderRequestDto();
+            order.setCustomerName("warmup");
+            order.setPhoneNumber(WARMUP_PHONE);
+            order.setItems(List.of(item));
+            try {
+                return objectMapper.writeValueAsString(order);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private boolean expired() {
+            return WarmupRunner.this.expired(deadline);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+-- Исходная схема каталога, совпадающая с той, что раньше создавал Hibernate (ddl-auto).
+-- Существующие БД отмечаются этой версией (spring.flyway.baseline-version=1) и получают только следующие миграции
+CREATE TABLE IF NOT EXISTS categories
+(
+    id   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    url  VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS products
+(
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        VARCHAR(255)     NOT NULL,
+    description VARCHAR(255)     NOT NULL,
+    price       DOUBLE PRECISION NOT NULL,
+    category_id BIGINT REFERENCES categories (id),
+    url         VARCHAR(255)     NOT NULL,
+    currency    VARCHAR(255)     NOT NULL
+);
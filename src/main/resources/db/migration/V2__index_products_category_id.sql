@@ -0,0 +1,4 @@
+-- Товары категории (findByCategoryId) и выгрузка каталога (JOIN по category_id с сортировкой по id)
+-- читаются по этому индексу вместо полного просмотра products.
+-- CONCURRENTLY не блокирует запись в products на время построения; Flyway выполняет такую миграцию вне транзакции
+CREATE INDEX CONCURRENTLY IF NOT EXISTS products_category_id_idx ON products (category_id, id);
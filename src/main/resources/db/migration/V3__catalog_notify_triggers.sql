@@ -0,0 +1,20 @@
+-- Уведомления об изменении каталога для CatalogChangeListener (LISTEN catalog_changed).
+-- Триггеры уровня оператора: массовый импорт дает одно уведомление на оператор, а не на строку,
+-- одинаковые уведомления внутри одной транзакции PostgreSQL доставляет один раз
+CREATE OR REPLACE FUNCTION notify_catalog_changed() RETURNS trigger AS
+$$
+BEGIN
+    PERFORM pg_notify('catalog_changed', TG_TABLE_NAME);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS categories_notify_changed ON categories;
+CREATE TRIGGER categories_notify_changed
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON categories
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_catalog_changed();
+
+DROP TRIGGER IF EXISTS products_notify_changed ON products;
+CREATE TRIGGER products_notify_changed
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON products
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_catalog_changed();
@@ -1,45 +1,51 @@
-INSERT INTO categories(id,name,url) VALUES (1,'Шаверма','https://drive.google.com/uc?export=download&id=1hkm9SX0iSMmVqS8VCh--bXKAma5dkH3r');
-INSERT INTO categories(id,name,url) VALUES (2,'Салаты','https://drive.google.com/uc?export=download&id=1wAy_IRdsjBOAKyM_ydhRobQdBjPY8btA');
-INSERT INTO categories(id,name,url) VALUES (3,'Гарниры','https://drive.google.com/uc?export=download&id=1ejJRCLE5Ifkq6lLQqQL_XpyEd4-PJ7WI');
-INSERT INTO categories(id,name,url) VALUES (4,'Десерты','https://drive.google.com/uc?export=download&id=1XRSzhDYjgULbCVkYauxWIc28XQHuDLy6');
-INSERT INTO categories(id,name,url) VALUES (5,'Напитки','https://drive.google.com/uc?export=download&id=1q15v3KZzcDKmG5gSdrGvkWzMcwsQZBKJ');
-INSERT INTO categories(id,name,url) VALUES (6,'Соусы','https://drive.google.com/uc?export=download&id=1V99ccYS0iutfV6mVA9je0c9ZEC88WYn4');
+-- Начальное наполнение каталога (раньше загружалось из data.sql при каждом старте).
+-- Уже существующие строки не перезаписываются
+INSERT INTO categories(id,name,url) VALUES (1,'Шаверма','https://drive.google.com/uc?export=download&id=1hkm9SX0iSMmVqS8VCh--bXKAma5dkH3r') ON CONFLICT (id) DO NOTHING;
+INSERT INTO categories(id,name,url) VALUES (2,'Салаты','https://drive.google.com/uc?export=download&id=1wAy_IRdsjBOAKyM_ydhRobQdBjPY8btA') ON CONFLICT (id) DO NOTHING;
+INSERT INTO categories(id,name,url) VALUES (3,'Гарниры','https://drive.google.com/uc?export=download&id=1ejJRCLE5Ifkq6lLQqQL_XpyEd4-PJ7WI') ON CONFLICT (id) DO NOTHING;
+INSERT INTO categories(id,name,url) VALUES (4,'Десерты','https://drive.google.com/uc?export=download&id=1XRSzhDYjgULbCVkYauxWIc28XQHuDLy6') ON CONFLICT (id) DO NOTHING;
+INSERT INTO categories(id,name,url) VALUES (5,'Напитки','https://drive.google.com/uc?export=download&id=1q15v3KZzcDKmG5gSdrGvkWzMcwsQZBKJ') ON CONFLICT (id) DO NOTHING;
+INSERT INTO categories(id,name,url) VALUES (6,'Соусы','https://drive.google.com/uc?export=download&id=1V99ccYS0iutfV6mVA9je0c9ZEC88WYn4') ON CONFLICT (id) DO NOTHING;
 
-INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (12,'Шаверма Классическая','Лаваш, куриное мясо, помидоры, огурец, капуста, кетчуп, сметана, лук красный, 400 гр',220,1,'https://drive.google.com/uc?export=download&id=1SbsFA1gu8M3llRX3eblaO2AJ2O_kxG73','RUB');
-INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (13,'Шаверма Сырная','Лаваш, куриное мясо, помидоры, огурец, капуста, фирменный соус, сыр, сыр Чеддер, лук красный, 420 гр',280,1,'https://drive.google.com/uc?export=download&id=1pi7aB--vMQE4VVQjs5Gm75Ce2e5qsOQy','RUB');
-INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (14,'Шаверма Вегетариантская','Лаваш, шампиньоны, овощи-гриль, помидоры, огурец, капуста, фирменный соус, лук красный, 400 гр',250,1,'https://drive.google.com/uc?export=download&id=1RfOiXjTiKWZJFyMqCIVuQy0yXrelFkcc','RUB');
-INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (15,'Шаверма Говядина','Лаваш, мраморная говядина, помидоры, огурец, капуста, фирменный соус, сыр, лук красный, 400 гр',300,1,'https://drive.google.com/uc?export=download&id=1ma6tfFwTN4uuvyo65v2m91PhEmQdfKgK','RUB');
-INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (11,'Шаверма Фирменная','Лаваш, куриное мясо, помидоры, огурец, капуста, фирменный соус, сыр, лук красный, 400 гр',250,1,'https://drive.google.com/uc?export=download&id=1Mncc25XFMTfoXcSAwXkqkuy9eY5pTC8H','RUB');
-INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (16,'Шаверма Мексиканская','Лаваш, куриное мясо, кукурцза, помидоры, огурец, капуста, острый соус, сыр, лук красный, 400 гр',250,1,'https://drive.google.com/uc?export=download&id=1kB8PcwPN0mbg504tHLWRqYSPZ4I_2c4e','RUB');
-INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (17,'Шаверма на тарелке','Лаваш, куриное мясо, помидоры, огурец, капуста, кетчуп, сметана, лук красный, 400 гр',250,1,'https://drive.google.com/uc?export=download&id=1hem7tAlWLvXpsFCvImhvYlJerHMF6wGf','RUB');
-INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (18,'Шаверма в пите','Пита, куриное мясо, помидоры, огурец, капуста, кетчуп, сметана, лук красный, 440 гр',250,1,'https://drive.google.com/uc?export=download&id=1IqOnTbrwxnMNUpHwQmZL5ly1WexX6s9J','RUB');
-INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (21,'Греческий салат','Салат айсберг, болгарский перец, маслины, томаты, сыр фета, огурец, лук красный, ростки подсолнечника, итальянская заправка',150,2,'https://drive.google.com/uc?export=download&id=1hBI_MDxHNiNn-NVDy-wJnPrR9XgkkUHQ','RUB');
-INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (22,'Витаминный салат','Лук красный, морковь, перец чили, лук порей, капуста белокачанная, уксус, сахар, зелень петрушки',100,2,'https://drive.google.com/uc?export=download&id=15i44Jgvbmzoyw3PhShujmtObAcqxDsn7','RUB');
-INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (23,'Цезарь с курицей','Филе грудки цыплёнка, салат ромейн, салат айсберг, яйцо, сыр пармезан, томаты черри, гренки, соус цезарь',150,2,'https://drive.google.com/uc?export=download&id=1rlyCPLFsa9osqTGgpy0q_64B2u5OpNrc','RUB');
-INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (24,'Цезарь с креветками','Салат ромейн, салат айсберг, тигровые креветки, яйцо, сыр пармезан, томаты черри, гренки, соус цезарь',250,2,'https://drive.google.com/uc?export=download&id=1jyP7xpTqD0RSHKQAwwo_fPrOHWLQyFB7','RUB');
-INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (25,'Салат с лососем','Лосось холодного копчения, микс салат, томаты, яйцо, картофель, лук конфи, заправка нисуаз',250,2,'https://drive.google.com/uc?export=download&id=11VtYfov6_ISp7tgPmhMzWAHrXq4WDELO','RUB');
-INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (26,'Чука (морские водоросли)','Водоросли чука, ореховый соус, кунжут',150,2,'https://drive.google.com/uc?export=download&id=14EXXfrvTdvsqkFHwV4QB5rk9xuPyEGpx','RUB');
-INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (31,'Рис отварной','Рис отварной',50,3,'https://drive.google.com/uc?export=download&id=1Az9jhCMGF6NFXz8a-EEw-oZyJ9tHeVgY','RUB');
-INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (32,'Картофельные дольки','Картофель, масло, травы сушеные',50,3,'https://drive.google.com/uc?export=download&id=1rPjLwNFOGh4oIzTqGD6tyzaeDHgRj1Jq','RUB');
-INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (33,'Картофель фри','Картофель, масло',50,3,'https://drive.google.com/uc?export=download&id=1q8l9VKxqJeNnxF2oqv3nEOrrtORRmqEo','RUB');
-INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (34,'Картофельное пюре','Картофель, молоко, масло сливочное',50,3,'https://drive.google.com/uc?export=download&id=1DTI-s5OG1eszeOgY5IeFJWff3LlKD88o','RUB');
-INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (35,'Лапша','Лапша пшеничная',50,3,'https://drive.google.com/uc?export=download&id=10pLlFu1hx85t3KXyPXPMyTtevoGRLTG0','RUB');
-INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (41,'Дессерт Манго','Манго пюре, сливки, сыр творожный, желатин, печенье, клубника, мята',200,4,'https://drive.google.com/uc?export=download&id=1n8UByBlCyFEMRfAcg_7TcBrtBU8cOXag','RUB');
-INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (42,'Сырники с малиновым джемом','Творог, мука, сметана, сахарная пудра, растительное масло, сметана, малиновый джем',200,4,'https://drive.google.com/uc?export=download&id=1JYfa6DZpDG8q6rY1CdBKIhiQpu3pJyGR','RUB');
-INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (43,'Сладкие роллы','Бананы и персики со сливочным сыром в шоколадно-блинном тесте, вишней и сливочной карамелью, крошка безе, мята. Примечание по доставке: вишня доставляется в отдельном боксе',200,4,'https://drive.google.com/uc?export=download&id=1vsWYqeqrUCwCYnbOEWITeDjMid9wbYwX','RUB');
-INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (44,'Чизкейк','Печенье, масло сливочное, сироп, сыр сливочный, сахарная пудра, сливки, шоколад, мята, соус черничный',200,4,'https://drive.google.com/uc?export=download&id=1-svb9cVmkSNBuSeUtJ7pWekrso8Er2gf','RUB');
-INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (45,'Эклер с черникой','Эклер с заварным кремом и черничным вареньем',100,4,'https://drive.google.com/uc?export=download&id=1TBdgz-hHy51UPV2oiv_0aXMeLPGJQD54','RUB');
-INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (51,'Вода без газа 0,5 л','Вода без газа 0,5 л',100,5,'https://drive.google.com/uc?export=download&id=1rO9eqDdXPrJwrO_xDQwoqq9p2VXhb03N','RUB');
-INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (52,'Вода газированная 0,5 л','Вода газированная 0,5 л',100,5,'https://drive.google.com/uc?export=download&id=1UMdXAQBdpMErpegYpRQvKWIu0x61Zdxt','RUB');
-INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (53,'Pepsi 0,5 л','Pepsi 0,5 л',100,5,'https://drive.google.com/uc?export=download&id=1ol8PTsGNT0Wwc7Pnn2Gu3UgIKc-fkCu-','RUB');
-INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (54,'Сок яблочный 1л','Сок яблочный 1л',200,5,'https://drive.google.com/uc?export=download&id=1lExQNYtFtAddzzdb9oSw2gwCj7gojdlx','RUB');
-INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (55,'Сок апельсиновый 1л','Сок апельсиновый 1л',200,5,'https://drive.google.com/uc?export=download&id=1o4zjgt0NfapJxHgXHIRbJ69Eypn5jTQw','RUB');
-INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (56,'Сок томатный 1л','Сок томатный 1л',200,5,'https://drive.google.com/uc?export=download&id=h1SztpijL3C3ztod5wqr_NmqQxLXzYirw8','RUB');
-INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (57,'Лимонад домашний 0,5 л','Лимонад домашний 0,5 л',100,5,'https://drive.google.com/uc?export=download&id=1vTLaTRzCUPK3ibWWiVrpQBZNjwb3qwKw','RUB');
-INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (58,'Смузи ягодный 0,5 л','Смузи ягодный 0,5 л',150,5,'https://drive.google.com/uc?export=download&id=1dZHw9KJt18Y5N5GMnS0XFkZ2qZybkIsa','RUB');
-INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (59,'Смузи манго 0,5 л','Смузи манго 0,5 л',150,5,'https://drive.google.com/uc?export=download&id=1Ja0scRumEIGlYSeQWBnYPUEIkqIlaZgG','RUB');
-INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (61,'Соус сырный','Соус сырный 30 гр.',50,6,'https://drive.google.com/uc?export=download&id=1aDP_4X4G4KG2zfTKXzqqXJgBfuGnu5Ux','RUB');
-INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (62,'Соус Цезарь','Соус Цезарь 30 гр.',50,6,'https://drive.google.com/uc?export=download&id=1K4C7Fj6mzPtDW2UkXzfCuSXH57bTozYZ','RUB');
-INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (63,'Соус Терияки','Соус Терияки 30 гр.',50,6,'https://drive.google.com/uc?export=download&id=1FvS3d3QxiLhodmyj1tHFniI3u1xSW-SS','RUB');
-INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (64,'Острый соус','Острый соус 30 гр.',50,6,'https://drive.google.com/uc?export=download&id=1LMmxmIQIwSnIhQaVXEHSgrR70Zevl0qV','RUB');
-INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (65,'Итальянский соус','Итальянский соус 30 гр.',50,6,'https://drive.google.com/uc?export=download&id=1YEW9JizChU1xBW-659D8LQBy8J5rtM2M','RUB');
+INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (12,'Шаверма Классическая','Лаваш, куриное мясо, помидоры, огурец, капуста, кетчуп, сметана, лук красный, 400 гр',220,1,'https://drive.google.com/uc?export=download&id=1SbsFA1gu8M3llRX3eblaO2AJ2O_kxG73','RUB') ON CONFLICT (id) DO NOTHING;
+INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (13,'Шаверма Сырная','Лаваш, куриное мясо, помидоры, огурец, капуста, фирменный соус, сыр, сыр Чеддер, лук красный, 420 гр',280,1,'https://drive.google.com/uc?export=download&id=1pi7aB--vMQE4VVQjs5Gm75Ce2e5qsOQy','RUB') ON CONFLICT (id) DO NOTHING;
+INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (14,'Шаверма Вегетариантская','Лаваш, шампиньоны, овощи-гриль, помидоры, огурец, капуста, фирменный соус, лук красный, 400 гр',250,1,'https://drive.google.com/uc?export=download&id=1RfOiXjTiKWZJFyMqCIVuQy0yXrelFkcc','RUB') ON CONFLICT (id) DO NOTHING;
+INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (15,'Шаверма Говядина','Лаваш, мраморная говядина, помидоры, огурец, капуста, фирменный соус, сыр, лук красный, 400 гр',300,1,'https://drive.google.com/uc?export=download&id=1ma6tfFwTN4uuvyo65v2m91PhEmQdfKgK','RUB') ON CONFLICT (id) DO NOTHING;
+INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (11,'Шаверма Фирменная','Лаваш, куриное мясо, помидоры, огурец, капуста, фирменный соус, сыр, лук красный, 400 гр',250,1,'https://drive.google.com/uc?export=download&id=1Mncc25XFMTfoXcSAwXkqkuy9eY5pTC8H','RUB') ON CONFLICT (id) DO NOTHING;
+INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (16,'Шаверма Мексиканская','Лаваш, куриное мясо, кукурцза, помидоры, огурец, капуста, острый соус, сыр, лук красный, 400 гр',250,1,'https://drive.google.com/uc?export=download&id=1kB8PcwPN0mbg504tHLWRqYSPZ4I_2c4e','RUB') ON CONFLICT (id) DO NOTHING;
+INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (17,'Шаверма на тарелке','Лаваш, куриное мясо, помидоры, огурец, капуста, кетчуп, сметана, лук красный, 400 гр',250,1,'https://drive.google.com/uc?export=download&id=1hem7tAlWLvXpsFCvImhvYlJerHMF6wGf','RUB') ON CONFLICT (id) DO NOTHING;
+INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (18,'Шаверма в пите','Пита, куриное мясо, помидоры, огурец, капуста, кетчуп, сметана, лук красный, 440 гр',250,1,'https://drive.google.com/uc?export=download&id=1IqOnTbrwxnMNUpHwQmZL5ly1WexX6s9J','RUB') ON CONFLICT (id) DO NOTHING;
+INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (21,'Греческий салат','Салат айсберг, болгарский перец, маслины, томаты, сыр фета, огурец, лук красный, ростки подсолнечника, итальянская заправка',150,2,'https://drive.google.com/uc?export=download&id=1hBI_MDxHNiNn-NVDy-wJnPrR9XgkkUHQ','RUB') ON CONFLICT (id) DO NOTHING;
+INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (22,'Витаминный салат','Лук красный, морковь, перец чили, лук порей, капуста белокачанная, уксус, сахар, зелень петрушки',100,2,'https://drive.google.com/uc?export=download&id=15i44Jgvbmzoyw3PhShujmtObAcqxDsn7','RUB') ON CONFLICT (id) DO NOTHING;
+INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (23,'Цезарь с курицей','Филе грудки цыплёнка, салат ромейн, салат айсберг, яйцо, сыр пармезан, томаты черри, гренки, соус цезарь',150,2,'https://drive.google.com/uc?export=download&id=1rlyCPLFsa9osqTGgpy0q_64B2u5OpNrc','RUB') ON CONFLICT (id) DO NOTHING;
+INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (24,'Цезарь с креветками','Салат ромейн, салат айсберг, тигровые креветки, яйцо, сыр пармезан, томаты черри, гренки, соус цезарь',250,2,'https://drive.google.com/uc?export=download&id=1jyP7xpTqD0RSHKQAwwo_fPrOHWLQyFB7','RUB') ON CONFLICT (id) DO NOTHING;
+INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (25,'Салат с лососем','Лосось холодного копчения, микс салат, томаты, яйцо, картофель, лук конфи, заправка нисуаз',250,2,'https://drive.google.com/uc?export=download&id=11VtYfov6_ISp7tgPmhMzWAHrXq4WDELO','RUB') ON CONFLICT (id) DO NOTHING;
+INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (26,'Чука (морские водоросли)','Водоросли чука, ореховый соус, кунжут',150,2,'https://drive.google.com/uc?export=download&id=14EXXfrvTdvsqkFHwV4QB5rk9xuPyEGpx','RUB') ON CONFLICT (id) DO NOTHING;
+INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (31,'Рис отварной','Рис отварной',50,3,'https://drive.google.com/uc?export=download&id=1Az9jhCMGF6NFXz8a-EEw-oZyJ9tHeVgY','RUB') ON CONFLICT (id) DO NOTHING;
+INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (32,'Картофельные дольки','Картофель, масло, травы сушеные',50,3,'https://drive.google.com/uc?export=download&id=1rPjLwNFOGh4oIzTqGD6tyzaeDHgRj1Jq','RUB') ON CONFLICT (id) DO NOTHING;
+INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (33,'Картофель фри','Картофель, масло',50,3,'https://drive.google.com/uc?export=download&id=1q8l9VKxqJeNnxF2oqv3nEOrrtORRmqEo','RUB') ON CONFLICT (id) DO NOTHING;
+INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (34,'Картофельное пюре','Картофель, молоко, масло сливочное',50,3,'https://drive.google.com/uc?export=download&id=1DTI-s5OG1eszeOgY5IeFJWff3LlKD88o','RUB') ON CONFLICT (id) DO NOTHING;
+INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (35,'Лапша','Лапша пшеничная',50,3,'https://drive.google.com/uc?export=download&id=10pLlFu1hx85t3KXyPXPMyTtevoGRLTG0','RUB') ON CONFLICT (id) DO NOTHING;
+INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (41,'Дессерт Манго','Манго пюре, сливки, сыр творожный, желатин, печенье, клубника, мята',200,4,'https://drive.google.com/uc?export=download&id=1n8UByBlCyFEMRfAcg_7TcBrtBU8cOXag','RUB') ON CONFLICT (id) DO NOTHING;
+INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (42,'Сырники с малиновым джемом','Творог, мука, сметана, сахарная пудра, растительное масло, сметана, малиновый джем',200,4,'https://drive.google.com/uc?export=download&id=1JYfa6DZpDG8q6rY1CdBKIhiQpu3pJyGR','RUB') ON CONFLICT (id) DO NOTHING;
+INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (43,'Сладкие роллы','Бананы и персики со сливочным сыром в шоколадно-блинном тесте, вишней и сливочной карамелью, крошка безе, мята. Примечание по доставке: вишня доставляется в отдельном боксе',200,4,'https://drive.google.com/uc?export=download&id=1vsWYqeqrUCwCYnbOEWITeDjMid9wbYwX','RUB') ON CONFLICT (id) DO NOTHING;
+INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (44,'Чизкейк','Печенье, масло сливочное, сироп, сыр сливочный, сахарная пудра, сливки, шоколад, мята, соус черничный',200,4,'https://drive.google.com/uc?export=download&id=1-svb9cVmkSNBuSeUtJ7pWekrso8Er2gf','RUB') ON CONFLICT (id) DO NOTHING;
+INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (45,'Эклер с черникой','Эклер с заварным кремом и черничным вареньем',100,4,'https://drive.google.com/uc?export=download&id=1TBdgz-hHy51UPV2oiv_0aXMeLPGJQD54','RUB') ON CONFLICT (id) DO NOTHING;
+INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (51,'Вода без газа 0,5 л','Вода без газа 0,5 л',100,5,'https://drive.google.com/uc?export=download&id=1rO9eqDdXPrJwrO_xDQwoqq9p2VXhb03N','RUB') ON CONFLICT (id) DO NOTHING;
+INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (52,'Вода газированная 0,5 л','Вода газированная 0,5 л',100,5,'https://drive.google.com/uc?export=download&id=1UMdXAQBdpMErpegYpRQvKWIu0x61Zdxt','RUB') ON CONFLICT (id) DO NOTHING;
+INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (53,'Pepsi 0,5 л','Pepsi 0,5 л',100,5,'https://drive.google.com/uc?export=download&id=1ol8PTsGNT0Wwc7Pnn2Gu3UgIKc-fkCu-','RUB') ON CONFLICT (id) DO NOTHING;
+INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (54,'Сок яблочный 1л','Сок яблочный 1л',200,5,'https://drive.google.com/uc?export=download&id=1lExQNYtFtAddzzdb9oSw2gwCj7gojdlx','RUB') ON CONFLICT (id) DO NOTHING;
+INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (55,'Сок апельсиновый 1л','Сок апельсиновый 1л',200,5,'https://drive.google.com/uc?export=download&id=1o4zjgt0NfapJxHgXHIRbJ69Eypn5jTQw','RUB') ON CONFLICT (id) DO NOTHING;
+INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (56,'Сок томатный 1л','Сок томатный 1л',200,5,'https://drive.google.com/uc?export=download&id=h1SztpijL3C3ztod5wqr_NmqQxLXzYirw8','RUB') ON CONFLICT (id) DO NOTHING;
+INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (57,'Лимонад домашний 0,5 л','Лимонад домашний 0,5 л',100,5,'https://drive.google.com/uc?export=download&id=1vTLaTRzCUPK3ibWWiVrpQBZNjwb3qwKw','RUB') ON CONFLICT (id) DO NOTHING;
+INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (58,'Смузи ягодный 0,5 л','Смузи ягодный 0,5 л',150,5,'https://drive.google.com/uc?export=download&id=1dZHw9KJt18Y5N5GMnS0XFkZ2qZybkIsa','RUB') ON CONFLICT (id) DO NOTHING;
+INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (59,'Смузи манго 0,5 л','Смузи манго 0,5 л',150,5,'https://drive.google.com/uc?export=download&id=1Ja0scRumEIGlYSeQWBnYPUEIkqIlaZgG','RUB') ON CONFLICT (id) DO NOTHING;
+INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (61,'Соус сырный','Соус сырный 30 гр.',50,6,'https://drive.google.com/uc?export=download&id=1aDP_4X4G4KG2zfTKXzqqXJgBfuGnu5Ux','RUB') ON CONFLICT (id) DO NOTHING;
+INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (62,'Соус Цезарь','Соус Цезарь 30 гр.',50,6,'https://drive.google.com/uc?export=download&id=1K4C7Fj6mzPtDW2UkXzfCuSXH57bTozYZ','RUB') ON CONFLICT (id) DO NOTHING;
+INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (63,'Соус Терияки','Соус Терияки 30 гр.',50,6,'https://drive.google.com/uc?export=download&id=1FvS3d3QxiLhodmyj1tHFniI3u1xSW-SS','RUB') ON CONFLICT (id) DO NOTHING;
+INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (64,'Острый соус','Острый соус 30 гр.',50,6,'https://drive.google.com/uc?export=download&id=1LMmxmIQIwSnIhQaVXEHSgrR70Zevl0qV','RUB') ON CONFLICT (id) DO NOTHING;
+INSERT INTO products(id,name,description,price,category_id,url,currency) VALUES (65,'Итальянский соус','Итальянский соус 30 гр.',50,6,'https://drive.google.com/uc?export=download&id=1YEW9JizChU1xBW-659D8LQBy8J5rtM2M','RUB') ON CONFLICT (id) DO NOTHING;
+
+-- Идентификаторы заданы явно, поэтому счетчики identity сдвигаются за последний занятый id
+SELECT setval(pg_get_serial_sequence('categories', 'id'), (SELECT MAX(id) FROM categories));
+SELECT setval(pg_get_serial_sequence('products', 'id'), (SELECT MAX(id) FROM products));
@@ -0,0 +1,34 @@
+-- Цена в минимальных единицах валюты (копейках) вместо double precision, шаг expand.
+-- Тип столбца price не меняется на месте: ALTER COLUMN TYPE перезаписывает таблицу под ACCESS EXCLUSIVE
+-- и ломает узлы предыдущей версии при последовательном развертывании. Вместо этого рядом добавляется
+-- price_minor (без значения по умолчанию - без перезаписи таблицы), триггер держит оба столбца согласованными,
+-- пока узлы старой версии пишут price, а новой - price_minor, существующие строки заполняет пакетами
+-- миграция 5.1 (PriceMinorBackfillMigration). Удаление price - отдельной миграцией следующего релиза (README)
+ALTER TABLE products ADD COLUMN IF NOT EXISTS price_minor BIGINT;
+
+CREATE OR REPLACE FUNCTION align_product_price() RETURNS trigger AS
+$$
+BEGIN
+    IF TG_OP = 'UPDATE' AND NEW.price_minor IS NOT DISTINCT FROM OLD.price_minor
+            AND NEW.price IS DISTINCT FROM OLD.price THEN
+        -- Цену изменил узел предыдущей версии
+        NEW.price_minor := ROUND(NEW.price * 100);
+    ELSIF NEW.price_minor IS NOT NULL THEN
+        NEW.price := NEW.price_minor / 100.0;
+    ELSE
+        NEW.price_minor := ROUND(NEW.price * 100);
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Триггеры одного события выполняются по алфавиту: этот должен сработать раньше products_change_version (V6)
+DROP TRIGGER IF EXISTS products_align_price ON products;
+CREATE TRIGGER products_align_price
+    BEFORE INSERT OR UPDATE ON products
+    FOR EACH ROW EXECUTE FUNCTION align_product_price();
+
+-- Трехбуквенный код ISO 4217 (CurrencyCode). Сокращение VARCHAR тоже перезаписало бы таблицу, поэтому
+-- ограничение проверяется только для новых строк; существующие проверит миграция следующего релиза
+ALTER TABLE products DROP CONSTRAINT IF EXISTS products_currency_code;
+ALTER TABLE products ADD CONSTRAINT products_currency_code CHECK (char_length(currency) = 3) NOT VALID;
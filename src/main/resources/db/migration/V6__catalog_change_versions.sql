@@ -0,0 +1,106 @@
+-- Версии изменений каталога для GET /catalog/changes?since={version}.
+-- Каждая вставленная или измененная строка categories и products получает следующее значение
+-- последовательности catalog_version в столбце change_version, удаленная - строку в catalog_deletions
+-- (TRUNCATE - строку с id = NULL). Версия каталога - наибольшая из записанных, она общая для всех узлов.
+-- Запись, которая ничего не меняет (повторный импорт того же файла), версию не получает.
+-- Триггеры уровня оператора берут транзакционную advisory-блокировку до того, как оператор заблокирует
+-- хотя бы одну строку: изменения каталога фиксируются в порядке версий, и читатель, увидевший версию N,
+-- уже видит все изменения с меньшими версиями. Блокировка одна на весь каталог и держится до конца
+-- транзакции, поэтому пишущие транзакции каталога выполняются по очереди: пока идет импорт, остальные
+-- изменения каталога ждут его фиксации. Транзакция, которая блокирует строки каталога раньше первой записи
+-- (SELECT ... FOR UPDATE), должна сначала сама вызвать pg_advisory_xact_lock(hashtext('catalog_version')).
+-- TRUNCATE блокирует таблицу раньше триггера, поэтому одновременно с другой записью каталога
+-- PostgreSQL может прервать одну из транзакций как взаимоблокировку
+CREATE SEQUENCE IF NOT EXISTS catalog_version;
+
+ALTER TABLE categories ADD COLUMN IF NOT EXISTS change_version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE products ADD COLUMN IF NOT EXISTS change_version BIGINT NOT NULL DEFAULT 0;
+
+-- Существующие строки считаются добавленными при миграции
+UPDATE categories SET change_version = nextval('catalog_version') WHERE change_version = 0;
+UPDATE products SET change_version = nextval('catalog_version') WHERE change_version = 0;
+
+-- Старые строки удаляет CatalogChangeJournal: остаются journal-size последних удалений,
+-- у самой старой из них id = NULL, как после TRUNCATE - более ранние удаления неизвестны
+CREATE TABLE IF NOT EXISTS catalog_deletions
+(
+    change_version BIGINT PRIMARY KEY,
+    table_name     VARCHAR(32) NOT NULL,
+    id             BIGINT
+);
+
+CREATE OR REPLACE FUNCTION lock_catalog_version() RETURNS trigger AS
+$$
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('catalog_version'));
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION set_catalog_change_version() RETURNS trigger AS
+$$
+BEGIN
+    IF TG_OP = 'UPDATE' THEN
+        NEW.change_version := OLD.change_version;
+        IF NEW IS NOT DISTINCT FROM OLD THEN
+            RETURN NEW;
+        END IF;
+    END IF;
+    NEW.change_version := nextval('catalog_version');
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION record_catalog_deletion() RETURNS trigger AS
+$$
+BEGIN
+    IF TG_OP = 'TRUNCATE' THEN
+        INSERT INTO catalog_deletions (change_version, table_name, id)
+        VALUES (nextval('catalog_version'), TG_TABLE_NAME, NULL);
+        RETURN NULL;
+    END IF;
+    INSERT INTO catalog_deletions (change_version, table_name, id)
+    VALUES (nextval('catalog_version'), TG_TABLE_NAME, OLD.id);
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS categories_lock_version ON categories;
+CREATE TRIGGER categories_lock_version
+    BEFORE INSERT OR UPDATE OR DELETE OR TRUNCATE ON categories
+    FOR EACH STATEMENT EXECUTE FUNCTION lock_catalog_version();
+
+DROP TRIGGER IF EXISTS products_lock_version ON products;
+CREATE TRIGGER products_lock_version
+    BEFORE INSERT OR UPDATE OR DELETE OR TRUNCATE ON products
+    FOR EACH STATEMENT EXECUTE FUNCTION lock_catalog_version();
+
+DROP TRIGGER IF EXISTS categories_change_version ON categories;
+CREATE TRIGGER categories_change_version
+    BEFORE INSERT OR UPDATE ON categories
+    FOR EACH ROW EXECUTE FUNCTION set_catalog_change_version();
+
+DROP TRIGGER IF EXISTS products_change_version ON products;
+CREATE TRIGGER products_change_version
+    BEFORE INSERT OR UPDATE ON products
+    FOR EACH ROW EXECUTE FUNCTION set_catalog_change_version();
+
+DROP TRIGGER IF EXISTS categories_record_deletion ON categories;
+CREATE TRIGGER categories_record_deletion
+    AFTER DELETE ON categories
+    FOR EACH ROW EXECUTE FUNCTION record_catalog_deletion();
+
+DROP TRIGGER IF EXISTS products_record_deletion ON products;
+CREATE TRIGGER products_record_deletion
+    AFTER DELETE ON products
+    FOR EACH ROW EXECUTE FUNCTION record_catalog_deletion();
+
+DROP TRIGGER IF EXISTS categories_record_truncate ON categories;
+CREATE TRIGGER categories_record_truncate
+    AFTER TRUNCATE ON categories
+    FOR EACH STATEMENT EXECUTE FUNCTION record_catalog_deletion();
+
+DROP TRIGGER IF EXISTS products_record_truncate ON products;
+CREATE TRIGGER products_record_truncate
+    AFTER TRUNCATE ON products
+    FOR EACH STATEMENT EXECUTE FUNCTION record_catalog_deletion();
@@ -0,0 +1,5 @@
+-- Изменения после версии (GET /catalog/changes) и текущая версия каталога (MAX(change_version))
+-- читаются по индексу, а не полным просмотром таблиц.
+-- CONCURRENTLY не блокирует запись на время построения; Flyway выполняет такую миграцию вне транзакции
+CREATE INDEX CONCURRENTLY IF NOT EXISTS categories_change_version_idx ON categories (change_version);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS products_change_version_idx ON products (change_version);
@@ -0,0 +1,58 @@
+-- Вид изменения для потока GET /catalog/stream, который строится по строкам с change_version, а не сравнением
+-- каталога в памяти. created_version - версия вставки строки: строка, вставленная после версии клиента,
+-- для него добавлена, иначе изменена. previous_price - цена товара до последнего изменения, если оно
+-- затронуло только цену или валюту (событие price-changed), иначе NULL.
+-- Столбцы с постоянным значением по умолчанию добавляются без перезаписи таблиц;
+-- существующие строки считаются вставленными до любой версии клиента
+ALTER TABLE categories ADD COLUMN IF NOT EXISTS created_version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE products ADD COLUMN IF NOT EXISTS created_version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE products ADD COLUMN IF NOT EXISTS previous_price BIGINT;
+
+CREATE OR REPLACE FUNCTION set_catalog_change_version() RETURNS trigger AS
+$$
+BEGIN
+    IF TG_OP = 'UPDATE' THEN
+        NEW.change_version := OLD.change_version;
+        NEW.created_version := OLD.created_version;
+        IF NEW IS NOT DISTINCT FROM OLD THEN
+            RETURN NEW;
+        END IF;
+        NEW.change_version := nextval('catalog_version');
+        RETURN NEW;
+    END IF;
+    NEW.change_version := nextval('catalog_version');
+    NEW.created_version := NEW.change_version;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION set_product_change_version() RETURNS trigger AS
+$$
+BEGIN
+    IF TG_OP = 'UPDATE' THEN
+        NEW.change_version := OLD.change_version;
+        NEW.created_version := OLD.created_version;
+        NEW.previous_price := OLD.previous_price;
+        IF NEW IS NOT DISTINCT FROM OLD THEN
+            RETURN NEW;
+        END IF;
+        NEW.change_version := nextval('catalog_version');
+        IF (NEW.name, NEW.description, NEW.category_id, NEW.url)
+                IS NOT DISTINCT FROM (OLD.name, OLD.description, OLD.category_id, OLD.url) THEN
+            NEW.previous_price := OLD.price_minor;
+        ELSE
+            NEW.previous_price := NULL;
+        END IF;
+        RETURN NEW;
+    END IF;
+    NEW.change_version := nextval('catalog_version');
+    NEW.created_version := NEW.change_version;
+    NEW.previous_price := NULL;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS products_change_version ON products;
+CREATE TRIGGER products_change_version
+    BEFORE INSERT OR UPDATE ON products
+    FOR EACH ROW EXECUTE FUNCTION set_product_change_version();
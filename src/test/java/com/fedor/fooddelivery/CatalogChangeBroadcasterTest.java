@@ -0,0 +1,177 @@
+package com.fedor.fooddelivery;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fedor.fooddelivery.changes.CatalogChangeBroadcaster;
+import com.fedor.fooddelivery.changes.CatalogChangeJournal;
+import com.fedor.fooddelivery.changes.CatalogChangeType;
+import com.fedor.fooddelivery.dto.CatalogChangeDto;
+import com.fedor.fooddelivery.event.CatalogChangesDetectedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("Catalog Change Broadcaster Test")
+class CatalogChangeBroadcasterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CatalogChangeJournal journal = mock(CatalogChangeJournal.class);
+    private final CatalogChangeBroadcaster broadcaster = new CatalogChangeBroadcaster(new ObjectMapper(),
+            journal, meterRegistry, 4, Duration.ofMinutes(1), Duration.ofHours(1), 2);
+
+    @BeforeEach
+    void setUp() {
+        stubReplay(null, 1L, List.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should share one serialized frame between subscribers")
+    void shouldShareSerializedFrame() throws InterruptedException {
+        // given
+        RecordingEmitter first = new RecordingEmitter(null);
+        RecordingEmitter second = new RecordingEmitter(null);
+        broadcaster.subscribe(first, null);
+        broadcaster.subscribe(second, null);
+
+        // when
+        broadcaster.onChangesDetected(new CatalogChangesDetectedEvent(2L, List.of(priceChange(2L))));
+
+        // then
+        assertTrue(first.awaitFrames(2));
+        assertTrue(second.awaitFrames(2));
+        assertSame(first.frames.get(1), second.frames.get(1));
+        assertEquals("id: 2\nevent: price-changed\ndata: {\"type\":\"price-changed\",\"version\":2,"
+                        + "\"productId\":11,\"price\":19990,\"previousPrice\":24990}\n\n",
+                new String(first.frames.get(1), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Should not block the publisher on a slow subscriber and drop it when its queue overflows")
+    void shouldDropSlowSubscriber() throws InterruptedException {
+        // given
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(release);
+        RecordingEmitter fast = new RecordingEmitter(null);
+        broadcaster.subscribe(slow, null);
+        broadcaster.subscribe(fast, null);
+
+        // when
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            for (long version = 2; version < 12; version++) {
+                broadcaster.onChangesDetected(new CatalogChangesDetectedEvent(version, List.of(priceChange(version))));
+                assertTrue(fast.awaitFrames((int) version));
+            }
+        });
+        release.countDown();
+
+        // then
+        assertTrue(slow.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(1, broadcaster.getSubscriberCount());
+        assertEquals(1.0, meterRegistry.counter("app.catalog.stream.dropped").count());
+        assertEquals(11, fast.frames.size());
+    }
+
+    @Test
+    @DisplayName("Should replay missed changes to a reconnecting subscriber before new ones")
+    void shouldReplayMissedChanges_WhenLastEventIdGiven() throws InterruptedException {
+        // given
+        RecordingEmitter emitter = new RecordingEmitter(null);
+        stubReplay(3L, 5L, List.of(priceChange(4L)));
+
+        // when
+        broadcaster.subscribe(emitter, 3L);
+        broadcaster.onChangesDetected(new CatalogChangesDetectedEvent(6L, List.of(priceChange(6L))));
+
+        // then
+        assertTrue(emitter.awaitFrames(3));
+        assertEquals("retry: 5000\n: catalog version 5\n\n", new String(emitter.frames.get(0), StandardCharsets.UTF_8));
+        assertTrue(new String(emitter.frames.get(1), StandardCharsets.UTF_8).startsWith("id: 4\n"));
+        assertTrue(new String(emitter.frames.get(2), StandardCharsets.UTF_8).startsWith("id: 6\n"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubReplay(Long since, long version, List<CatalogChangeDto> changes) {
+        doAnswer(invocation -> {
+            ((BiConsumer<Long, List<CatalogChangeDto>>) invocation.getArgument(1)).accept(version, changes);
+            return null;
+        }).when(journal).replay(since == null ? isNull() : eq(since), any());
+    }
+
+    private static CatalogChangeDto priceChange(long version) {
+        CatalogChangeDto change = new CatalogChangeDto();
+        change.setType(CatalogChangeType.PRICE_CHANGED);
+        change.setVersion(version);
+        change.setProductId(11L);
+        change.setPrice(19990L);
+        change.setPreviousPrice(24990L);
+        return change;
+    }
+
+    /**
+     * Emitter без HTTP ответа: запоминает отправленные кадры, при заданном release ждет его на каждой отправке
+     */
+    private static final class RecordingEmitter extends ResponseBodyEmitter {
+
+        private final CountDownLatch release;
+        private final List<byte[]> frames = new CopyOnWriteArrayList<>();
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        private RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(Object object, MediaType mediaType) {
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            frames.add((byte[]) object);
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+
+        boolean awaitFrames(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (frames.size() < count) {
+                if (System.nanoTime() > deadline) {
+                    return false;
+                }
+                Thread.sleep(5);
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.fedor.fooddelivery;
+
+import com.fedor.fooddelivery.changes.CatalogChangeJournal;
+import com.fedor.fooddelivery.changes.CatalogChangeType;
+import com.fedor.fooddelivery.dto.CatalogChangeDto;
+import com.fedor.fooddelivery.dto.CatalogChangesDto;
+import com.fedor.fooddelivery.dto.CategoryDto;
+import com.fedor.fooddelivery.dto.ProductDto;
+import com.fedor.fooddelivery.entity.Category;
+import com.fedor.fooddelivery.entity.CurrencyCode;
+import com.fedor.fooddelivery.entity.Product;
+import com.fedor.fooddelivery.event.CatalogChangedEvent;
+import com.fedor.fooddelivery.event.CatalogChangesDetectedEvent;
+import com.fedor.fooddelivery.mapper.CategoryMapper;
+import com.fedor.fooddelivery.mapper.ProductMapper;
+import com.fedor.fooddelivery.repository.CatalogJdbcRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Catalog Change Journal Test")
+class CatalogChangeJournalTest {
+
+    @Mock
+    private CatalogJdbcRepository catalogJdbcRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Object> events = new CopyOnWriteArrayList<>();
+
+    @Test
+    @DisplayName("Should return rows changed after the version from memory")
+    void shouldReturnChangesAfterVersion() {
+        // given
+        CatalogChangeJournal journal = journal(100);
+        when(catalogJdbcRepository.findCatalogVersion()).thenReturn(12L);
+        when(catalogJdbcRepository.findChangedCategories(0, 12, 100))
+                .thenReturn(List.of(new CatalogJdbcRepository.Versioned<>(category(1L, "Шаверма"), 11, 0, null)));
+        when(catalogJdbcRepository.findChangedProducts(0, 12, 100))
+                .thenReturn(List.of(new CatalogJdbcRepository.Versioned<>(product(11L, 24990), 12, 0, null)));
+        when(catalogJdbcRepository.findDeletions(0, 12, 100))
+                .thenReturn(List.of(new CatalogJdbcRepository.Deletion("products", 13L, 10)));
+
+        // when
+        CatalogChangesDto sinceTen = journal.changesSince(10).orElseThrow();
+        CatalogChangesDto sinceNine = journal.changesSince(9).orElseThrow();
+
+        // then
+        assertFalse(sinceTen.isFull());
+        assertEquals(12L, sinceTen.getVersion());
+        assertEquals(List.of(1L), sinceTen.getCategories().stream().map(CategoryDto::getId).toList());
+        assertEquals(List.of(11L), sinceTen.getProducts().stream().map(ProductDto::getId).toList());
+        assertTrue(sinceTen.getDeletedProductIds().isEmpty());
+        assertEquals(List.of(13L), sinceNine.getDeletedProductIds());
+        // Второй запрос обслужен из памяти
+        verify(catalogJdbcRepository).findCatalogVersion();
+    }
+
+    @Test
+    @DisplayName("Should read only new changes after the catalog changed and keep the latest row state")
+    void shouldReadNewChanges_AfterCatalogChanged() {
+        // given
+        CatalogChangeJournal journal = journal(100);
+        when(catalogJdbcRepository.findCatalogVersion()).thenReturn(12L, 15L);
+        when(catalogJdbcRepository.findChangedProducts(0, 12, 100))
+                .thenReturn(List.of(new CatalogJdbcRepository.Versioned<>(product(11L, 24990), 12, 0, null)));
+        when(catalogJdbcRepository.findChangedProducts(12, 15, 100))
+                .thenReturn(List.of(new CatalogJdbcRepository.Versioned<>(product(11L, 19990), 15, 0, null)));
+        journal.changesSince(12);
+
+        // when
+        journal.onCatalogChanged(new CatalogChangedEvent(2L));
+        CatalogChangesDto changes = journal.changesSince(0).orElseThrow();
+
+        // then
+        assertFalse(changes.isFull());
+        assertEquals(15L, changes.getVersion());
+        assertEquals(1, changes.getProducts().size());
+        assertEquals(19990L, changes.getProducts().get(0).getPrice());
+    }
+
+    @Test
+    @DisplayName("Should ask for the full catalog when the client is behind the journal")
+    void shouldAskForFullCatalog_WhenClientIsBehind() {
+        // given
+        CatalogChangeJournal journal = journal(2);
+        when(catalogJdbcRepository.findCatalogVersion()).thenReturn(12L);
+        when(catalogJdbcRepository.findChangedProducts(0, 12, 2)).thenReturn(List.of(
+                new CatalogJdbcRepository.Versioned<>(product(12L, 22000), 12, 0, null),
+                new CatalogJdbcRepository.Versioned<>(product(11L, 24990), 11, 0, null)));
+
+        // when
+        Optional<CatalogChangesDto> behind = journal.changesSince(5);
+        Optional<CatalogChangesDto> recent = journal.changesSince(10);
+
+        // then
+        assertTrue(behind.isEmpty());
+        assertEquals(2, recent.orElseThrow().getProducts().size());
+    }
+
+    @Test
+    @DisplayName("Should not read the database for versions newer than the journal")
+    void shouldNotRefresh_ForVersionNewerThanJournal() {
+        // given
+        CatalogChangeJournal journal = journal(100);
+        when(catalogJdbcRepository.findCatalogVersion()).thenReturn(12L);
+
+        // when
+        Optional<CatalogChangesDto> unknown = journal.changesSince(99);
+        Optional<CatalogChangesDto> huge = journal.changesSince(Long.MAX_VALUE);
+
+        // then
+        assertTrue(unknown.isEmpty());
+        assertTrue(huge.isEmpty());
+        // Журнал прочитан один раз, при первом запросе
+        verify(catalogJdbcRepository).findCatalogVersion();
+    }
+
+    @Test
+    @DisplayName("Should prune old deletions at most once per interval")
+    void shouldPruneDeletionsOncePerInterval() {
+        // given
+        CatalogChangeJournal journal = journal(100);
+        when(catalogJdbcRepository.findCatalogVersion()).thenReturn(12L, 13L);
+
+        // when
+        journal.changesSince(12);
+        journal.onCatalogChanged(new CatalogChangedEvent(13L));
+        journal.changesSince(12);
+
+        // then
+        verify(catalogJdbcRepository, times(2)).findCatalogVersion();
+        verify(catalogJdbcRepository).pruneDeletions(100);
+    }
+
+    @Test
+    @DisplayName("Should publish stream events built from the changed rows of a new version")
+    void shouldPublishEventsFromChangedRows() {
+        // given
+        CatalogChangeJournal journal = streamingJournal(100);
+        when(catalogJdbcRepository.findCatalogVersion()).thenReturn(10L, 13L);
+        when(catalogJdbcRepository.findChangedCategories(0, 10, 100)).thenReturn(List.of());
+        when(catalogJdbcRepository.findChangedProducts(0, 10, 100)).thenReturn(List.of());
+        when(catalogJdbcRepository.findDeletions(0, 10, 100)).thenReturn(List.of());
+        when(catalogJdbcRepository.findChangedCategories(10, 13, 100))
+                .thenReturn(List.of(new CatalogJdbcRepository.Versioned<>(category(2L, "Бургеры"), 11, 11, null)));
+        when(catalogJdbcRepository.findChangedProducts(10, 13, 100))
+                .thenReturn(List.of(new CatalogJdbcRepository.Versioned<>(product(11L, 19990), 12, 5, 24990L)));
+        when(catalogJdbcRepository.findDeletions(10, 13, 100))
+                .thenReturn(List.of(new CatalogJdbcRepository.Deletion("products", 14L, 13)));
+        journal.changesSince(10);
+
+        // when
+        journal.onCatalogChanged(new CatalogChangedEvent(13L));
+        // Запрос ждет дочитывания в фоне или дочитывает журнал сам
+        journal.changesSince(13);
+
+        // then
+        CatalogChangesDetectedEvent event = (CatalogChangesDetectedEvent) events.get(events.size() - 1);
+        assertEquals(13L, event.version());
+        assertEquals(List.of(CatalogChangeType.CATEGORY_ADDED, CatalogChangeType.PRICE_CHANGED,
+                CatalogChangeType.PRODUCT_REMOVED), event.changes().stream().map(CatalogChangeDto::getType).toList());
+        assertEquals(List.of(11L, 12L, 13L), event.changes().stream().map(CatalogChangeDto::getVersion).toList());
+        assertEquals(24990L, event.changes().get(1).getPreviousPrice());
+        assertEquals(19990L, event.changes().get(1).getPrice());
+        journal.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should replay changes after the last event id of a reconnecting subscriber")
+    void shouldReplayChangesAfterLastEventId() {
+        // given
+        CatalogChangeJournal journal = streamingJournal(100);
+        when(catalogJdbcRepository.findCatalogVersion()).thenReturn(12L);
+        when(catalogJdbcRepository.findChangedProducts(0, 12, 100)).thenReturn(List.of(
+                new CatalogJdbcRepository.Versioned<>(product(12L, 22000), 12, 2, null),
+                new CatalogJdbcRepository.Versioned<>(product(11L, 24990), 11, 11, null)));
+        journal.changesSince(12);
+
+        // when
+        List<CatalogChangeType> sinceTen = replay(journal, 10L);
+        List<CatalogChangeType> sinceEleven = replay(journal, 11L);
+        List<CatalogChangeType> firstConnect = replay(journal, null);
+
+        // then
+        assertEquals(List.of(CatalogChangeType.PRODUCT_ADDED, CatalogChangeType.PRODUCT_UPDATED), sinceTen);
+        assertEquals(List.of(CatalogChangeType.PRODUCT_UPDATED), sinceEleven);
+        assertTrue(firstConnect.isEmpty());
+        journal.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should send a single catalog-reload event when there are too many changes or the version is unknown")
+    void shouldSendReload_WhenTooManyChanges() {
+        // given
+        CatalogChangeJournal journal = new CatalogChangeJournal(catalogJdbcRepository, new CategoryMapper(),
+                new ProductMapper(), transactionManager, new SimpleMeterRegistry(), events::add, 100,
+                Duration.ofHours(1), true, 1);
+        when(catalogJdbcRepository.findCatalogVersion()).thenReturn(12L);
+        when(catalogJdbcRepository.findChangedProducts(0, 12, 100)).thenReturn(List.of(
+                new CatalogJdbcRepository.Versioned<>(product(12L, 22000), 12, 2, null),
+                new CatalogJdbcRepository.Versioned<>(product(11L, 24990), 11, 11, null)));
+        journal.changesSince(12);
+        List<CatalogChangeDto> replayed = new ArrayList<>();
+
+        // when
+        journal.replay(10L, (version, changes) -> replayed.addAll(changes));
+        journal.replay(-1L, (version, changes) -> replayed.addAll(changes));
+
+        // then
+        assertEquals(List.of(CatalogChangeType.CATALOG_RELOAD, CatalogChangeType.CATALOG_RELOAD),
+                replayed.stream().map(CatalogChangeDto::getType).toList());
+        assertEquals(12L, replayed.get(0).getVersion());
+        journal.shutdown();
+    }
+
+    private static List<CatalogChangeType> replay(CatalogChangeJournal journal, Long since) {
+        List<CatalogChangeType> types = new ArrayList<>();
+        journal.replay(since, (version, changes) -> {
+            assertEquals(12L, version);
+            changes.forEach(change -> types.add(change.getType()));
+        });
+        return types;
+    }
+
+    private CatalogChangeJournal journal(int maxEntries) {
+        return new CatalogChangeJournal(catalogJdbcRepository, new CategoryMapper(), new ProductMapper(),
+                transactionManager, new SimpleMeterRegistry(), events::add, maxEntries, Duration.ofHours(1), false, 100);
+    }
+
+    private CatalogChangeJournal streamingJournal(int maxEntries) {
+        return new CatalogChangeJournal(catalogJdbcRepository, new CategoryMapper(), new ProductMapper(),
+                transactionManager, new SimpleMeterRegistry(), events::add, maxEntries, Duration.ofHours(1), true, 100);
+    }
+
+    private static Category category(Long id, String name) {
+        Category category = new Category();
+        category.setId(id);
+        category.setName(name);
+        category.setUrl("/shawarma");
+        return category;
+    }
+
+    private static Product product(Long id, long price) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Шаверма " + id);
+        product.setDescription("Лаваш");
+        product.setPrice(price);
+        product.setCategory(category(1L, "Шаверма"));
+        product.setUrl("/p/" + id);
+        product.setCurrency(CurrencyCode.RUB);
+        return product;
+    }
+}
@@ -0,0 +1,76 @@
+package com.fedor.fooddelivery;
+
+import com.fedor.fooddelivery.service.CatalogService;
+import com.fedor.fooddelivery.service.CatalogVersionService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Изменение каталога в обход приложения (как из скрипта администратора)
+ * должно дойти до узла через LISTEN/NOTIFY и сбросить его кэши
+ */
+@Testcontainers
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Catalog Change Notification Integration Test")
+class CatalogChangeNotificationIntegrationTest {
+
+    private static final Duration NOTIFY_TIMEOUT = Duration.ofSeconds(1);
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("food_delivery_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+    }
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
+    @Test
+    @DisplayName("Should invalidate caches when another client changes the catalog")
+    void shouldInvalidateOnExternalChange() throws InterruptedException {
+        // given
+        JdbcTemplate adminScript = new JdbcTemplate(new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword()));
+        catalogService.getProductsByCategory(1L);
+        long versionBefore = catalogVersionService.getCurrentVersion();
+
+        // when
+        adminScript.update("UPDATE categories SET name = 'Шаверма и роллы' WHERE id = 1");
+
+        // then
+        long deadline = System.nanoTime() + NOTIFY_TIMEOUT.toNanos();
+        while (catalogVersionService.getCurrentVersion() == versionBefore && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(catalogVersionService.getCurrentVersion() > versionBefore,
+                "Уведомление не получено за " + NOTIFY_TIMEOUT);
+        assertEquals("Шаверма и роллы", catalogService.getProductsByCategory(1L).getCategory().getName());
+    }
+}
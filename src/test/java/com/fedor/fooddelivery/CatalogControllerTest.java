@@ -1,26 +1,53 @@
 package com.fedor.fooddelivery;
 
+import com.fedor.fooddelivery.changes.CatalogChangeBroadcaster;
+import com.fedor.fooddelivery.changes.CatalogChangeJournal;
 import com.fedor.fooddelivery.controller.CatalogController;
-import com.fedor.fooddelivery.dto.CatalogProductDto;
-import com.fedor.fooddelivery.dto.CatalogResponseDto;
+import com.fedor.fooddelivery.dto.CatalogChangesDto;
 import com.fedor.fooddelivery.dto.CategoryDto;
+import com.fedor.fooddelivery.entity.Category;
+import com.fedor.fooddelivery.entity.CurrencyCode;
+import com.fedor.fooddelivery.entity.Product;
 import com.fedor.fooddelivery.exceptions.CategoryNotFoundException;
+import com.fedor.fooddelivery.mapper.CatalogResponseWriter;
+import com.fedor.fooddelivery.mapper.CategoryMapper;
+import com.fedor.fooddelivery.service.CatalogExportService;
 import com.fedor.fooddelivery.service.CatalogService;
+import com.fedor.fooddelivery.snapshot.CatalogSnapshotStore;
+import com.fedor.fooddelivery.snapshot.CatalogSnapshot;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.CannotCreateTransactionException;
 
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(CatalogController.class)
+@Import({CatalogResponseWriter.class, CategoryMapper.class, CatalogSnapshotStore.class})
+@TestPropertySource(properties = "app.catalog.snapshot.db-retry-interval=0s")
 @DisplayName("Catalog Controller Test")
 class CatalogControllerTest {
 
@@ -30,6 +57,26 @@ class CatalogControllerTest {
     @MockitoBean
     private CatalogService catalogService;
 
+    @MockitoBean
+    private CatalogExportService catalogExportService;
+
+    @MockitoBean
+    private CatalogChangeBroadcaster catalogChangeBroadcaster;
+
+    @MockitoBean
+    private CatalogChangeJournal catalogChangeJournal;
+
+    @Autowired
+    private CatalogSnapshotStore catalogSnapshotStore;
+
+    @TempDir
+    private Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        catalogSnapshotStore.replace(null);
+    }
+
     @Test
     @DisplayName("Should return all categories")
     void shouldReturnAllCategories() throws Exception {
@@ -54,13 +101,14 @@ class CatalogControllerTest {
     @DisplayName("Should return products by category")
     void shouldReturnProductsByCategory() throws Exception {
         Long categoryId = 1L;
-        CatalogResponseDto response = createCatalogResponse(categoryId);
+        CatalogService.CategoryProducts response = createCategoryProducts(categoryId);
 
-        when(catalogService.getProductsByCategory(categoryId)).thenReturn(response);
+        when(catalogService.getCategoryProducts(categoryId)).thenReturn(response);
 
         // when & then
         mockMvc.perform(get("/catalog/{id}", categoryId))
                 .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.category.id").value(1L))
                 .andExpect(jsonPath("$.category.name").value("Шаверма"))
                 .andExpect(jsonPath("$.products.length()").value(2))
@@ -75,7 +123,7 @@ class CatalogControllerTest {
     void shouldReturnNotFound_WhenCategoryNotFound() throws Exception {
         Long categoryId = 999L;
 
-        when(catalogService.getProductsByCategory(categoryId)).thenThrow(new CategoryNotFoundException(categoryId));
+        when(catalogService.getCategoryProducts(categoryId)).thenThrow(new CategoryNotFoundException(categoryId));
 
         // when & then
         mockMvc.perform(get("/catalog/{id}", categoryId))
@@ -99,12 +147,10 @@ class CatalogControllerTest {
     @DisplayName("Should return empty products list for category")
     void shouldReturnEmptyProductsList() throws Exception {
         Long categoryId = 1L;
-        CatalogResponseDto response = new CatalogResponseDto();
-        CategoryDto category = createCategoryDto(1L, "Шаверма");
-        response.setCategory(category);
-        response.setProducts(List.of());
+        CatalogService.CategoryProducts response =
+                new CatalogService.CategoryProducts(createCategory(categoryId, "Шаверма"), List.of());
 
-        when(catalogService.getProductsByCategory(categoryId)).thenReturn(response);
+        when(catalogService.getCategoryProducts(categoryId)).thenReturn(response);
 
         // when & then
         mockMvc.perform(get("/catalog/{id}", categoryId))
@@ -112,6 +158,162 @@ class CatalogControllerTest {
                 .andExpect(jsonPath("$.products.length()").value(0));
     }
 
+    @Test
+    @DisplayName("Should serve category from snapshot with degraded header when database is unavailable")
+    void shouldServeSnapshot_WhenDatabaseUnavailable() throws Exception {
+        // given
+        Long categoryId = 1L;
+        CatalogService.CategoryProducts categoryProducts = createCategoryProducts(categoryId);
+        Path file = tempDir.resolve("catalog.snapshot");
+        try (OutputStream output = Files.newOutputStream(file);
+             CatalogSnapshot.Writer writer = CatalogSnapshot.writer(output, 7L, Instant.parse("2026-01-01T00:00:00Z"))) {
+            writer.category(categoryProducts.category());
+            for (Product product : categoryProducts.products()) {
+                writer.product(product);
+            }
+            writer.finish();
+        }
+        catalogSnapshotStore.replace(CatalogSnapshot.open(file));
+
+        when(catalogService.getCategoryProducts(categoryId))
+                .thenThrow(new CannotCreateTransactionException("Connection refused"));
+
+        // when & then
+        mockMvc.perform(get("/catalog/{id}", categoryId))
+                .andExpect(status().isOk())
+                .andExpect(header().string(CatalogSnapshotStore.DEGRADED_HEADER,
+                        "version=7, created=2026-01-01T00:00:00Z"))
+                .andExpect(jsonPath("$.category.name").value("Шаверма"))
+                .andExpect(jsonPath("$.products.length()").value(2))
+                .andExpect(jsonPath("$.products[1].name").value("Шаверма Сырная"));
+    }
+
+    @Test
+    @DisplayName("Should return 500 without degraded header when database is unavailable and no snapshot exists")
+    void shouldFail_WhenDatabaseUnavailableWithoutSnapshot() throws Exception {
+        // given
+        when(catalogService.getAllCategories()).thenThrow(new CannotCreateTransactionException("Connection refused"));
+
+        // when & then
+        mockMvc.perform(get("/catalog"))
+                .andExpect(status().isInternalServerError())
+                .andExpect(header().doesNotExist(CatalogSnapshotStore.DEGRADED_HEADER));
+    }
+
+    @Test
+    @DisplayName("Should return catalog changes since a version")
+    void shouldReturnChangesSinceVersion() throws Exception {
+        // given
+        CatalogChangesDto changes = new CatalogChangesDto();
+        changes.setVersion(42L);
+        changes.getCategories().add(createCategoryDto(1L, "Шаверма"));
+        changes.getDeletedProductIds().add(13L);
+        when(catalogChangeJournal.changesSince(40L)).thenReturn(Optional.of(changes));
+
+        // when & then
+        mockMvc.perform(get("/catalog/changes").param("since", "40"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(42L))
+                .andExpect(jsonPath("$.full").value(false))
+                .andExpect(jsonPath("$.categories[0].name").value("Шаверма"))
+                .andExpect(jsonPath("$.products.length()").value(0))
+                .andExpect(jsonPath("$.deletedProductIds[0]").value(13L));
+    }
+
+    @Test
+    @DisplayName("Should stream the full catalog when the journal has no changes for the version")
+    void shouldStreamFullCatalog_WhenVersionOutsideJournal() throws Exception {
+        // given
+        when(catalogChangeJournal.changesSince(5L)).thenReturn(Optional.empty());
+
+        // when & then
+        mockMvc.perform(get("/catalog/changes").param("since", "5"))
+                .andExpect(status().isOk());
+        verify(catalogExportService).exportChanges(any());
+    }
+
+    @Test
+    @DisplayName("Should return 400 when since is missing")
+    void shouldReturnBadRequest_WhenSinceMissing() throws Exception {
+        // when & then
+        mockMvc.perform(get("/catalog/changes"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Не указан параметр since"));
+        verifyNoInteractions(catalogChangeJournal);
+    }
+
+    @Test
+    @DisplayName("Should return 400 for a non-numeric or negative since")
+    void shouldReturnBadRequest_WhenSinceInvalid() throws Exception {
+        // when & then
+        mockMvc.perform(get("/catalog/changes").param("since", "abc"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Некорректная версия каталога: 'abc'"));
+        mockMvc.perform(get("/catalog/changes").param("since", "-1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Некорректная версия каталога: '-1'"));
+        verifyNoInteractions(catalogChangeJournal);
+    }
+
+    @Test
+    @DisplayName("Should return several categories with products in the single category response format")
+    void shouldReturnCategoriesWithProducts() throws Exception {
+        // given
+        Category salads = createCategory(2L, "Салаты");
+        when(catalogService.getCategoriesProducts(List.of(1L, 2L, 5L))).thenReturn(List.of(
+                createCategoryProducts(1L),
+                new CatalogService.CategoryProducts(salads, List.of(createProduct(21L, "Цезарь", salads)))));
+
+        // when & then
+        mockMvc.perform(get("/catalog").param("ids", "1,2,5").param("include", "products"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].category.id").value(1L))
+                .andExpect(jsonPath("$[0].products.length()").value(2))
+                .andExpect(jsonPath("$[0].products[1].name").value("Шаверма Сырная"))
+                .andExpect(jsonPath("$[1].category.name").value("Салаты"))
+                .andExpect(jsonPath("$[1].products[0].id").value(21L));
+    }
+
+    @Test
+    @DisplayName("Should return 400 for an unsupported include")
+    void shouldReturnBadRequest_WhenIncludeUnsupported() throws Exception {
+        // when & then
+        mockMvc.perform(get("/catalog").param("ids", "1").param("include", "reviews"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Неподдерживаемое значение include: reviews"));
+    }
+
+    @Test
+    @DisplayName("Should return 400 when include is given without ids")
+    void shouldReturnBadRequest_WhenIdsMissing() throws Exception {
+        // when & then
+        mockMvc.perform(get("/catalog").param("include", "products"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Не указан параметр ids"));
+    }
+
+    @Test
+    @DisplayName("Should return 400 for a non-numeric category id")
+    void shouldReturnBadRequest_WhenIdNotNumeric() throws Exception {
+        // when & then
+        mockMvc.perform(get("/catalog").param("ids", "1,abc").param("include", "products"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Некорректный идентификатор категории: 'abc'"));
+        verifyNoInteractions(catalogService);
+    }
+
+    @Test
+    @DisplayName("Should return 400 instead of the whole catalog when ids are given without include")
+    void shouldReturnBadRequest_WhenIdsWithoutInclude() throws Exception {
+        // when & then
+        mockMvc.perform(get("/catalog").param("ids", "1,2"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Параметр ids используется только вместе с include=products"));
+        verifyNoInteractions(catalogService);
+    }
+
     private CategoryDto createCategoryDto(Long id, String name) {
         CategoryDto dto = new CategoryDto();
         dto.setId(id);
@@ -120,26 +322,29 @@ class CatalogControllerTest {
         return dto;
     }
 
-    private CatalogProductDto createCatalogProductDto(Long id, String name) {
-        CatalogProductDto dto = new CatalogProductDto();
-        dto.setId(id);
-        dto.setName(name);
-        dto.setPrice(250.0);
-        dto.setUrl("https://drive.google.com");
-        dto.setCurrency("RUB");
-        return dto;
+    private Category createCategory(Long id, String name) {
+        Category category = new Category();
+        category.setId(id);
+        category.setName(name);
+        category.setUrl("https://drive.google.com");
+        return category;
     }
 
-    private CatalogResponseDto createCatalogResponse(Long categoryId) {
-        CatalogResponseDto response = new CatalogResponseDto();
-
-        CategoryDto category = createCategoryDto(categoryId, "Шаверма");
-        response.setCategory(category);
-
-        CatalogProductDto product1 = createCatalogProductDto(12L, "Шаверма Классическая");
-        CatalogProductDto product2 = createCatalogProductDto(13L, "Шаверма Сырная");
-        response.setProducts(List.of(product1, product2));
+    private Product createProduct(Long id, String name, Category category) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setPrice(25000);
+        product.setCategory(category);
+        product.setUrl("https://drive.google.com");
+        product.setCurrency(CurrencyCode.RUB);
+        return product;
+    }
 
-        return response;
+    private CatalogService.CategoryProducts createCategoryProducts(Long categoryId) {
+        Category category = createCategory(categoryId, "Шаверма");
+        Product product1 = createProduct(12L, "Шаверма Классическая", category);
+        Product product2 = createProduct(13L, "Шаверма Сырная", category);
+        return new CatalogService.CategoryProducts(category, List.of(product1, product2));
     }
 }
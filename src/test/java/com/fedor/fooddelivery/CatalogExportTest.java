@@ -0,0 +1,156 @@
+package com.fedor.fooddelivery;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fedor.fooddelivery.importer.CatalogImportFormat;
+import com.fedor.fooddelivery.importer.CatalogImportService;
+import com.fedor.fooddelivery.repository.CatalogJdbcRepository;
+import com.fedor.fooddelivery.repository.CategoryRepository;
+import com.fedor.fooddelivery.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.catalog.export.fetch-size=2")
+@AutoConfigureMockMvc
+@ActiveProfiles("embedded")
+@DisplayName("Catalog Export Test")
+class CatalogExportTest {
+
+    private static final String CSV = """
+            category_id,category_name,category_url,product_id,product_name,description,price,product_url,currency
+            2,Салаты,/salads,21,Греческий салат,Овощи,150,/p/21,RUB
+            1,Шаверма,/shawarma,12,Шаверма Сырная,"Лаваш, сыр",280.5,/p/12,RUB
+            1,Шаверма,/shawarma,11,Шаверма Фирменная,Лаваш,250,/p/11,RUB
+            1,Шаверма,/shawarma,13,Шаверма Острая,Лаваш,260,/p/13,RUB
+            3,Соусы,/sauces,,,,,,
+            """;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private CatalogJdbcRepository catalogJdbcRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+        catalogImportService.importCatalog(
+                new ByteArrayInputStream(CSV.getBytes(StandardCharsets.UTF_8)), CatalogImportFormat.CSV);
+    }
+
+    @Test
+    @DisplayName("Should stream one NDJSON line per category with its products")
+    void shouldExportCatalogAsNdjson() throws Exception {
+        // when
+        String body = mockMvc.perform(get("/catalog/export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson;charset=UTF-8"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        // then
+        assertTrue(body.endsWith("\n"));
+        String[] lines = body.split("\n");
+        assertEquals(3, lines.length);
+
+        JsonNode shawarma = objectMapper.readTree(lines[0]);
+        assertEquals(1, shawarma.get("category").get("id").asLong());
+        assertEquals(3, shawarma.get("products").size());
+        assertEquals(11, shawarma.get("products").get(0).get("id").asLong());
+        assertEquals("Лаваш, сыр", shawarma.get("products").get(1).get("description").asText());
+
+        assertEquals(2, objectMapper.readTree(lines[1]).get("category").get("id").asLong());
+        JsonNode sauces = objectMapper.readTree(lines[2]);
+        assertEquals("Соусы", sauces.get("category").get("name").asText());
+        assertEquals(0, sauces.get("products").size());
+    }
+
+    @Test
+    @DisplayName("Should produce a file that imports back into the same catalog")
+    void shouldRoundTripThroughImport() throws Exception {
+        // given
+        byte[] exported = mockMvc.perform(get("/catalog/export"))
+                .andReturn().getResponse().getContentAsByteArray();
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+
+        // when
+        catalogImportService.importCatalog(new ByteArrayInputStream(exported), CatalogImportFormat.JSON);
+
+        // then
+        byte[] reexported = mockMvc.perform(get("/catalog/export"))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals(3, categoryRepository.count());
+        assertEquals(4, productRepository.count());
+        assertArrayEquals(exported, reexported);
+    }
+
+    @Test
+    @DisplayName("Should stream the full catalog with the database version for a version outside the journal")
+    void shouldStreamFullCatalogChanges() throws Exception {
+        // when
+        String body = mockMvc.perform(get("/catalog/changes").param("since", String.valueOf(Long.MAX_VALUE)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        // then
+        JsonNode changes = objectMapper.readTree(body);
+        assertTrue(changes.get("full").asBoolean());
+        assertEquals(catalogJdbcRepository.findCatalogVersion(), changes.get("version").asLong());
+        assertEquals(3, changes.get("categories").size());
+        assertEquals(4, changes.get("products").size());
+        assertEquals(0, changes.get("deletedProductIds").size());
+    }
+
+    @Test
+    @DisplayName("Should keep only the latest deletions and mark where older ones were dropped")
+    void shouldPruneOldDeletions() {
+        // given
+        // Удаления товаров 11, 12, 13 и 21 при очистке каталога в setUp предыдущих тестов не важны: очищаем журнал удалений
+        catalogJdbcRepository.pruneDeletions(1);
+        productRepository.deleteAllById(List.of(11L, 12L, 13L));
+
+        // when
+        int deleted = catalogJdbcRepository.pruneDeletions(2);
+
+        // then
+        List<CatalogJdbcRepository.Deletion> deletions =
+                catalogJdbcRepository.findDeletions(0, Long.MAX_VALUE, 10);
+        assertTrue(deleted >= 1);
+        assertEquals(2, deletions.size());
+        assertEquals("products", deletions.get(0).table());
+        assertNotNull(deletions.get(0).id());
+        assertNull(deletions.get(1).id());
+    }
+}
@@ -0,0 +1,259 @@
+package com.fedor.fooddelivery;
+
+import com.fedor.fooddelivery.controller.CatalogImportController;
+import com.fedor.fooddelivery.entity.Category;
+import com.fedor.fooddelivery.entity.CurrencyCode;
+import com.fedor.fooddelivery.entity.Product;
+import com.fedor.fooddelivery.event.CatalogChangedEvent;
+import com.fedor.fooddelivery.importer.CatalogImportService;
+import com.fedor.fooddelivery.repository.CatalogJdbcRepository;
+import com.fedor.fooddelivery.repository.CategoryRepository;
+import com.fedor.fooddelivery.repository.ProductRepository;
+import com.fedor.fooddelivery.service.CatalogVersionService;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.catalog.import.http-enabled=true")
+@AutoConfigureMockMvc
+@RecordApplicationEvents
+@ActiveProfiles("embedded")
+@DisplayName("Catalog Import Test")
+class CatalogImportTest {
+
+    private static final String CSV = """
+            category_id,category_name,category_url,product_id,product_name,description,price,product_url,currency
+            1,Шаверма,/shawarma,11,Шаверма Фирменная,"Лаваш, курица, ""фирменный"" соус",250,/p/11,RUB
+            1,Шаверма,/shawarma,12,Шаверма Сырная,"Лаваш, сыр",280.5,/p/12,
+            2,Салаты,/salads,21,Греческий салат,Овощи,150,/p/21,RUB
+            3,Соусы,/sauces,,,,,,
+            """;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
+    @Autowired
+    private CatalogJdbcRepository catalogJdbcRepository;
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should import CSV and publish a single catalog version")
+    void shouldImportCsv() throws Exception {
+        // given
+        long versionBefore = catalogVersionService.getCurrentVersion();
+
+        // when
+        MvcResult result = mockMvc.perform(post("/admin/catalog/import").contentType("text/csv").content(CSV))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.categories").value(3))
+                .andExpect(jsonPath("$.products").value(3))
+                .andReturn();
+
+        // then
+        // Версия импорта - версия каталога в БД, та же, что у GET /catalog/changes
+        long version = catalogJdbcRepository.findCatalogVersion();
+        assertTrue(version > versionBefore);
+        assertEquals(version, JsonPath.parse(result.getResponse().getContentAsString()).read("$.version", Long.class));
+        assertEquals(version, catalogVersionService.getCurrentVersion());
+        assertEquals(3, categoryRepository.count());
+        assertEquals(3, productRepository.count());
+        Product product = productRepository.findById(11L).orElseThrow();
+        assertEquals("Лаваш, курица, \"фирменный\" соус", product.getDescription());
+        assertEquals(1L, product.getCategory().getId());
+        Product withoutCurrency = productRepository.findById(12L).orElseThrow();
+        assertEquals(CurrencyCode.RUB, withoutCurrency.getCurrency());
+        assertEquals(28050, withoutCurrency.getPrice());
+        assertEquals(1, events.stream(CatalogChangedEvent.class).count());
+    }
+
+    @Test
+    @DisplayName("Should update existing rows on repeated import")
+    void shouldUpsertOnRepeatedImport() throws Exception {
+        // given
+        mockMvc.perform(post("/admin/catalog/import").contentType("text/csv").content(CSV))
+                .andExpect(status().isOk());
+        String update = """
+                category_id,category_name,category_url,product_id,product_name,description,price,product_url,currency
+                2,Салаты и закуски,/salads,21,Греческий салат,Овощи,175,/p/21,RUB
+                """;
+
+        // when
+        mockMvc.perform(post("/admin/catalog/import").contentType("text/csv").content(update))
+                .andExpect(status().isOk());
+
+        // then
+        assertEquals(3, productRepository.count());
+        assertEquals(17500, productRepository.findById(21L).orElseThrow().getPrice());
+        assertEquals("Салаты и закуски", categoryRepository.findById(2L).orElseThrow().getName());
+    }
+
+    @Test
+    @DisplayName("Should import NDJSON in the catalog response shape")
+    void shouldImportNdjson() throws Exception {
+        // given
+        String ndjson = """
+                {"category":{"id":1,"name":"Шаверма","url":"/shawarma"},"products":[{"id":11,"name":"Шаверма Фирменная","description":"Лаваш","price":25000,"url":"/p/11","currency":"RUB"}]}
+                {"category":{"id":2,"name":"Салаты","url":"/salads"},"products":[]}
+                """;
+
+        // when & then
+        mockMvc.perform(post("/admin/catalog/import").contentType("application/x-ndjson").content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.categories").value(2))
+                .andExpect(jsonPath("$.products").value(1));
+
+        assertEquals(2, categoryRepository.count());
+        assertEquals("Лаваш", productRepository.findById(11L).orElseThrow().getDescription());
+    }
+
+    @Test
+    @DisplayName("Should reject malformed file without saving anything")
+    void shouldRejectMalformedFile() throws Exception {
+        // given
+        long versionBefore = catalogVersionService.getCurrentVersion();
+        String csv = """
+                category_id,category_name,category_url,product_id,product_name,description,price,product_url,currency
+                1,Шаверма,/shawarma,11,Шаверма Фирменная,Лаваш,250,/p/11,RUB
+                1,Шаверма,/shawarma,12,Шаверма Сырная,Лаваш,дорого,/p/12,RUB
+                """;
+
+        // when & then
+        mockMvc.perform(post("/admin/catalog/import").contentType("text/csv").content(csv))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Некорректная цена 'дорого', строка 3"));
+
+        assertEquals(0, productRepository.count());
+        assertEquals(versionBefore, catalogVersionService.getCurrentVersion());
+    }
+
+    @Test
+    @DisplayName("Should reject price with fractions of a kopeck and unknown currency")
+    void shouldRejectPriceNotRepresentableInMinorUnits() throws Exception {
+        // given
+        String fractionOfKopeck = """
+                category_id,category_name,category_url,product_id,product_name,description,price,product_url,currency
+                1,Шаверма,/shawarma,11,Шаверма Фирменная,Лаваш,249.999,/p/11,RUB
+                """;
+        String unknownCurrency = """
+                category_id,category_name,category_url,product_id,product_name,description,price,product_url,currency
+                1,Шаверма,/shawarma,11,Шаверма Фирменная,Лаваш,250,/p/11,XYZ
+                """;
+
+        // when & then
+        mockMvc.perform(post("/admin/catalog/import").contentType("text/csv").content(fractionOfKopeck))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Некорректная цена '249.999', строка 2"));
+        mockMvc.perform(post("/admin/catalog/import").contentType("text/csv").content(unknownCurrency))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Неизвестная валюта 'XYZ', строка 2"));
+
+        assertEquals(0, productRepository.count());
+    }
+
+    @Test
+    @DisplayName("Should reject negative prices in CSV and JSON")
+    void shouldRejectNegativePrice() throws Exception {
+        // given
+        String csv = """
+                category_id,category_name,category_url,product_id,product_name,description,price,product_url,currency
+                1,Шаверма,/shawarma,11,Шаверма Фирменная,Лаваш,-249.90,/p/11,RUB
+                """;
+        String ndjson = """
+                {"category":{"id":1,"name":"Шаверма","url":"/shawarma"},"products":[{"id":11,"name":"Шаверма","description":"Лаваш","price":-100,"url":"/p/11"}]}
+                """;
+
+        // when & then
+        mockMvc.perform(post("/admin/catalog/import").contentType("text/csv").content(csv))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Отрицательная цена -24990, строка 2"));
+        mockMvc.perform(post("/admin/catalog/import").contentType("application/x-ndjson").content(ndjson))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Отрицательная цена -100, строка 1"));
+
+        assertEquals(0, productRepository.count());
+    }
+
+    @Test
+    @DisplayName("Should reject product without name instead of failing on the NOT NULL constraint")
+    void shouldRejectProductWithoutName() throws Exception {
+        // given
+        String ndjson = """
+                {"category":{"id":1,"name":"Шаверма","url":"/shawarma"},"products":[{"id":11,"description":"Лаваш","price":25000,"url":"/p/11"}]}
+                """;
+
+        // when & then
+        mockMvc.perform(post("/admin/catalog/import").contentType("application/x-ndjson").content(ndjson))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Не указано поле name, строка 1"));
+
+        assertEquals(0, categoryRepository.count());
+    }
+
+    @Test
+    @DisplayName("Should advance generated ids past imported ones")
+    void shouldAdvanceGeneratedIds_AfterImport() throws Exception {
+        // given
+        mockMvc.perform(post("/admin/catalog/import").contentType("text/csv").content(CSV))
+                .andExpect(status().isOk());
+        Category category = new Category();
+        category.setName("Напитки");
+        category.setUrl("/drinks");
+
+        // when
+        Category saved = categoryRepository.save(category);
+
+        // then
+        assertTrue(saved.getId() > 3, "id " + saved.getId() + " уже занят импортом");
+    }
+
+    @Test
+    @DisplayName("Should answer 404 when HTTP import is disabled")
+    void shouldReturnNotFound_WhenHttpImportDisabled() throws Exception {
+        // given
+        CatalogImportController controller = new CatalogImportController(catalogImportService, false);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/admin/catalog/import");
+        request.setContentType("text/csv");
+        request.setContent(CSV.getBytes());
+
+        // when & then
+        assertEquals(HttpStatus.NOT_FOUND, controller.importCatalog(request).getStatusCode());
+        assertEquals(0, categoryRepository.count());
+    }
+}
@@ -1,8 +1,10 @@
 package com.fedor.fooddelivery;
 
+import com.fedor.fooddelivery.dto.CatalogChangesDto;
 import com.fedor.fooddelivery.dto.CatalogResponseDto;
 import com.fedor.fooddelivery.dto.CategoryDto;
 import com.fedor.fooddelivery.entity.Category;
+import com.fedor.fooddelivery.entity.CurrencyCode;
 import com.fedor.fooddelivery.entity.Product;
 import com.fedor.fooddelivery.repository.CategoryRepository;
 import com.fedor.fooddelivery.repository.ProductRepository;
@@ -16,6 +18,7 @@ import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
@@ -56,6 +59,9 @@ class CatalogIntegrationTest {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private Long pizzaCategoryId;
     private Long sushiCategoryId;
 
@@ -79,19 +85,19 @@ class CatalogIntegrationTest {
         Product pizza1 = new Product();
         pizza1.setName("Маргарита");
         pizza1.setDescription("Классическая пицца");
-        pizza1.setPrice(450.0);
+        pizza1.setPrice(45000);
         pizza1.setCategory(pizzaCategory);
         pizza1.setUrl("/margarita");
-        pizza1.setCurrency("RUB");
+        pizza1.setCurrency(CurrencyCode.RUB);
         pizza1 = productRepository.save(pizza1);
 
         Product pizza2 = new Product();
         pizza2.setName("Пепперони");
         pizza2.setDescription("Острая пицца");
-        pizza2.setPrice(550.0);
+        pizza2.setPrice(55000);
         pizza2.setCategory(pizzaCategory);
         pizza2.setUrl("/pepperoni");
-        pizza2.setCurrency("RUB");
+        pizza2.setCurrency(CurrencyCode.RUB);
         pizza2 = productRepository.save(pizza2);
     }
 
@@ -174,4 +180,33 @@ class CatalogIntegrationTest {
         assertEquals("/pizza", pizzaCategory.getUrl());
         assertNotNull(pizzaCategory.getId());
     }
+
+    @Test
+    @DisplayName("Should return only rows changed after a version and the deleted ids")
+    void shouldReturnChangesSinceVersion() throws InterruptedException {
+        // given
+        CatalogChangesDto initial = restTemplate.getForObject("/catalog/changes?since=0", CatalogChangesDto.class);
+        Long pepperoniId = jdbcTemplate.queryForObject("SELECT id FROM products WHERE name = 'Пепперони'", Long.class);
+
+        // when
+        jdbcTemplate.update("UPDATE products SET price_minor = 49000 WHERE name = 'Маргарита'");
+        // Запись без изменений версию не получает
+        jdbcTemplate.update("UPDATE categories SET name = name");
+        jdbcTemplate.update("DELETE FROM products WHERE id = ?", pepperoniId);
+
+        // then
+        CatalogChangesDto changes = initial;
+        long deadline = System.nanoTime() + 1_000_000_000L;
+        while (changes.getVersion() == initial.getVersion() && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+            changes = restTemplate.getForObject("/catalog/changes?since=" + initial.getVersion(), CatalogChangesDto.class);
+        }
+        assertFalse(changes.isFull());
+        assertTrue(changes.getVersion() > initial.getVersion());
+        assertTrue(changes.getCategories().isEmpty());
+        assertEquals(1, changes.getProducts().size());
+        assertEquals("Маргарита", changes.getProducts().get(0).getName());
+        assertEquals(49000L, changes.getProducts().get(0).getPrice());
+        assertEquals(List.of(pepperoniId), changes.getDeletedProductIds());
+    }
 }
@@ -0,0 +1,245 @@
+package com.fedor.fooddelivery;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Нагрузочный тест без Docker: приложение поднимается на встроенной H2 (режим PostgreSQL),
+ * в БД генерируется синтетический каталог, после чего с заданной частотой подается
+ * смешанная нагрузка на каталог и корзину.
+ * Нагрузка открытая: запросы отправляются по расписанию независимо от ответов,
+ * задержка считается от запланированного момента отправки.
+ * Кэши каталога, снимок и прогрев работают с настройками по умолчанию, как в production:
+ * профиль embedded их не меняет, тесты, которым нужен путь без кэшей, отключают их сами.
+ * Запуск: mvn -Pload-test test
+ * Параметры: loadtest.categories, loadtest.products-per-category, loadtest.rps,
+ * loadtest.duration, loadtest.warmup
+ */
+@Tag("load")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("embedded")
+@DisplayName("Catalog Load Test")
+class CatalogLoadTest {
+
+    private static final int CATEGORIES = Integer.getInteger("loadtest.categories", 100);
+    private static final int PRODUCTS_PER_CATEGORY = Integer.getInteger("loadtest.products-per-category", 1000);
+    private static final int RATE = Integer.getInteger("loadtest.rps", 500);
+    private static final Duration DURATION = DurationStyle.detectAndParse(System.getProperty("loadtest.duration", "30s"));
+    private static final Duration WARMUP = DurationStyle.detectAndParse(System.getProperty("loadtest.warmup", "10s"));
+    private static final int SEED_BATCH_SIZE = 1000;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ExecutorService httpExecutor = Executors.newFixedThreadPool(32);
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(httpExecutor)
+            .build();
+
+    @BeforeAll
+    void seedCatalog() {
+        List<Object[]> categories = new ArrayList<>(CATEGORIES);
+        for (long id = 1; id <= CATEGORIES; id++) {
+            categories.add(new Object[]{id, "Категория " + id, "https://example.com/categories/" + id});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO categories(id, name, url) VALUES (?, ?, ?)", categories);
+
+        List<Object[]> batch = new ArrayList<>(SEED_BATCH_SIZE);
+        long productId = 1;
+        for (long categoryId = 1; categoryId <= CATEGORIES; categoryId++) {
+            for (int i = 0; i < PRODUCTS_PER_CATEGORY; i++, productId++) {
+                batch.add(new Object[]{productId, "Блюдо " + productId, "Описание блюда " + productId,
+                        (100 + productId % 400) * 100, categoryId, "https://example.com/products/" + productId, "RUB"});
+                if (batch.size() == SEED_BATCH_SIZE) {
+                    insertProducts(batch);
+                    batch.clear();
+                }
+            }
+        }
+        insertProducts(batch);
+    }
+
+    @AfterAll
+    void shutdownHttpClient() {
+        httpExecutor.shutdownNow();
+    }
+
+    private void insertProducts(List<Object[]> batch) {
+        jdbcTemplate.batchUpdate("INSERT INTO products(id, name, description, price_minor, category_id, url, currency) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)", batch);
+    }
+
+    @Test
+    @DisplayName("Should sustain mixed catalog and cart traffic")
+    void shouldSustainMixedTraffic() throws IOException {
+        // given
+        String baseUrl = "http://localhost:" + port;
+        Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+        recorders.put("GET /catalog", new LatencyRecorder());
+        recorders.put("GET /catalog/{id}", new LatencyRecorder());
+        recorders.put("POST /cart", new LatencyRecorder());
+
+        // when
+        drive(baseUrl, WARMUP, null);
+        long elapsedNanos = drive(baseUrl, DURATION, recorders);
+
+        // then
+        // Отчет с задержками по эндпоинтам - target/load-test-report.txt
+        Files.writeString(Path.of("target", "load-test-report.txt"), report(recorders, elapsedNanos));
+
+        long errors = recorders.values().stream().mapToLong(r -> r.errors.get()).sum();
+        assertEquals(0, errors, "Запросы завершились ошибкой");
+    }
+
+    /**
+     * Подать нагрузку с частотой RATE запросов в секунду
+     * @param recorders куда записывать задержки, null для прогрева
+     * @return фактическое время от первого запроса до последнего ответа
+     */
+    private long drive(String baseUrl, Duration duration, Map<String, LatencyRecorder> recorders) {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / RATE;
+        long total = duration.toNanos() / intervalNanos;
+        List<CompletableFuture<?>> inFlight = new ArrayList<>();
+        long start = System.nanoTime();
+
+        for (long i = 0; i < total; i++) {
+            long intendedStart = start + i * intervalNanos;
+            long wait = intendedStart - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            String endpoint = pickEndpoint();
+            HttpRequest request = createRequest(baseUrl, endpoint);
+            LatencyRecorder recorder = recorders != null ? recorders.get(endpoint) : null;
+            inFlight.add(httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        if (recorder != null) {
+                            boolean failed = error != null || response.statusCode() >= 400;
+                            recorder.record(System.nanoTime() - intendedStart, failed);
+                        }
+                    }));
+        }
+        CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).exceptionally(e -> null).join();
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Смесь запросов: 30% список категорий, 60% товары категории, 10% оформление заказа
+     */
+    private String pickEndpoint() {
+        int roll = ThreadLocalRandom.current().nextInt(100);
+        if (roll < 30) {
+            return "GET /catalog";
+        }
+        return roll < 90 ? "GET /catalog/{id}" : "POST /cart";
+    }
+
+    private HttpRequest createRequest(String baseUrl, String endpoint) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (endpoint) {
+            case "GET /catalog" -> HttpRequest.newBuilder(URI.create(baseUrl + "/catalog")).GET().build();
+            case "GET /catalog/{id}" -> HttpRequest.newBuilder(
+                    URI.create(baseUrl + "/catalog/" + random.nextLong(1, CATEGORIES + 1))).GET().build();
+            default -> {
+                long maxProductId = (long) CATEGORIES * PRODUCTS_PER_CATEGORY;
+                String body = """
+                        {"customerName":"Иван Иванов","phoneNumber":"+79110001122",\
+                        "items":[{"productId":%d,"quantity":2},{"productId":%d,"quantity":1}]}"""
+                        .formatted(random.nextLong(1, maxProductId + 1), random.nextLong(1, maxProductId + 1));
+                yield HttpRequest.newBuilder(URI.create(baseUrl + "/cart"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build();
+            }
+        };
+    }
+
+    private String report(Map<String, LatencyRecorder> recorders, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.ROOT, "Catalog: %d categories x %d products, target %d rps, %.1f s%n",
+                CATEGORIES, PRODUCTS_PER_CATEGORY, RATE, seconds));
+        report.append(String.format(Locale.ROOT, "%-18s %9s %7s %10s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "rps", "p50 ms", "p99 ms", "p999 ms"));
+        for (Map.Entry<String, LatencyRecorder> entry : recorders.entrySet()) {
+            LatencyRecorder recorder = entry.getValue();
+            long[] sorted = recorder.sorted();
+            report.append(String.format(Locale.ROOT, "%-18s %9d %7d %10.1f %9.2f %9.2f %9.2f%n",
+                    entry.getKey(), sorted.length, recorder.errors.get(), sorted.length / seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999)));
+        }
+        return report.toString();
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+    /**
+     * Накопитель задержек одного эндпоинта
+     */
+    private static class LatencyRecorder {
+        private final AtomicLong errors = new AtomicLong();
+        private long[] latencies = new long[1024];
+        private int size;
+
+        synchronized void record(long latencyNanos, boolean failed) {
+            if (failed) {
+                errors.incrementAndGet();
+            }
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = latencyNanos;
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(latencies, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
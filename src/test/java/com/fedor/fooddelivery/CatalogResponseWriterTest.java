@@ -0,0 +1,117 @@
+package com.fedor.fooddelivery;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fedor.fooddelivery.dto.CatalogResponseDto;
+import com.fedor.fooddelivery.entity.Category;
+import com.fedor.fooddelivery.entity.Product;
+import com.fedor.fooddelivery.importer.CatalogImportFormat;
+import com.fedor.fooddelivery.importer.CatalogImportService;
+import com.fedor.fooddelivery.mapper.CatalogProductMapper;
+import com.fedor.fooddelivery.mapper.CatalogResponseWriter;
+import com.fedor.fooddelivery.mapper.CategoryMapper;
+import com.fedor.fooddelivery.repository.CategoryRepository;
+import com.fedor.fooddelivery.repository.ProductRepository;
+import com.fedor.fooddelivery.service.CatalogService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Потоковая запись ответа каталога должна давать те же байты, что Jackson для CatalogResponseDto
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("embedded")
+@DisplayName("Catalog Response Writer Test")
+class CatalogResponseWriterTest {
+
+    // Кавычки, обратный слеш, управляющие символы, кириллица и символы вне BMP требуют экранирования или UTF-8
+    private static final String CSV = """
+            category_id,category_name,category_url,product_id,product_name,description,price,product_url,currency
+            1,"Шаверма ""Фирменная"" на углях",/shawarma?a=1&b=2,11,"Шаверма \\ ""Острая"" </script>",Лаваш,249.90,/p/11,RUB
+            1,"Шаверма ""Фирменная"" на углях",/shawarma?a=1&b=2,12,Сырная\tс табом 🌯,Лаваш,0,/p/12,USD
+            2,Пустая,/empty,,,,,,
+            """;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private CatalogResponseWriter catalogResponseWriter;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+        catalogImportService.importCatalog(
+                new ByteArrayInputStream(CSV.getBytes(StandardCharsets.UTF_8)), CatalogImportFormat.CSV);
+    }
+
+    @Test
+    @DisplayName("Should write the same bytes as Jackson serialization of CatalogResponseDto")
+    void shouldMatchDtoSerialization() throws Exception {
+        for (long categoryId : new long[]{1L, 2L}) {
+            // given
+            byte[] expected = objectMapper.writeValueAsBytes(catalogService.getProductsByCategory(categoryId));
+
+            // when
+            byte[] actual = mockMvc.perform(get("/catalog/{id}", categoryId))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsByteArray();
+
+            // then
+            assertArrayEquals(expected, actual, new String(actual, StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    @DisplayName("Should write null fields the same way as Jackson")
+    void shouldMatchDtoSerializationForNullFields() throws Exception {
+        // given
+        Category category = new Category();
+        category.setId(3L);
+        Product product = new Product();
+        product.setId(31L);
+        product.setCurrency(null);
+        CatalogResponseDto dto = new CatalogResponseDto();
+        dto.setCategory(new CategoryMapper().toCategoryDto(category));
+        dto.setProducts(List.of(new CatalogProductMapper().toCatalogDto(product)));
+        byte[] expected = objectMapper.writeValueAsBytes(dto);
+
+        // when
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        catalogResponseWriter.write(category, List.of(product), actual);
+
+        // then
+        assertArrayEquals(expected, actual.toByteArray(), actual.toString(StandardCharsets.UTF_8));
+    }
+}
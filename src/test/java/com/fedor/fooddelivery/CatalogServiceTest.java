@@ -1,28 +1,38 @@
 package com.fedor.fooddelivery;
 
+import com.fedor.fooddelivery.cache.CatalogCacheManager;
+import com.fedor.fooddelivery.cache.CatalogLoadTransaction;
 import com.fedor.fooddelivery.dto.CatalogProductDto;
 import com.fedor.fooddelivery.dto.CatalogResponseDto;
 import com.fedor.fooddelivery.dto.CategoryDto;
 import com.fedor.fooddelivery.entity.Category;
+import com.fedor.fooddelivery.entity.CurrencyCode;
 import com.fedor.fooddelivery.entity.Product;
+import com.fedor.fooddelivery.event.CatalogChangedEvent;
 import com.fedor.fooddelivery.exceptions.CategoryNotFoundException;
 import com.fedor.fooddelivery.mapper.CatalogProductMapper;
 import com.fedor.fooddelivery.mapper.CategoryMapper;
+import com.fedor.fooddelivery.repository.CatalogJdbcRepository;
 import com.fedor.fooddelivery.repository.CategoryRepository;
 import com.fedor.fooddelivery.repository.ProductRepository;
 import com.fedor.fooddelivery.service.CatalogService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -43,9 +53,29 @@ class CatalogServiceTest {
     @Mock
     private CatalogProductMapper catalogProductMapper;
 
-    @InjectMocks
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private CatalogJdbcRepository catalogJdbcRepository;
+
+    private CatalogCacheManager catalogCacheManager;
     private CatalogService catalogService;
 
+    @BeforeEach
+    void setUp() {
+        catalogCacheManager = new CatalogCacheManager(Duration.ofMinutes(1), Duration.ofMinutes(10), 0.2, 1,
+                Duration.ofSeconds(30), 100, new SimpleMeterRegistry());
+        catalogService = new CatalogService(categoryRepository, productRepository, categoryMapper,
+                catalogProductMapper, new CatalogLoadTransaction(catalogJdbcRepository, transactionManager, ""),
+                catalogCacheManager, Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        catalogCacheManager.shutdown();
+    }
+
     @Test
     @DisplayName("Should return all categories when categories exist")
     void shouldReturnAllCategories_WhenCategoriesExist() {
@@ -173,6 +203,25 @@ class CatalogServiceTest {
         verify(catalogProductMapper, never()).toCatalogDto(any());
     }
 
+    @Test
+    @DisplayName("Should answer repeated lookups of a missing category without querying the database")
+    void shouldCacheMissingCategory_UntilCatalogChanges() {
+        // given
+        Long categoryId = 999L;
+        when(categoryRepository.findById(categoryId)).thenReturn(Optional.empty());
+
+        // when
+        assertThrows(CategoryNotFoundException.class, () -> catalogService.getCategoryProducts(categoryId));
+        CategoryNotFoundException cached = assertThrows(CategoryNotFoundException.class,
+                () -> catalogService.getCategoryProducts(categoryId));
+        catalogCacheManager.onCatalogChanged(new CatalogChangedEvent(2L));
+        assertThrows(CategoryNotFoundException.class, () -> catalogService.getCategoryProducts(categoryId));
+
+        // then
+        assertEquals(0, cached.getStackTrace().length);
+        verify(categoryRepository, times(2)).findById(categoryId);
+    }
+
     @Test
     @DisplayName("Should map all product fields correctly when getting products by category")
     void shouldMapAllProductFields_WhenGettingProductsByCategory() {
@@ -207,6 +256,60 @@ class CatalogServiceTest {
         verify(catalogProductMapper, times(1)).toCatalogDto(product);
     }
 
+    @Test
+    @DisplayName("Should serve repeated requests from cache until the catalog changes")
+    void shouldServeFromCache_UntilCatalogChanges() {
+        // given
+        Long categoryId = 1L;
+        Category category = createCategory(categoryId, "Шаверма");
+        Product product = createProduct(12L, "Шаверма Классическая", category);
+
+        when(categoryRepository.findById(categoryId)).thenReturn(Optional.of(category));
+        when(productRepository.findByCategoryId(categoryId)).thenReturn(List.of(product));
+        when(categoryRepository.findAll()).thenReturn(List.of(category));
+
+        // when
+        catalogService.getCategoryProducts(categoryId);
+        CatalogService.CategoryProducts cached = catalogService.getCategoryProducts(categoryId);
+        catalogService.getAllCategories();
+        catalogService.getAllCategories();
+        catalogCacheManager.onCatalogChanged(new CatalogChangedEvent(2L));
+        catalogService.getCategoryProducts(categoryId);
+        catalogService.getAllCategories();
+
+        // then
+        assertEquals(List.of(product), cached.products());
+        verify(categoryRepository, times(2)).findById(categoryId);
+        verify(productRepository, times(2)).findByCategoryId(categoryId);
+        verify(categoryRepository, times(2)).findAll();
+    }
+
+    @Test
+    @DisplayName("Should load all uncached categories with one query each for categories and products")
+    void shouldLoadUncachedCategoriesTogether() {
+        // given
+        Category shawarma = createCategory(1L, "Шаверма");
+        Category salads = createCategory(2L, "Салаты");
+        Product product1 = createProduct(12L, "Шаверма Классическая", shawarma);
+        Product product2 = createProduct(21L, "Цезарь", salads);
+        when(categoryRepository.findById(1L)).thenReturn(Optional.of(shawarma));
+        when(productRepository.findByCategoryId(1L)).thenReturn(List.of(product1));
+        when(categoryRepository.findAllById(Set.of(2L, 3L))).thenReturn(List.of(salads));
+        when(productRepository.findByCategoryIdIn(List.of(2L))).thenReturn(List.of(product2));
+        catalogService.getCategoryProducts(1L);
+
+        // when
+        List<CatalogService.CategoryProducts> result = catalogService.getCategoriesProducts(List.of(2L, 1L, 3L, 2L));
+        List<CatalogService.CategoryProducts> cached = catalogService.getCategoriesProducts(List.of(1L, 2L, 3L));
+
+        // then
+        assertEquals(List.of(salads, shawarma), result.stream().map(CatalogService.CategoryProducts::category).toList());
+        assertEquals(List.of(product2), result.get(0).products());
+        assertEquals(List.of(shawarma, salads), cached.stream().map(CatalogService.CategoryProducts::category).toList());
+        verify(categoryRepository, times(1)).findAllById(any());
+        verify(productRepository, times(1)).findByCategoryIdIn(any());
+    }
+
     private static Stream<Arguments> invalidCategoryIdsProvider() {
         return Stream.of(
                 Arguments.of(999L),
@@ -237,10 +340,10 @@ class CatalogServiceTest {
         product.setId(id);
         product.setName(name);
         product.setDescription("Описание");
-        product.setPrice(250.0);
+        product.setPrice(25000);
         product.setCategory(category);
         product.setUrl("https://drive.google.com");
-        product.setCurrency("RUB");
+        product.setCurrency(CurrencyCode.RUB);
         return product;
     }
 
@@ -248,9 +351,9 @@ class CatalogServiceTest {
         CatalogProductDto dto = new CatalogProductDto();
         dto.setId(id);
         dto.setName(name);
-        dto.setPrice(250.0);
+        dto.setPrice(25000L);
         dto.setUrl("https://drive.google.com");
-        dto.setCurrency("RUB");
+        dto.setCurrency(CurrencyCode.RUB);
         return dto;
     }
 }
@@ -0,0 +1,115 @@
+package com.fedor.fooddelivery;
+
+import com.fedor.fooddelivery.entity.Category;
+import com.fedor.fooddelivery.exceptions.CategoryNotFoundException;
+import com.fedor.fooddelivery.snapshot.CatalogSnapshot;
+import com.fedor.fooddelivery.snapshot.CatalogSnapshotStore;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Catalog Snapshot Store Test")
+class CatalogSnapshotStoreTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private final AtomicInteger databaseCalls = new AtomicInteger();
+
+    @Test
+    @DisplayName("Should open the snapshot file on startup and fall back to it while the database is down")
+    void shouldFallBackToSnapshot_WhileDatabaseIsDown() throws IOException {
+        // given
+        Path file = writeSnapshot();
+        CatalogSnapshotStore store = new CatalogSnapshotStore(true, file, Duration.ofMinutes(1));
+
+        // when
+        CatalogSnapshotStore.Result<String> first = store.read(this::failingDatabase, this::firstCategoryName);
+        CatalogSnapshotStore.Result<String> second = store.read(this::failingDatabase, this::firstCategoryName);
+
+        // then
+        assertTrue(first.degraded());
+        assertEquals("Шаверма", first.value());
+        assertEquals("version=3, created=2026-01-01T00:00:00Z", first.degradedHeader());
+        assertTrue(second.degraded());
+        // Пока не прошел db-retry-interval, БД не опрашивается
+        assertEquals(1, databaseCalls.get());
+    }
+
+    @Test
+    @DisplayName("Should go back to the database once the retry interval has passed")
+    void shouldRetryDatabase_AfterRetryInterval() throws IOException {
+        // given
+        CatalogSnapshotStore store = new CatalogSnapshotStore(true, writeSnapshot(), Duration.ZERO);
+        store.read(this::failingDatabase, this::firstCategoryName);
+
+        // when
+        CatalogSnapshotStore.Result<String> result = store.read(() -> "из БД", this::firstCategoryName);
+
+        // then
+        assertFalse(result.degraded());
+        assertEquals("из БД", result.value());
+        assertNull(result.snapshot());
+    }
+
+    @Test
+    @DisplayName("Should rethrow database errors when there is no snapshot")
+    void shouldRethrow_WhenNoSnapshot() {
+        // given
+        CatalogSnapshotStore store = new CatalogSnapshotStore(true, tempDir.resolve("missing.snapshot"), Duration.ofMinutes(1));
+
+        // when & then
+        assertThrows(DataAccessResourceFailureException.class,
+                () -> store.read(this::failingDatabase, this::firstCategoryName));
+    }
+
+    @Test
+    @DisplayName("Should not hide not-found errors behind the snapshot")
+    void shouldNotFallBack_OnNotFound() throws IOException {
+        // given
+        CatalogSnapshotStore store = new CatalogSnapshotStore(true, writeSnapshot(), Duration.ofMinutes(1));
+
+        // when & then
+        assertThrows(CategoryNotFoundException.class, () -> store.read(() -> {
+            throw new CategoryNotFoundException(999L);
+        }, this::firstCategoryName));
+    }
+
+    private String failingDatabase() {
+        databaseCalls.incrementAndGet();
+        throw new DataAccessResourceFailureException("Connection refused");
+    }
+
+    private String firstCategoryName(CatalogSnapshot snapshot) {
+        return snapshot.categories().get(0).getName();
+    }
+
+    private Path writeSnapshot() throws IOException {
+        Path file = tempDir.resolve("catalog.snapshot");
+        Category category = new Category();
+        category.setId(1L);
+        category.setName("Шаверма");
+        category.setUrl("/shawarma");
+        try (OutputStream output = Files.newOutputStream(file);
+             CatalogSnapshot.Writer writer = CatalogSnapshot.writer(output, 3L, Instant.parse("2026-01-01T00:00:00Z"))) {
+            writer.category(category);
+            writer.finish();
+        }
+        return file;
+    }
+}
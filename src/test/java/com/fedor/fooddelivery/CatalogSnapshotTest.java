@@ -0,0 +1,119 @@
+package com.fedor.fooddelivery;
+
+import com.fedor.fooddelivery.importer.CatalogImportFormat;
+import com.fedor.fooddelivery.importer.CatalogImportService;
+import com.fedor.fooddelivery.mapper.CatalogResponseWriter;
+import com.fedor.fooddelivery.repository.CatalogJdbcRepository;
+import com.fedor.fooddelivery.repository.CategoryRepository;
+import com.fedor.fooddelivery.repository.ProductRepository;
+import com.fedor.fooddelivery.service.CatalogService;
+import com.fedor.fooddelivery.snapshot.CatalogSnapshot;
+import com.fedor.fooddelivery.snapshot.CatalogSnapshotWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Снимок каталога должен отдавать те же ответы, что и БД, и не открываться, если файл оборван
+ */
+@SpringBootTest
+@ActiveProfiles("embedded")
+@DisplayName("Catalog Snapshot Test")
+class CatalogSnapshotTest {
+
+    private static final String CSV = """
+            category_id,category_name,category_url,product_id,product_name,description,price,product_url,currency
+            1,Шаверма,/shawarma,11,"Шаверма ""Острая"" 🌯",Лаваш,249.90,/p/11,RUB
+            1,Шаверма,/shawarma,12,Сырная,,0,,USD
+            2,Пустая,,,,,,,
+            3,Салаты,/salads,31,Цезарь,Салат,390,/p/31,EUR
+            """;
+
+    @TempDir
+    private Path tempDir;
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private CatalogSnapshotWriter catalogSnapshotWriter;
+
+    @Autowired
+    private CatalogResponseWriter catalogResponseWriter;
+
+    @Autowired
+    private CatalogJdbcRepository catalogJdbcRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+        catalogImportService.importCatalog(
+                new ByteArrayInputStream(CSV.getBytes(StandardCharsets.UTF_8)), CatalogImportFormat.CSV);
+    }
+
+    @Test
+    @DisplayName("Should serve the same categories and products as the database")
+    void shouldMatchDatabase() throws IOException {
+        // given
+        Path file = tempDir.resolve("catalog.snapshot");
+
+        // when
+        CatalogSnapshot snapshot = catalogSnapshotWriter.write(file);
+
+        // then
+        // Версия снимка - версия каталога в БД, как у GET /catalog/changes
+        assertEquals(catalogJdbcRepository.findCatalogVersion(), snapshot.version());
+        assertEquals(List.of(1L, 2L, 3L), snapshot.categories().stream().map(c -> c.getId()).toList());
+        for (long categoryId : new long[]{1L, 2L, 3L}) {
+            assertArrayEquals(render(catalogService.getCategoryProducts(categoryId)),
+                    render(snapshot.categoryProducts(categoryId)));
+        }
+        assertEquals(snapshot.categories().size(), CatalogSnapshot.open(file).categories().size());
+    }
+
+    @Test
+    @DisplayName("Should reject a truncated snapshot file")
+    void shouldRejectTruncatedFile() throws IOException {
+        // given
+        Path file = tempDir.resolve("catalog.snapshot");
+        catalogSnapshotWriter.write(file);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 5));
+
+        // when & then
+        assertThrows(IOException.class, () -> CatalogSnapshot.open(file));
+    }
+
+    private byte[] render(CatalogService.CategoryProducts categoryProducts) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        catalogResponseWriter.write(categoryProducts.category(), categoryProducts.products(), output);
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,108 @@
+package com.fedor.fooddelivery;
+
+import com.fedor.fooddelivery.importer.CatalogImportFormat;
+import com.fedor.fooddelivery.importer.CatalogImportService;
+import com.fedor.fooddelivery.repository.CatalogJdbcRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Поток GET /catalog/stream: импорт каталога доходит до подписчика событиями изменений
+ */
+@SpringBootTest(properties = "app.catalog.changes.enabled=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("embedded")
+@DisplayName("Catalog Stream Test")
+class CatalogStreamTest {
+
+    private static final String CSV = """
+            category_id,category_name,category_url,product_id,product_name,description,price,product_url,currency
+            1,%s,/shawarma,11,Острая,Лаваш,%s,/p/11,RUB
+            """;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private CatalogJdbcRepository catalogJdbcRepository;
+
+    @Test
+    @DisplayName("Should push category and price changes to a subscriber")
+    void shouldPushChanges() throws Exception {
+        // given
+        String categoryName = "Шаверма " + UUID.randomUUID();
+        MvcResult result = mockMvc.perform(get("/catalog/stream"))
+                .andExpect(request().asyncStarted())
+                .andExpect(header().string("Content-Type", "text/event-stream"))
+                .andReturn();
+        MockHttpServletResponse response = result.getResponse();
+
+        // when
+        importCatalog(categoryName, "249.90");
+        assertTrue(awaitContent(response, categoryName));
+        importCatalog(categoryName, "199.90");
+
+        // then
+        assertTrue(awaitContent(response, "event: price-changed\ndata: {\"type\":\"price-changed\""));
+        String content = response.getContentAsString(StandardCharsets.UTF_8);
+        assertTrue(content.startsWith("retry: 5000\n"));
+        assertTrue(content.contains("\"productId\":11,\"price\":19990,\"previousPrice\":24990"), content);
+    }
+
+    @Test
+    @DisplayName("Should replay changes after Last-Event-ID to a reconnecting subscriber")
+    void shouldReplayChanges_AfterLastEventId() throws Exception {
+        // given
+        String categoryName = "Шаверма " + UUID.randomUUID();
+        importCatalog(categoryName, "249.90");
+        long lastEventId = catalogJdbcRepository.findCatalogVersion();
+        importCatalog(categoryName, "199.90");
+
+        // when
+        MvcResult result = mockMvc.perform(get("/catalog/stream").header("Last-Event-ID", lastEventId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then
+        MockHttpServletResponse response = result.getResponse();
+        assertTrue(awaitContent(response, "\"productId\":11,\"price\":19990,\"previousPrice\":24990"));
+        assertFalse(response.getContentAsString(StandardCharsets.UTF_8).contains("category-added"));
+    }
+
+    private void importCatalog(String categoryName, String price) {
+        String csv = CSV.formatted(categoryName, price);
+        catalogImportService.importCatalog(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), CatalogImportFormat.CSV);
+    }
+
+    private static boolean awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (!response.getContentAsString(StandardCharsets.UTF_8).contains(expected)) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(20);
+        }
+        return true;
+    }
+}
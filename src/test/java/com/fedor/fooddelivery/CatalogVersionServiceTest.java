@@ -0,0 +1,62 @@
+package com.fedor.fooddelivery;
+
+import com.fedor.fooddelivery.event.CatalogChangedEvent;
+import com.fedor.fooddelivery.repository.CatalogJdbcRepository;
+import com.fedor.fooddelivery.service.CatalogVersionService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Catalog Version Service Test")
+class CatalogVersionServiceTest {
+
+    @Mock
+    private CatalogJdbcRepository catalogJdbcRepository;
+
+    private final List<Object> events = new ArrayList<>();
+
+    @Test
+    @DisplayName("Should publish a database version once even when the node is notified about its own change")
+    void shouldPublishVersionOnce() {
+        // given
+        CatalogVersionService service = new CatalogVersionService(catalogJdbcRepository, events::add);
+        when(catalogJdbcRepository.findCatalogVersion()).thenReturn(42L, 42L, 43L);
+
+        // when
+        long imported = service.publishNewVersion();
+        long notified = service.publishNewVersion();
+        long changedElsewhere = service.publishNewVersion();
+
+        // then
+        assertEquals(42L, imported);
+        assertEquals(42L, notified);
+        assertEquals(43L, changedElsewhere);
+        assertEquals(List.of(new CatalogChangedEvent(42), new CatalogChangedEvent(43)), events);
+        assertEquals(43L, service.getCurrentVersion());
+    }
+
+    @Test
+    @DisplayName("Should still publish a version that a request has already read")
+    void shouldPublish_WhenVersionReadBeforePublication() {
+        // given
+        CatalogVersionService service = new CatalogVersionService(catalogJdbcRepository, events::add);
+        when(catalogJdbcRepository.findCatalogVersion()).thenReturn(42L);
+
+        // when
+        long current = service.getCurrentVersion();
+        service.publishNewVersion();
+
+        // then
+        assertEquals(42L, current);
+        assertEquals(List.of(new CatalogChangedEvent(42)), events);
+    }
+}
@@ -0,0 +1,50 @@
+package com.fedor.fooddelivery;
+
+import com.fedor.fooddelivery.exceptions.CatalogImportException;
+import com.fedor.fooddelivery.importer.CsvRecordReader;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("CSV Record Reader Test")
+class CsvRecordReaderTest {
+
+    @Test
+    @DisplayName("Should read quoted fields with commas, quotes and line breaks")
+    void shouldReadQuotedFields() throws IOException {
+        // given
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(
+                "a,\"b, c\",\"say \"\"hi\"\"\"\r\n1,\"multi\nline\",\n\n3,,x"));
+
+        // when
+        List<String> first = reader.next();
+        List<String> second = reader.next();
+        long secondLine = reader.getRecordLine();
+        List<String> third = reader.next();
+
+        // then
+        assertEquals(List.of("a", "b, c", "say \"hi\""), first);
+        assertEquals(List.of("1", "multi\nline", ""), second);
+        assertEquals(2, secondLine);
+        assertEquals(List.of("3", "", "x"), third);
+        assertEquals(5, reader.getRecordLine());
+        assertNull(reader.next());
+    }
+
+    @Test
+    @DisplayName("Should fail on unterminated quote")
+    void shouldFailOnUnterminatedQuote() {
+        // given
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("1,\"open"));
+
+        // when & then
+        assertThrows(CatalogImportException.class, reader::next);
+    }
+}
@@ -0,0 +1,127 @@
+package com.fedor.fooddelivery;
+
+import com.fedor.fooddelivery.entity.Category;
+import com.fedor.fooddelivery.entity.Product;
+import com.fedor.fooddelivery.repository.CategoryRepository;
+import com.fedor.fooddelivery.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Число SQL запросов на эндпоинтах каталога не должно зависеть от числа товаров.
+ * Кэш второго уровня очищается перед каждым запросом, а кэши ответов каталога отключены,
+ * чтобы считались обращения к БД
+ */
+@SpringBootTest(properties = {
+        "app.catalog.cache.hard-ttl=0s",
+        "app.catalog.negative-cache.ttl=0s"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("embedded")
+@DisplayName("Fetch Strategy Test")
+class FetchStrategyTest {
+
+    private static final int PRODUCTS = 20;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private SessionFactory sessionFactory;
+    private Statistics statistics;
+    private Category category;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+        category = new Category();
+        category.setName("Шаверма");
+        category.setUrl("/shawarma");
+        category = categoryRepository.save(category);
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product newProduct = new Product();
+            newProduct.setName("Шаверма " + i);
+            newProduct.setDescription("Лаваш, курица");
+            newProduct.setPrice(20000 + i * 100L);
+            newProduct.setCategory(category);
+            newProduct.setUrl("/p/" + i);
+            product = productRepository.save(newProduct);
+        }
+
+        sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Should build product detail from a single query without loading the category")
+    void shouldLoadProductDetailWithSingleQuery() throws Exception {
+        // when
+        mockMvc.perform(get("/products/{id}", product.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.categoryId").value(category.getId()))
+                .andExpect(jsonPath("$.description").value("Лаваш, курица"));
+
+        // then
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("Should load category products without loading the category once per product")
+    void shouldLoadCategoryProductsWithoutNPlusOne() throws Exception {
+        // when
+        mockMvc.perform(get("/catalog/{id}", category.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products.length()").value(PRODUCTS));
+
+        // then
+        // Категория по id и товары категории
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityFetchCount());
+    }
+
+    @Test
+    @DisplayName("Should batch product loads when query cache outlives the entity cache")
+    void shouldBatchLoadsAfterEntityEviction() throws Exception {
+        // given
+        mockMvc.perform(get("/catalog/{id}", category.getId())).andExpect(status().isOk());
+        sessionFactory.getCache().evictEntityData(Product.class);
+        statistics.clear();
+
+        // when
+        mockMvc.perform(get("/catalog/{id}", category.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products.length()").value(PRODUCTS));
+
+        // then
+        // Не больше одного запроса вместо запроса на каждый товар
+        assertTrue(statistics.getPrepareStatementCount() <= 1);
+    }
+}
@@ -0,0 +1,108 @@
+package com.fedor.fooddelivery;
+
+import org.h2.api.Trigger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * Триггеры миграций V6 и V8 для встроенной БД H2 (db/embedded/catalog-versions.sql).
+ * Вставленная или измененная строка получает следующее значение catalog_version в change_version,
+ * вставленная - еще и в created_version, запись без изменений версию не получает, удаленная строка
+ * записывается в catalog_deletions. У товара, в котором изменились только цена или валюта,
+ * в previous_price записывается прежняя цена
+ */
+public class H2CatalogVersionTrigger implements Trigger {
+
+    private String tableName;
+    private int idIndex;
+    private int versionIndex;
+    private int createdIndex;
+    // -1 для категорий
+    private int previousPriceIndex;
+    private int priceIndex;
+    private int currencyIndex;
+
+    @Override
+    public void init(Connection connection, String schemaName, String triggerName, String tableName,
+                     boolean before, int type) throws SQLException {
+        this.tableName = tableName;
+        this.idIndex = requiredColumnIndex(connection, schemaName, tableName, "id");
+        this.versionIndex = requiredColumnIndex(connection, schemaName, tableName, "change_version");
+        this.createdIndex = requiredColumnIndex(connection, schemaName, tableName, "created_version");
+        this.previousPriceIndex = columnIndex(connection, schemaName, tableName, "previous_price");
+        this.priceIndex = columnIndex(connection, schemaName, tableName, "price_minor");
+        this.currencyIndex = columnIndex(connection, schemaName, tableName, "currency");
+    }
+
+    @Override
+    public void fire(Connection connection, Object[] oldRow, Object[] newRow) throws SQLException {
+        if (newRow == null) {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO catalog_deletions (change_version, table_name, id) "
+                            + "VALUES (NEXT VALUE FOR catalog_version, ?, ?)")) {
+                statement.setString(1, tableName);
+                statement.setObject(2, oldRow[idIndex]);
+                statement.executeUpdate();
+            }
+            return;
+        }
+        if (oldRow != null) {
+            newRow[versionIndex] = oldRow[versionIndex];
+            newRow[createdIndex] = oldRow[createdIndex];
+            if (previousPriceIndex >= 0) {
+                newRow[previousPriceIndex] = oldRow[previousPriceIndex];
+            }
+            if (Arrays.equals(oldRow, newRow)) {
+                return;
+            }
+        }
+        if (previousPriceIndex >= 0) {
+            newRow[previousPriceIndex] = oldRow != null && onlyPriceChanged(oldRow, newRow) ? oldRow[priceIndex] : null;
+        }
+        long version;
+        try (PreparedStatement statement = connection.prepareStatement("SELECT NEXT VALUE FOR catalog_version");
+             ResultSet rs = statement.executeQuery()) {
+            rs.next();
+            version = rs.getLong(1);
+        }
+        newRow[versionIndex] = version;
+        if (oldRow == null) {
+            newRow[createdIndex] = version;
+        }
+    }
+
+    private boolean onlyPriceChanged(Object[] oldRow, Object[] newRow) {
+        Object[] samePrice = newRow.clone();
+        samePrice[priceIndex] = oldRow[priceIndex];
+        samePrice[currencyIndex] = oldRow[currencyIndex];
+        samePrice[previousPriceIndex] = oldRow[previousPriceIndex];
+        return Arrays.equals(oldRow, samePrice);
+    }
+
+    private static int requiredColumnIndex(Connection connection, String schemaName, String tableName, String column)
+            throws SQLException {
+        int index = columnIndex(connection, schemaName, tableName, column);
+        if (index < 0) {
+            throw new SQLException("В таблице " + tableName + " нет столбца " + column);
+        }
+        return index;
+    }
+
+    private static int columnIndex(Connection connection, String schemaName, String tableName, String column)
+            throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT ORDINAL_POSITION FROM INFORMATION_SCHEMA.COLUMNS "
+                        + "WHERE TABLE_SCHEMA = ? AND TABLE_NAME = ? AND COLUMN_NAME = ?")) {
+            statement.setString(1, schemaName);
+            statement.setString(2, tableName);
+            statement.setString(3, column);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() ? rs.getInt(1) - 1 : -1;
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.fedor.fooddelivery;
+
+import com.fedor.fooddelivery.config.NativeHintsConfig;
+import com.fedor.fooddelivery.logging.RequestSamplingTurboFilter;
+import com.fedor.fooddelivery.logging.RingBufferAsyncAppender;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.beans.BeanUtils;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Native Hints Config Tests")
+class NativeHintsConfigTest {
+
+    @Test
+    @DisplayName("Should register Logback classes created by reflection")
+    void shouldRegisterLogbackClasses() throws Exception {
+        // given
+        RuntimeHints hints = new RuntimeHints();
+        Class<? extends RuntimeHintsRegistrar> registrar =
+                NativeHintsConfig.class.getAnnotation(ImportRuntimeHints.class).value()[0];
+
+        // when
+        BeanUtils.instantiateClass(registrar).registerHints(hints, getClass().getClassLoader());
+
+        // then
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onConstructor(RingBufferAsyncAppender.class.getConstructor()).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(RingBufferAsyncAppender.class.getMethod("setBufferSize", int.class)).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onConstructor(RequestSamplingTurboFilter.class.getConstructor()).test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("logback-spring.xml").test(hints));
+    }
+
+    @Test
+    @DisplayName("Should register JDK proxies of the query counting data source")
+    void shouldRegisterJdbcProxies() {
+        // given
+        RuntimeHints hints = new RuntimeHints();
+        Class<? extends RuntimeHintsRegistrar> registrar =
+                NativeHintsConfig.class.getAnnotation(ImportRuntimeHints.class).value()[0];
+
+        // when
+        BeanUtils.instantiateClass(registrar).registerHints(hints, getClass().getClassLoader());
+
+        // then
+        assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(Connection.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(PreparedStatement.class).test(hints));
+    }
+}
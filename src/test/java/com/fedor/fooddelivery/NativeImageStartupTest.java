@@ -0,0 +1,118 @@
+package com.fedor.fooddelivery;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Проверка нативного образа: бинарник и обычный jar запускаются против одной и той же БД,
+ * сравнивается время до готовности и потребляемая память (VmRSS из /proc).
+ * Используется БД из application.properties (локальная PostgreSQL), адрес можно переопределить
+ * через SPRING_DATASOURCE_URL, SPRING_DATASOURCE_USERNAME и SPRING_DATASOURCE_PASSWORD.
+ * Сборка: mvn -Pnative native:compile -DskipTests, затем mvn package -DskipTests
+ * Запуск: mvn -Pnative-startup-test test
+ */
+@Tag("native")
+@DisplayName("Native Image Startup Test")
+class NativeImageStartupTest {
+
+    private static final Path NATIVE_BINARY = Path.of("target", "food-delivery");
+    private static final Path JAR = Path.of("target", "food-delivery-0.0.1-SNAPSHOT.jar");
+    private static final Duration READINESS_LIMIT = Duration.ofSeconds(1);
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(120);
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(200))
+            .build();
+
+    @Test
+    @DisplayName("Should become ready in under a second and use less memory than the JVM")
+    void shouldStartFasterAndSmallerThanJvm() throws Exception {
+        // given
+        assumeTrue(Files.isExecutable(NATIVE_BINARY), "Нативный образ не собран: " + NATIVE_BINARY);
+        assumeTrue(Files.isRegularFile(JAR), "Jar не собран: " + JAR);
+        assumeTrue(Files.isDirectory(Path.of("/proc/self")), "Нет /proc для чтения VmRSS");
+
+        // when
+        Measurement nativeRun = measure(List.of(NATIVE_BINARY.toAbsolutePath().toString()));
+        Measurement jvmRun = measure(List.of(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-jar", JAR.toAbsolutePath().toString()));
+
+        // then
+        assertTrue(nativeRun.readyMillis() < READINESS_LIMIT.toMillis(),
+                "Нативный образ готов за " + nativeRun.readyMillis() + " мс, JVM за " + jvmRun.readyMillis() + " мс");
+        assertTrue(nativeRun.rssKb() < jvmRun.rssKb(),
+                "RSS нативного образа " + nativeRun.rssKb() + " kB, JVM " + jvmRun.rssKb() + " kB");
+    }
+
+    /**
+     * Запустить приложение, дождаться первого 200 от /actuator/health и снять RSS процесса
+     */
+    private Measurement measure(List<String> command) throws Exception {
+        int port = freePort();
+        List<String> args = new ArrayList<>(command);
+        args.add("--server.port=" + port);
+        ProcessBuilder builder = new ProcessBuilder(args)
+                .redirectErrorStream(true)
+                .redirectOutput(Path.of("target", "native-startup-" + port + ".log").toFile());
+
+        long start = System.nanoTime();
+        Process process = builder.start();
+        try {
+            URI health = URI.create("http://localhost:" + port + "/actuator/health");
+            long deadline = start + STARTUP_TIMEOUT.toNanos();
+            while (!isUp(health)) {
+                assertTrue(process.isAlive(), "Приложение завершилось при старте, см. target/native-startup-" + port + ".log");
+                assertTrue(System.nanoTime() < deadline, "Приложение не стало готовым за " + STARTUP_TIMEOUT);
+                Thread.sleep(10);
+            }
+            long readyMillis = (System.nanoTime() - start) / 1_000_000;
+            return new Measurement(readyMillis, readRssKb(process.pid()));
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private boolean isUp(URI health) throws InterruptedException {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(health).timeout(Duration.ofMillis(500)).GET().build();
+            return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static long readRssKb(long pid) throws IOException {
+        return Files.readAllLines(Path.of("/proc", String.valueOf(pid), "status")).stream()
+                .filter(line -> line.startsWith("VmRSS:"))
+                .map(line -> line.replaceAll("\\D", ""))
+                .mapToLong(Long::parseLong)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private record Measurement(long readyMillis, long rssKb) {
+    }
+}
@@ -0,0 +1,114 @@
+package com.fedor.fooddelivery;
+
+import com.fedor.fooddelivery.cache.NegativeLookupCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Negative Lookup Cache Test")
+class NegativeLookupCacheTest {
+
+    private static final Duration TTL = Duration.ofSeconds(30);
+
+    private final AtomicLong clock = new AtomicLong();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Should remember missing id until TTL expires")
+    void shouldRememberMissingIdUntilTtl() {
+        // given
+        NegativeLookupCache cache = createCache(TTL, 100);
+        cache.recordMissing(999L, cache.stamp());
+
+        // when
+        boolean beforeTtl = cache.isMissing(999L);
+        clock.addAndGet(TTL.toNanos());
+        boolean afterTtl = cache.isMissing(999L);
+
+        // then
+        assertTrue(beforeTtl);
+        assertFalse(afterTtl);
+        assertEquals(0, cache.size());
+        assertEquals(1.0, registry.get(NegativeLookupCache.HITS_METRIC).counter().count());
+    }
+
+    @Test
+    @DisplayName("Should not record a miss looked up before invalidation")
+    void shouldIgnoreMissRecordedAcrossInvalidation() {
+        // given
+        NegativeLookupCache cache = createCache(TTL, 100);
+        long stamp = cache.stamp();
+
+        // when
+        cache.invalidateAll();
+        cache.recordMissing(999L, stamp);
+
+        // then
+        assertFalse(cache.isMissing(999L));
+    }
+
+    @Test
+    @DisplayName("Should not grow beyond max size")
+    void shouldBoundSize() {
+        // given
+        NegativeLookupCache cache = createCache(TTL, 2);
+
+        // when
+        cache.recordMissing(1L, cache.stamp());
+        cache.recordMissing(2L, cache.stamp());
+        cache.recordMissing(3L, cache.stamp());
+        clock.addAndGet(TTL.toNanos());
+        cache.recordMissing(4L, cache.stamp());
+
+        // then
+        assertFalse(cache.isMissing(3L));
+        assertTrue(cache.isMissing(4L));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    @DisplayName("Should look for expired ids at most once per tenth of TTL while full")
+    void shouldPurgeExpiredIdsOncePerInterval() {
+        // given
+        NegativeLookupCache cache = createCache(TTL, 1);
+        cache.recordMissing(1L, cache.stamp());
+        clock.addAndGet(TTL.toNanos() - 1);
+        cache.recordMissing(2L, cache.stamp());
+
+        // when
+        clock.addAndGet(1);
+        cache.recordMissing(3L, cache.stamp());
+        clock.addAndGet(TTL.toNanos() / 10);
+        cache.recordMissing(4L, cache.stamp());
+
+        // then
+        assertFalse(cache.isMissing(3L));
+        assertTrue(cache.isMissing(4L));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    @DisplayName("Should not remember anything when TTL is zero")
+    void shouldBeDisabled_WhenTtlIsZero() {
+        // given
+        NegativeLookupCache cache = createCache(Duration.ZERO, 100);
+
+        // when
+        cache.recordMissing(999L, cache.stamp());
+
+        // then
+        assertFalse(cache.isMissing(999L));
+        assertEquals(0, cache.size());
+    }
+
+    private NegativeLookupCache createCache(Duration ttl, int maxSize) {
+        return new NegativeLookupCache("test", ttl, maxSize, registry, clock::get);
+    }
+}
@@ -2,6 +2,7 @@ package com.fedor.fooddelivery;
 
 import com.fedor.fooddelivery.dto.OrderRequestDto;
 import com.fedor.fooddelivery.dto.OrderResponseDto;
+import com.fedor.fooddelivery.entity.CurrencyCode;
 import com.fedor.fooddelivery.entity.Product;
 import com.fedor.fooddelivery.repository.ProductRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -60,18 +61,18 @@ class OrderIntegrationTest {
         Product product1 = new Product();
         product1.setName("Пицца Маргарита");
         product1.setDescription("Классическая пицца");
-        product1.setPrice(450.0);
+        product1.setPrice(45000);
         product1.setUrl("/margarita");
-        product1.setCurrency("RUB");
+        product1.setCurrency(CurrencyCode.RUB);
         product1 = productRepository.save(product1);
         existingProductId1 = product1.getId();
 
         Product product2 = new Product();
         product2.setName("Пицца Пепперони");
         product2.setDescription("Острая пицца");
-        product2.setPrice(550.0);
+        product2.setPrice(55000);
         product2.setUrl("/pepperoni");
-        product2.setCurrency("RUB");
+        product2.setCurrency(CurrencyCode.RUB);
         product2 = productRepository.save(product2);
         existingProductId2 = product2.getId();
     }
@@ -4,6 +4,8 @@ import com.fedor.fooddelivery.dto.OrderRequestDto;
 import com.fedor.fooddelivery.dto.OrderResponseDto;
 import com.fedor.fooddelivery.exceptions.InvalidOrderException;
 import com.fedor.fooddelivery.exceptions.ProductNotFoundException;
+import com.fedor.fooddelivery.metrics.OrderValidationMetrics;
+import com.fedor.fooddelivery.metrics.ValidationFailureReason;
 import com.fedor.fooddelivery.repository.ProductRepository;
 import com.fedor.fooddelivery.service.OrderService;
 import org.junit.jupiter.api.DisplayName;
@@ -31,6 +33,9 @@ class OrderServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private OrderValidationMetrics validationMetrics;
+
     @InjectMocks
     private OrderService orderService;
 
@@ -53,6 +58,7 @@ class OrderServiceTest {
         verify(productRepository, times(1)).existsById(11L);
         verify(productRepository, times(1)).existsById(12L);
         verify(productRepository, never()).findById(anyLong());
+        verifyNoInteractions(validationMetrics);
     }
 
     @ParameterizedTest
@@ -69,6 +75,7 @@ class OrderServiceTest {
                 () -> orderService.createOrder(request));
         assertEquals("Не указано имя клиента", exception.getMessage());
         verify(productRepository, never()).existsById(anyLong());
+        verify(validationMetrics).recordFailure(ValidationFailureReason.CUSTOMER_NAME_MISSING);
     }
 
     @ParameterizedTest
@@ -85,6 +92,7 @@ class OrderServiceTest {
                 () -> orderService.createOrder(request));
         assertEquals("Не указан номер телефона", exception.getMessage());
         verify(productRepository, never()).existsById(anyLong());
+        verify(validationMetrics).recordFailure(ValidationFailureReason.PHONE_MISSING);
     }
 
     /**
@@ -108,6 +116,7 @@ class OrderServiceTest {
                 () -> orderService.createOrder(request));
         assertEquals("Указан неверный номер телефона", exception.getMessage());
         verify(productRepository, never()).existsById(anyLong());
+        verify(validationMetrics).recordFailure(ValidationFailureReason.PHONE_INVALID);
     }
 
     @ParameterizedTest
@@ -150,6 +159,7 @@ class OrderServiceTest {
                 () -> orderService.createOrder(request));
         assertEquals("Заказ не может быть пустым", exception.getMessage());
         verify(productRepository, never()).existsById(anyLong());
+        verify(validationMetrics).recordFailure(ValidationFailureReason.EMPTY_ORDER);
     }
 
     private static Stream<Arguments> invalidOrderItemsProvider() {
@@ -172,6 +182,7 @@ class OrderServiceTest {
         assertEquals("Блюдо с ID 12 не найдено", exception.getMessage());
         verify(productRepository, times(1)).existsById(11L);
         verify(productRepository, times(1)).existsById(12L);
+        verify(validationMetrics).recordFailure(ValidationFailureReason.PRODUCT_NOT_FOUND);
     }
 
     private OrderRequestDto createValidOrderRequest() {
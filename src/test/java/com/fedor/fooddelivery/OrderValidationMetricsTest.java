@@ -0,0 +1,47 @@
+package com.fedor.fooddelivery;
+
+import com.fedor.fooddelivery.metrics.OrderValidationMetrics;
+import com.fedor.fooddelivery.metrics.ValidationFailureReason;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("Order Validation Metrics Test")
+class OrderValidationMetricsTest {
+
+    @Test
+    @DisplayName("Should register a counter for every failure reason up front")
+    void shouldRegisterCounterForEveryReason() {
+        // given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        // when
+        new OrderValidationMetrics(registry);
+
+        // then
+        for (ValidationFailureReason reason : ValidationFailureReason.values()) {
+            assertEquals(0.0, registry.get(OrderValidationMetrics.METRIC_NAME)
+                    .tag("reason", reason.getTag()).counter().count());
+        }
+    }
+
+    @Test
+    @DisplayName("Should increment only the counter of the given reason")
+    void shouldIncrementCounterOfGivenReason() {
+        // given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        OrderValidationMetrics metrics = new OrderValidationMetrics(registry);
+
+        // when
+        metrics.recordFailure(ValidationFailureReason.PHONE_INVALID);
+        metrics.recordFailure(ValidationFailureReason.PHONE_INVALID);
+
+        // then
+        assertEquals(2.0, registry.get(OrderValidationMetrics.METRIC_NAME)
+                .tag("reason", "phone_invalid").counter().count());
+        assertEquals(0.0, registry.get(OrderValidationMetrics.METRIC_NAME)
+                .tag("reason", "empty_order").counter().count());
+    }
+}
@@ -0,0 +1,59 @@
+package com.fedor.fooddelivery;
+
+import com.fedor.fooddelivery.controller.ProductController;
+import com.fedor.fooddelivery.dto.ProductDto;
+import com.fedor.fooddelivery.entity.CurrencyCode;
+import com.fedor.fooddelivery.exceptions.ProductNotFoundException;
+import com.fedor.fooddelivery.service.ProductService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ProductController.class)
+@DisplayName("Product Controller Test")
+class ProductControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ProductService productService;
+
+    @Test
+    @DisplayName("Should return product with description and category id")
+    void shouldReturnProduct() throws Exception {
+        // given
+        ProductDto product = new ProductDto(12L, "Шаверма Классическая", "Лаваш, куриное мясо, 400 гр",
+                22000L, 1L, "https://drive.google.com", CurrencyCode.RUB);
+        when(productService.getProduct(12L)).thenReturn(product);
+
+        // when & then
+        mockMvc.perform(get("/products/{id}", 12L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(12L))
+                .andExpect(jsonPath("$.description").value("Лаваш, куриное мясо, 400 гр"))
+                .andExpect(jsonPath("$.price").value(22000))
+                .andExpect(jsonPath("$.currency").value("RUB"))
+                .andExpect(jsonPath("$.categoryId").value(1L));
+    }
+
+    @Test
+    @DisplayName("Should return 404 when product not found")
+    void shouldReturnNotFound_WhenProductNotFound() throws Exception {
+        // given
+        when(productService.getProduct(999L)).thenThrow(new ProductNotFoundException(999L));
+
+        // when & then
+        mockMvc.perform(get("/products/{id}", 999L))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Блюдо с ID 999 не найдено"));
+    }
+}
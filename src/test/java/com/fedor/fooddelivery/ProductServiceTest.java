@@ -0,0 +1,89 @@
+package com.fedor.fooddelivery;
+
+import com.fedor.fooddelivery.cache.CatalogCacheManager;
+import com.fedor.fooddelivery.cache.CatalogLoadTransaction;
+import com.fedor.fooddelivery.dto.ProductDto;
+import com.fedor.fooddelivery.entity.CurrencyCode;
+import com.fedor.fooddelivery.exceptions.ProductNotFoundException;
+import com.fedor.fooddelivery.repository.CatalogJdbcRepository;
+import com.fedor.fooddelivery.repository.ProductRepository;
+import com.fedor.fooddelivery.service.ProductService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Product Service Test")
+class ProductServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private CatalogJdbcRepository catalogJdbcRepository;
+
+    private CatalogCacheManager catalogCacheManager;
+    private ProductService productService;
+
+    @BeforeEach
+    void setUp() {
+        catalogCacheManager = new CatalogCacheManager(Duration.ofMinutes(1), Duration.ofMinutes(10), 0.2, 1,
+                Duration.ofSeconds(30), 100, new SimpleMeterRegistry());
+        productService = new ProductService(productRepository,
+                new CatalogLoadTransaction(catalogJdbcRepository, transactionManager, ""), catalogCacheManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        catalogCacheManager.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should load a product in a read-only transaction")
+    void shouldLoadProductInTransaction() {
+        // given
+        ProductDto product = new ProductDto(12L, "Шаверма Классическая", "Лаваш", 22000L, 1L, "/p/12",
+                CurrencyCode.RUB);
+        when(productRepository.findProductDtoById(12L)).thenReturn(Optional.of(product));
+
+        // when
+        ProductDto result = productService.getProduct(12L);
+
+        // then
+        assertEquals(product, result);
+        verify(transactionManager).getTransaction(any());
+    }
+
+    @Test
+    @DisplayName("Should answer a recently missing product without a repository call or a transaction")
+    void shouldAnswerCachedMiss_WithoutTransaction() {
+        // given
+        when(productRepository.findProductDtoById(99L)).thenReturn(Optional.empty());
+        assertThrows(ProductNotFoundException.class, () -> productService.getProduct(99L));
+        clearInvocations(productRepository, transactionManager);
+
+        // when & then
+        assertThrows(ProductNotFoundException.class, () -> productService.getProduct(99L));
+        verifyNoInteractions(productRepository, transactionManager);
+    }
+}
@@ -0,0 +1,33 @@
+package com.fedor.fooddelivery;
+
+import com.fedor.fooddelivery.metrics.QueryCountingFilter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Бюджет SQL запросов эндпоинта для тестов MockMvc:
+ * {@code mockMvc.perform(get("/catalog/{id}", id)).andExpect(QueryBudget.atMost(2))}.
+ * Число запросов берется из заголовка X-Query-Count, поэтому MockMvc должен быть с фильтрами
+ * (@AutoConfigureMockMvc), а кэши каталога - отключены, как в профиле embedded
+ */
+final class QueryBudget {
+
+    private QueryBudget() {
+    }
+
+    static ResultMatcher atMost(int statements) {
+        return result -> {
+            String header = result.getResponse().getHeader(QueryCountingFilter.COUNT_HEADER);
+            assertNotNull(header, "Response has no " + QueryCountingFilter.COUNT_HEADER + " header");
+            int actual = Integer.parseInt(header);
+            if (actual > statements) {
+                MockHttpServletRequest request = result.getRequest();
+                fail(String.format("%s %s executed %d SQL statements, budget is %d",
+                        request.getMethod(), request.getRequestURI(), actual, statements));
+            }
+        };
+    }
+}
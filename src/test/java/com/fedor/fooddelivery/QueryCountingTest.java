@@ -0,0 +1,151 @@
+package com.fedor.fooddelivery;
+
+import com.fedor.fooddelivery.entity.Category;
+import com.fedor.fooddelivery.entity.Product;
+import com.fedor.fooddelivery.metrics.QueryCountingFilter;
+import com.fedor.fooddelivery.repository.CategoryRepository;
+import com.fedor.fooddelivery.repository.ProductRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Подсчет SQL запросов на HTTP запрос: заголовки ответа, метрики и бюджет запросов в тестах.
+ * Кэши ответов каталога отключены, чтобы каждый запрос доходил до БД
+ */
+@SpringBootTest(properties = {
+        "app.catalog.cache.hard-ttl=0s",
+        "app.catalog.negative-cache.ttl=0s"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("embedded")
+@DisplayName("Query Counting Test")
+class QueryCountingTest {
+
+    private static final int PRODUCTS = 10;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+        category = new Category();
+        category.setName("Шаверма");
+        category.setUrl("/shawarma");
+        category = categoryRepository.save(category);
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setName("Шаверма " + i);
+            product.setDescription("Лаваш, курица");
+            product.setPrice(20000 + i * 100L);
+            product.setUrl("/p/" + i);
+            product.setCategory(category);
+            productRepository.save(product);
+        }
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    @Test
+    @DisplayName("Should report statement count and time in response headers")
+    void shouldReportQueriesInHeaders() throws Exception {
+        // when & then
+        // Категория по id и товары категории
+        mockMvc.perform(get("/catalog/{id}", category.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(QueryCountingFilter.COUNT_HEADER, "2"))
+                .andExpect(header().exists(QueryCountingFilter.TIME_HEADER))
+                .andExpect(QueryBudget.atMost(2));
+    }
+
+    @Test
+    @DisplayName("Should load several categories with products within the same query budget")
+    void shouldLoadSeveralCategoriesWithinBudget() throws Exception {
+        // given
+        Category salads = new Category();
+        salads.setName("Салаты");
+        salads.setUrl("/salads");
+        salads = categoryRepository.save(salads);
+
+        // when & then
+        // Категории одним запросом и товары всех категорий одним запросом
+        mockMvc.perform(get("/catalog")
+                        .param("ids", category.getId() + "," + salads.getId() + "," + Long.MAX_VALUE)
+                        .param("include", "products"))
+                .andExpect(status().isOk())
+                .andExpect(QueryBudget.atMost(2));
+    }
+
+    @Test
+    @DisplayName("Should record statements per request in metrics by uri pattern")
+    void shouldRecordQueriesInMetrics() throws Exception {
+        // given
+        long before = statementsSummary() != null ? statementsSummary().count() : 0;
+
+        // when
+        mockMvc.perform(get("/catalog/{id}", category.getId())).andExpect(status().isOk());
+
+        // then
+        DistributionSummary summary = statementsSummary();
+        assertNotNull(summary);
+        assertEquals(before + 1, summary.count());
+    }
+
+    @Test
+    @DisplayName("Should fail the test when an endpoint exceeds its query budget")
+    void shouldFail_WhenBudgetExceeded() {
+        // when & then
+        AssertionError error = assertThrows(AssertionError.class,
+                () -> mockMvc.perform(get("/catalog/{id}", category.getId())).andExpect(QueryBudget.atMost(1)));
+        assertEquals("GET /catalog/" + category.getId() + " executed 2 SQL statements, budget is 1",
+                error.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should not count statements outside of HTTP requests")
+    void shouldNotCountOutsideRequests() throws Exception {
+        // given
+        productRepository.findAll();
+
+        // when & then
+        mockMvc.perform(get("/products/{id}", Long.MAX_VALUE))
+                .andExpect(status().isNotFound())
+                .andExpect(header().string(QueryCountingFilter.COUNT_HEADER, "1"));
+    }
+
+    private DistributionSummary statementsSummary() {
+        return meterRegistry.find("app.http.jdbc.statements")
+                .tag("method", "GET").tag("uri", "/catalog/{id}").summary();
+    }
+}
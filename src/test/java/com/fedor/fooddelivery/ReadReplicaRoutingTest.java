@@ -0,0 +1,137 @@
+package com.fedor.fooddelivery;
+
+import com.fedor.fooddelivery.dto.CategoryDto;
+import com.fedor.fooddelivery.dto.OrderRequestDto;
+import com.fedor.fooddelivery.dto.ProductDto;
+import com.fedor.fooddelivery.service.CatalogService;
+import com.fedor.fooddelivery.service.CatalogVersionService;
+import com.fedor.fooddelivery.service.OrderService;
+import com.fedor.fooddelivery.service.ProductService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Две встроенные БД H2 вместо основной PostgreSQL и ее реплики.
+ * В каждой лежат разные данные, поэтому по ответу видно, куда ушел запрос.
+ * Вторая реплика недоступна и должна пропускаться. Версия каталога на реплике задается вручную:
+ * по умолчанию реплика впереди основной БД, а отставание изображается нулевой версией.
+ * Кэши ответов каталога отключены, чтобы каждое чтение доходило до БД.
+ * Выбор реплик и переход на основную БД проверяются в ReplicaRoundRobinDataSourceTest
+ */
+@SpringBootTest(properties = {
+        "app.catalog.cache.hard-ttl=0s",
+        "app.catalog.negative-cache.ttl=0s",
+        "spring.datasource.url=" + ReadReplicaRoutingTest.PRIMARY_URL,
+        "app.datasource.replicas[0].url=" + ReadReplicaRoutingTest.REPLICA_URL,
+        "app.datasource.replicas[1].url=jdbc:h2:tcp://localhost:1/unreachable",
+        "app.datasource.connection-timeout=250ms",
+        "app.datasource.retry-interval=1h"
+})
+@ActiveProfiles("embedded")
+@DisplayName("Read Replica Routing Test")
+class ReadReplicaRoutingTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing_primary;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing_replica;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final JdbcTemplate primary = new JdbcTemplate(new DriverManagerDataSource(PRIMARY_URL, "sa", ""));
+    private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @BeforeEach
+    void setUp() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        // Схему основной БД создает Hibernate, на реплике она повторяется вручную
+        replica.execute("CREATE TABLE IF NOT EXISTS categories (id BIGINT PRIMARY KEY, name VARCHAR(255), "
+                + "url VARCHAR(255), change_version BIGINT DEFAULT 0 NOT NULL)");
+        replica.execute("CREATE TABLE IF NOT EXISTS products (id BIGINT PRIMARY KEY, name VARCHAR(255), "
+                + "description VARCHAR(255), price_minor BIGINT, category_id BIGINT, url VARCHAR(255), "
+                + "currency VARCHAR(3), change_version BIGINT DEFAULT 0 NOT NULL)");
+        replica.execute("CREATE TABLE IF NOT EXISTS catalog_deletions (change_version BIGINT PRIMARY KEY)");
+        primary.update("DELETE FROM products");
+        primary.update("DELETE FROM categories");
+        replica.update("DELETE FROM categories");
+
+        primary.update("INSERT INTO categories(id, name, url) VALUES (1, 'primary', '/p')");
+        primary.update("INSERT INTO products(id, name, description, price_minor, category_id, url, currency) "
+                + "VALUES (10, 'Шаверма', 'Лаваш', 25000, 1, '/p/10', 'RUB')");
+        replica.update("INSERT INTO categories(id, name, url, change_version) VALUES (1, 'replica', '/r', 1000000)");
+    }
+
+    @Test
+    @DisplayName("Should read catalog from a healthy replica")
+    void shouldReadCatalogFromReplica() {
+        // when
+        List<CategoryDto> first = catalogService.getAllCategories();
+        List<CategoryDto> second = catalogService.getAllCategories();
+
+        // then
+        assertEquals("replica", first.get(0).getName());
+        assertEquals("replica", second.get(0).getName());
+    }
+
+    @Test
+    @DisplayName("Should read from the primary until the replica reaches the published catalog version")
+    void shouldReadFromPrimary_WhenReplicaBehindPublishedVersion() {
+        // given
+        replica.update("UPDATE categories SET change_version = 0");
+        primary.update("INSERT INTO categories(id, name, url) VALUES (2, 'added', '/a')");
+        long published = catalogVersionService.publishNewVersion();
+
+        // when
+        List<CategoryDto> behind = catalogService.getAllCategories();
+        CatalogService.CategoryProducts added = catalogService.getCategoryProducts(2L);
+        ProductDto product = productService.getProduct(10L);
+        replica.update("UPDATE categories SET change_version = ?", published);
+        List<CategoryDto> caughtUp = catalogService.getAllCategories();
+
+        // then
+        assertEquals(List.of("primary", "added"), behind.stream().map(CategoryDto::getName).toList());
+        assertEquals("added", added.category().getName());
+        assertEquals("Шаверма", product.getName());
+        assertEquals("replica", caughtUp.get(0).getName());
+    }
+
+    @Test
+    @DisplayName("Should validate orders against the primary")
+    void shouldValidateOrdersOnPrimary() {
+        // given
+        OrderRequestDto order = new OrderRequestDto();
+        order.setCustomerName("Иван Иванов");
+        order.setPhoneNumber("+79110001122");
+        OrderRequestDto.OrderItemDto item = new OrderRequestDto.OrderItemDto();
+        item.setProductId(10L);
+        item.setQuantity(1);
+        order.setItems(List.of(item));
+
+        // when & then
+        assertTrue(orderService.createOrder(order).isSuccess());
+    }
+}
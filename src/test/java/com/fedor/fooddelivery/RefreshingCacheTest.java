@@ -0,0 +1,158 @@
+package com.fedor.fooddelivery;
+
+import com.fedor.fooddelivery.cache.RefreshingCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Refreshing Cache Test")
+class RefreshingCacheTest {
+
+    private static final Duration SOFT_TTL = Duration.ofMinutes(1);
+    private static final Duration HARD_TTL = Duration.ofMinutes(10);
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1);
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should load once while the value is fresh")
+    void shouldServeFreshValueFromCache() {
+        // given
+        RefreshingCache<Long, String> cache = createCache(HARD_TTL, key -> "v" + loads.incrementAndGet());
+
+        // when
+        String first = cache.get(1L);
+        clock.addAndGet(SOFT_TTL.toNanos() - 1);
+        String second = cache.get(1L);
+
+        // then
+        assertEquals("v1", first);
+        assertEquals("v1", second);
+        assertEquals(1, loads.get());
+        assertEquals(1.0, registry.get(RefreshingCache.REQUESTS_METRIC).tag("result", "hit").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should serve stale value and refresh it in background after soft TTL")
+    void shouldServeStaleValueWhileRefreshing() throws InterruptedException {
+        // given
+        RefreshingCache<Long, String> cache = createCache(HARD_TTL, key -> "v" + loads.incrementAndGet());
+        cache.get(1L);
+        clock.addAndGet(SOFT_TTL.toNanos() * 2);
+
+        // when
+        String stale = cache.get(1L);
+        waitUntil(() -> registry.get(RefreshingCache.REFRESH_METRIC).tag("outcome", "success").timer().count() == 1);
+
+        // then
+        assertEquals("v1", stale);
+        assertEquals("v2", cache.get(1L));
+        assertEquals(2, loads.get());
+        assertEquals(1, registry.get(RefreshingCache.STALENESS_METRIC).timer().count());
+        assertEquals(1, registry.get(RefreshingCache.REFRESH_METRIC).tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should keep serving stale value when background refresh fails")
+    void shouldKeepStaleValue_WhenRefreshFails() throws InterruptedException {
+        // given
+        RefreshingCache<Long, String> cache = createCache(HARD_TTL, key -> {
+            if (loads.incrementAndGet() > 1) {
+                throw new IllegalStateException("БД недоступна");
+            }
+            return "v1";
+        });
+        cache.get(1L);
+        clock.addAndGet(SOFT_TTL.toNanos() * 2);
+
+        // when
+        String stale = cache.get(1L);
+        waitUntil(() -> registry.get(RefreshingCache.REFRESH_METRIC).tag("outcome", "failure").timer().count() == 1);
+
+        // then
+        assertEquals("v1", stale);
+        assertEquals("v1", cache.get(1L));
+    }
+
+    @Test
+    @DisplayName("Should load in the caller thread after hard TTL")
+    void shouldLoadSynchronously_AfterHardTtl() {
+        // given
+        RefreshingCache<Long, String> cache = createCache(HARD_TTL, key -> {
+            if (loads.incrementAndGet() > 1) {
+                throw new IllegalStateException("БД недоступна");
+            }
+            return "v1";
+        });
+        cache.get(1L);
+        clock.addAndGet(HARD_TTL.toNanos());
+
+        // when / then
+        assertThrows(IllegalStateException.class, () -> cache.get(1L));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should not keep values loaded before invalidation")
+    void shouldDropValues_OnInvalidateAll() {
+        // given
+        RefreshingCache<Long, String> cache = createCache(HARD_TTL, key -> "v" + loads.incrementAndGet());
+        cache.get(1L);
+
+        // when
+        cache.invalidateAll();
+        String reloaded = cache.get(1L);
+
+        // then
+        assertEquals("v2", reloaded);
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    @DisplayName("Should call loader on every request when hard TTL is zero")
+    void shouldBypassCache_WhenDisabled() {
+        // given
+        RefreshingCache<Long, String> cache = createCache(Duration.ZERO, key -> "v" + loads.incrementAndGet());
+
+        // when
+        cache.get(1L);
+        cache.get(1L);
+
+        // then
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.size());
+    }
+
+    private RefreshingCache<Long, String> createCache(Duration hardTtl, Function<Long, String> loader) {
+        return new RefreshingCache<>("test", loader, new RefreshingCache.Settings(SOFT_TTL, hardTtl, 0.0),
+                scheduler, registry, clock::get);
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertTrue(condition.getAsBoolean(), "Условие не выполнилось за 5 секунд");
+    }
+}
@@ -0,0 +1,94 @@
+package com.fedor.fooddelivery;
+
+import com.fedor.fooddelivery.datasource.ReplicaRoundRobinDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Replica Round Robin DataSource Test")
+class ReplicaRoundRobinDataSourceTest {
+
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection firstConnection = mock(Connection.class);
+    private final Connection secondConnection = mock(Connection.class);
+
+    @Test
+    @DisplayName("Should alternate between healthy replicas")
+    void shouldAlternateBetweenReplicas() throws SQLException {
+        // given
+        DataSource first = dataSource(firstConnection);
+        DataSource second = dataSource(secondConnection);
+        ReplicaRoundRobinDataSource dataSource =
+                new ReplicaRoundRobinDataSource(List.of(first, second), dataSource(primaryConnection), Duration.ofHours(1));
+
+        // when & then
+        assertSame(firstConnection, dataSource.getConnection());
+        assertSame(secondConnection, dataSource.getConnection());
+        assertSame(firstConnection, dataSource.getConnection());
+    }
+
+    @Test
+    @DisplayName("Should skip a failed replica until the retry interval passes")
+    void shouldSkipFailedReplica() throws SQLException {
+        // given
+        DataSource failing = mock(DataSource.class);
+        when(failing.getConnection()).thenThrow(new SQLException("connection refused"));
+        DataSource healthy = dataSource(secondConnection);
+        ReplicaRoundRobinDataSource dataSource =
+                new ReplicaRoundRobinDataSource(List.of(failing, healthy), dataSource(primaryConnection), Duration.ofHours(1));
+
+        // when
+        for (int i = 0; i < 4; i++) {
+            assertSame(secondConnection, dataSource.getConnection());
+        }
+
+        // then
+        verify(failing, times(1)).getConnection();
+    }
+
+    @Test
+    @DisplayName("Should retry a failed replica after the retry interval")
+    void shouldRetryFailedReplica() throws SQLException {
+        // given
+        DataSource recovering = mock(DataSource.class);
+        when(recovering.getConnection()).thenThrow(new SQLException("connection refused")).thenReturn(firstConnection);
+        ReplicaRoundRobinDataSource dataSource =
+                new ReplicaRoundRobinDataSource(List.of(recovering), dataSource(primaryConnection), Duration.ZERO);
+
+        // when & then
+        assertSame(primaryConnection, dataSource.getConnection());
+        assertSame(firstConnection, dataSource.getConnection());
+    }
+
+    @Test
+    @DisplayName("Should fall back to the primary when all replicas are down")
+    void shouldFallBackToPrimary() throws SQLException {
+        // given
+        DataSource failing = mock(DataSource.class);
+        when(failing.getConnection()).thenThrow(new SQLException("connection refused"));
+        ReplicaRoundRobinDataSource dataSource =
+                new ReplicaRoundRobinDataSource(List.of(failing), dataSource(primaryConnection), Duration.ofHours(1));
+
+        // when & then
+        assertSame(primaryConnection, dataSource.getConnection());
+        assertSame(primaryConnection, dataSource.getConnection());
+        verify(failing, times(1)).getConnection();
+    }
+
+    private static DataSource dataSource(Connection connection) throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        return dataSource;
+    }
+}
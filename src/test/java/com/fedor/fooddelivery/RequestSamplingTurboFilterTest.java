@@ -0,0 +1,96 @@
+package com.fedor.fooddelivery;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import com.fedor.fooddelivery.logging.RequestLoggingFilter;
+import com.fedor.fooddelivery.logging.RequestSamplingTurboFilter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("Request Sampling Turbo Filter Test")
+class RequestSamplingTurboFilterTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final RequestSamplingTurboFilter filter = new RequestSamplingTurboFilter();
+    private final Logger appLogger = context.getLogger("com.fedor.fooddelivery.service.CatalogService");
+    private final Logger frameworkLogger = context.getLogger("org.springframework.web");
+
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
+    @Test
+    @DisplayName("Should accept debug logs of sampled request")
+    void shouldAcceptDebug_WhenRequestSampled() {
+        // given
+        MDC.put(RequestLoggingFilter.MDC_SAMPLED, RequestLoggingFilter.SAMPLED);
+
+        // when & then
+        assertEquals(FilterReply.ACCEPT, decide(appLogger, Level.DEBUG));
+        assertEquals(FilterReply.ACCEPT, decide(appLogger, Level.TRACE));
+    }
+
+    @Test
+    @DisplayName("Should deny debug logs of not sampled request")
+    void shouldDenyDebug_WhenRequestNotSampled() {
+        // given
+        MDC.put(RequestLoggingFilter.MDC_SAMPLED, RequestLoggingFilter.NOT_SAMPLED);
+
+        // when & then
+        assertEquals(FilterReply.DENY, decide(appLogger, Level.DEBUG));
+        assertEquals(FilterReply.DENY, decide(appLogger, Level.TRACE));
+    }
+
+    @Test
+    @DisplayName("Should not affect info and higher levels")
+    void shouldNotAffectInfoAndHigher() {
+        // given
+        MDC.put(RequestLoggingFilter.MDC_SAMPLED, RequestLoggingFilter.NOT_SAMPLED);
+
+        // when & then
+        assertEquals(FilterReply.NEUTRAL, decide(appLogger, Level.INFO));
+        assertEquals(FilterReply.NEUTRAL, decide(appLogger, Level.ERROR));
+    }
+
+    @Test
+    @DisplayName("Should not affect loggers outside application package")
+    void shouldNotAffectForeignLoggers() {
+        // given
+        MDC.put(RequestLoggingFilter.MDC_SAMPLED, RequestLoggingFilter.NOT_SAMPLED);
+
+        // when & then
+        assertEquals(FilterReply.NEUTRAL, decide(frameworkLogger, Level.DEBUG));
+    }
+
+    @Test
+    @DisplayName("Should deny info logs of warm-up requests but keep warnings")
+    void shouldDenyInfo_WhenWarmupRequest() {
+        // given
+        MDC.put(RequestLoggingFilter.MDC_SAMPLED, RequestLoggingFilter.SAMPLED);
+        MDC.put(RequestLoggingFilter.MDC_WARMUP, RequestLoggingFilter.SAMPLED);
+
+        // when & then
+        assertEquals(FilterReply.DENY, decide(appLogger, Level.INFO));
+        assertEquals(FilterReply.DENY, decide(appLogger, Level.DEBUG));
+        assertEquals(FilterReply.NEUTRAL, decide(appLogger, Level.WARN));
+        assertEquals(FilterReply.NEUTRAL, decide(frameworkLogger, Level.INFO));
+    }
+
+    @Test
+    @DisplayName("Should keep regular levels outside of request")
+    void shouldBeNeutral_OutsideOfRequest() {
+        // when & then
+        assertEquals(FilterReply.NEUTRAL, decide(appLogger, Level.DEBUG));
+    }
+
+    private FilterReply decide(Logger logger, Level level) {
+        return filter.decide(null, logger, level, "message", null, null);
+    }
+}
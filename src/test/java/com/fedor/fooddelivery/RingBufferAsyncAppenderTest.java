@@ -0,0 +1,148 @@
+package com.fedor.fooddelivery;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.core.read.ListAppender;
+import com.fedor.fooddelivery.logging.RingBufferAsyncAppender;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Ring Buffer Async Appender Test")
+class RingBufferAsyncAppenderTest {
+
+    private final LoggerContext context = new LoggerContext();
+
+    @BeforeEach
+    void setUp() {
+        context.setMDCAdapter(new LogbackMDCAdapter());
+    }
+
+    @Test
+    @DisplayName("Should deliver events in order to attached appender")
+    void shouldDeliverEventsInOrder() {
+        // given
+        ListAppender<ILoggingEvent> target = new ListAppender<>();
+        RingBufferAsyncAppender appender = createAppender(16, target);
+
+        // when
+        for (int i = 0; i < 1000; i++) {
+            appender.doAppend(createEvent("event " + i));
+        }
+        appender.stop();
+
+        // then
+        assertEquals(1000, target.list.size() + appender.getDroppedCount());
+        int previous = -1;
+        for (ILoggingEvent event : target.list) {
+            int current = Integer.parseInt(event.getFormattedMessage().substring("event ".length()));
+            assertTrue(current > previous);
+            previous = current;
+        }
+    }
+
+    @Test
+    @DisplayName("Should deliver all events from concurrent producers when buffer is large enough")
+    void shouldDeliverAllEvents_FromConcurrentProducers() throws Exception {
+        // given
+        ListAppender<ILoggingEvent> target = new ListAppender<>();
+        RingBufferAsyncAppender appender = createAppender(8192, target);
+        int threads = 4;
+        int perThread = 1000;
+        List<Thread> producers = new ArrayList<>();
+
+        // when
+        for (int t = 0; t < threads; t++) {
+            Thread producer = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    appender.doAppend(createEvent("event"));
+                }
+            });
+            producers.add(producer);
+            producer.start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        appender.stop();
+
+        // then
+        assertEquals(threads * perThread, target.list.size());
+        assertEquals(0, appender.getDroppedCount());
+    }
+
+    @Test
+    @DisplayName("Should drop events instead of blocking when buffer is full")
+    void shouldDropEvents_WhenBufferIsFull() throws Exception {
+        // given
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingAppender target = new BlockingAppender(release);
+        RingBufferAsyncAppender appender = createAppender(4, target);
+
+        // when
+        long start = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            appender.doAppend(createEvent("event " + i));
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        release.countDown();
+        appender.stop();
+
+        // then
+        assertTrue(appender.getDroppedCount() > 0);
+        assertTrue(elapsedMillis < 1000);
+        assertEquals(100, target.received + appender.getDroppedCount());
+    }
+
+    private RingBufferAsyncAppender createAppender(int bufferSize, AppenderBase<ILoggingEvent> target) {
+        target.setContext(context);
+        target.start();
+        RingBufferAsyncAppender appender = new RingBufferAsyncAppender();
+        appender.setContext(context);
+        appender.setName("test");
+        appender.setBufferSize(bufferSize);
+        appender.setMaxFlushTimeMillis(5000);
+        appender.addAppender(target);
+        appender.start();
+        return appender;
+    }
+
+    private ILoggingEvent createEvent(String message) {
+        LoggingEvent event = new LoggingEvent();
+        event.setLoggerName("test");
+        event.setLevel(Level.INFO);
+        event.setMessage(message);
+        event.setLoggerContext(context);
+        return event;
+    }
+
+    private static class BlockingAppender extends AppenderBase<ILoggingEvent> {
+        private final CountDownLatch release;
+        private int received;
+
+        BlockingAppender(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            received++;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.fedor.fooddelivery;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import com.fedor.fooddelivery.tracing.RingBufferSpanHandler;
+import com.fedor.fooddelivery.tracing.SpanRecord;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Ring Buffer Span Handler Test")
+class RingBufferSpanHandlerTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    @DisplayName("Should keep only the latest spans and append every span to the file")
+    void shouldKeepLatestSpans() throws IOException {
+        // given
+        Path file = tempDir.resolve("spans.jsonl");
+        RingBufferSpanHandler handler = new RingBufferSpanHandler(2, file.toString());
+
+        // when
+        for (int i = 1; i <= 3; i++) {
+            finish(handler, i, "span-" + i);
+        }
+        handler.close();
+
+        // then
+        List<SpanRecord> spans = handler.spans();
+        assertEquals(List.of("span-2", "span-3"), spans.stream().map(SpanRecord::name).toList());
+        assertEquals(250, spans.get(0).durationMicros());
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(0).contains("\"name\":\"span-1\""), lines.get(0));
+        assertEquals(0, handler.getDroppedCount());
+    }
+
+    private void finish(RingBufferSpanHandler handler, long spanId, String name) {
+        TraceContext context = TraceContext.newBuilder().traceId(1L).spanId(spanId).build();
+        MutableSpan span = new MutableSpan(context, null);
+        span.name(name);
+        span.startTimestamp(1_000);
+        span.finishTimestamp(1_250);
+        handler.end(context, span, SpanHandler.Cause.FINISHED);
+    }
+}
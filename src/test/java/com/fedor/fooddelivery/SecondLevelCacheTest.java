@@ -0,0 +1,137 @@
+package com.fedor.fooddelivery;
+
+import com.fedor.fooddelivery.entity.Category;
+import com.fedor.fooddelivery.entity.Product;
+import com.fedor.fooddelivery.importer.CatalogImportFormat;
+import com.fedor.fooddelivery.importer.CatalogImportService;
+import com.fedor.fooddelivery.repository.CategoryRepository;
+import com.fedor.fooddelivery.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest
+@ActiveProfiles("embedded")
+@DisplayName("Second Level Cache Test")
+class SecondLevelCacheTest {
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+
+        category = new Category();
+        category.setName("Шаверма");
+        category.setUrl("/shawarma");
+        category = categoryRepository.save(category);
+        saveProduct("Шаверма Классическая", 22000);
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Should serve repeated findById from the second-level cache")
+    void shouldCacheCategoryById() {
+        // given
+        categoryRepository.findById(category.getId()).orElseThrow();
+        statistics.clear();
+
+        // when
+        categoryRepository.findById(category.getId()).orElseThrow();
+        categoryRepository.findById(category.getId()).orElseThrow();
+
+        // then
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(2, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    @DisplayName("Should cache findByCategoryId and invalidate it on repository writes")
+    void shouldCacheQueryAndInvalidateOnWrite() {
+        // given
+        productRepository.findByCategoryId(category.getId());
+        productRepository.findByCategoryId(category.getId());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+
+        // when
+        saveProduct("Шаверма Сырная", 28000);
+
+        // then
+        assertEquals(2, productRepository.findByCategoryId(category.getId()).size());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    @DisplayName("Should evict cached entities after a JDBC catalog import")
+    void shouldEvictAfterImport() {
+        // given
+        categoryRepository.findById(category.getId()).orElseThrow();
+        String csv = """
+                category_id,category_name,category_url,product_id,product_name,description,price,product_url,currency
+                %d,Шаверма и роллы,/shawarma,,,,,,
+                """.formatted(category.getId());
+
+        // when
+        catalogImportService.importCatalog(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), CatalogImportFormat.CSV);
+
+        // then
+        assertEquals("Шаверма и роллы", categoryRepository.findById(category.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    @DisplayName("Should expose cache hit and miss metrics")
+    void shouldExposeCacheMetrics() {
+        // when
+        categoryRepository.findById(category.getId()).orElseThrow();
+
+        // then
+        assertNotNull(meterRegistry.find("hibernate.second.level.cache.requests")
+                .tag("region", Category.class.getName())
+                .tag("result", "hit")
+                .functionCounter());
+    }
+
+    private void saveProduct(String name, long price) {
+        Product product = new Product();
+        product.setName(name);
+        product.setDescription("Лаваш");
+        product.setPrice(price);
+        product.setCategory(category);
+        product.setUrl("/p");
+        productRepository.save(product);
+    }
+}
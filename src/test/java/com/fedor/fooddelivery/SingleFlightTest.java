@@ -0,0 +1,158 @@
+package com.fedor.fooddelivery;
+
+import com.fedor.fooddelivery.cache.SingleFlight;
+import com.fedor.fooddelivery.exceptions.CatalogLoadTimeoutException;
+import com.fedor.fooddelivery.exceptions.CategoryNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Single Flight Test")
+class SingleFlightTest {
+
+    private static final int CALLERS = 16;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should run the loader once for concurrent callers of the same key")
+    void shouldCoalesceConcurrentLoads() throws Exception {
+        // given
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>(Duration.ofSeconds(5));
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> leader = executor.submit(() -> singleFlight.load(1L, () -> {
+            loads.incrementAndGet();
+            await(release);
+            return "Шаверма";
+        }));
+        waitUntilInFlight(singleFlight);
+
+        // when
+        CountDownLatch arrived = new CountDownLatch(CALLERS - 1);
+        List<Future<String>> followers = new ArrayList<>();
+        for (int i = 1; i < CALLERS; i++) {
+            followers.add(executor.submit(() -> {
+                arrived.countDown();
+                return singleFlight.load(1L, () -> {
+                    loads.incrementAndGet();
+                    return "Лишняя загрузка";
+                });
+            }));
+        }
+        arrived.await(5, TimeUnit.SECONDS);
+        // Даем ожидающим дойти от countDown до присоединения к загрузке
+        Thread.sleep(200);
+        release.countDown();
+
+        // then
+        assertEquals("Шаверма", leader.get(5, TimeUnit.SECONDS));
+        for (Future<String> follower : followers) {
+            assertEquals("Шаверма", follower.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    @Test
+    @DisplayName("Should pass the loader exception to every waiting caller")
+    void shouldPropagateLoaderException() throws Exception {
+        // given
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>(Duration.ofSeconds(5));
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> leader = executor.submit(() -> singleFlight.load(999L, () -> {
+            await(release);
+            throw new CategoryNotFoundException(999L);
+        }));
+        waitUntilInFlight(singleFlight);
+        CountDownLatch arrived = new CountDownLatch(1);
+        Future<String> follower = executor.submit(() -> {
+            arrived.countDown();
+            return singleFlight.load(999L, () -> "Лишняя загрузка");
+        });
+        arrived.await(5, TimeUnit.SECONDS);
+        Thread.sleep(200);
+
+        // when
+        release.countDown();
+
+        // then
+        Exception leaderError = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+        Exception followerError = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(CategoryNotFoundException.class, leaderError.getCause());
+        assertInstanceOf(CategoryNotFoundException.class, followerError.getCause());
+    }
+
+    @Test
+    @DisplayName("Should throw CatalogLoadTimeoutException when the load takes longer than the timeout")
+    void shouldTimeOutWaitingCaller() throws Exception {
+        // given
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>(Duration.ofMillis(50));
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> leader = executor.submit(() -> singleFlight.load(1L, () -> {
+            await(release);
+            return "Шаверма";
+        }));
+        waitUntilInFlight(singleFlight);
+
+        // when
+        CatalogLoadTimeoutException exception = assertThrows(CatalogLoadTimeoutException.class,
+                () -> singleFlight.load(1L, () -> "Лишняя загрузка"));
+        release.countDown();
+
+        // then
+        assertTrue(exception.getMessage().contains("50 мс"));
+        assertEquals("Шаверма", leader.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should start a new load once the previous one has completed")
+    void shouldNotCacheCompletedLoad() {
+        // given
+        SingleFlight<Long, Integer> singleFlight = new SingleFlight<>(Duration.ofSeconds(5));
+        AtomicInteger loads = new AtomicInteger();
+
+        // when
+        singleFlight.load(1L, loads::incrementAndGet);
+        int second = singleFlight.load(1L, loads::incrementAndGet);
+
+        // then
+        assertEquals(2, second);
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitUntilInFlight(SingleFlight<?, ?> singleFlight) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.inFlightCount() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+}
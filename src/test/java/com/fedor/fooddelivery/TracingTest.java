@@ -0,0 +1,93 @@
+package com.fedor.fooddelivery;
+
+import com.fedor.fooddelivery.entity.Category;
+import com.fedor.fooddelivery.entity.Product;
+import com.fedor.fooddelivery.repository.CategoryRepository;
+import com.fedor.fooddelivery.repository.ProductRepository;
+import com.fedor.fooddelivery.tracing.RingBufferSpanHandler;
+import com.fedor.fooddelivery.tracing.SpanRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Трасса GET /catalog/{id} содержит span сервиса, репозиториев и записи ответа внутри HTTP span.
+ * Кэш ответов каталога отключен, иначе повторный запрос не дошел бы до репозиториев
+ */
+@SpringBootTest(properties = "app.catalog.cache.hard-ttl=0s")
+@AutoConfigureMockMvc
+@AutoConfigureObservability(metrics = false)
+@ActiveProfiles("embedded")
+@DisplayName("Tracing Test")
+class TracingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private RingBufferSpanHandler spanHandler;
+
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+        category = new Category();
+        category.setName("Шаверма");
+        category.setUrl("/shawarma");
+        category = categoryRepository.save(category);
+        Product product = new Product();
+        product.setName("Шаверма");
+        product.setDescription("Лаваш, курица");
+        product.setPrice(22000);
+        product.setUrl("/p/1");
+        product.setCategory(category);
+        productRepository.save(product);
+    }
+
+    @Test
+    @DisplayName("Should record nested spans from controller down to repositories and serialization")
+    void shouldRecordNestedSpans() throws Exception {
+        // when
+        mockMvc.perform(get("/catalog/{id}", category.getId())).andExpect(status().isOk());
+
+        // then
+        List<SpanRecord> spans = spanHandler.spans();
+        SpanRecord http = spans.get(spans.size() - 1);
+        assertEquals("http get /catalog/{id}", http.name());
+        Map<String, SpanRecord> trace = spanHandler.trace(http.traceId()).stream()
+                .collect(Collectors.toMap(SpanRecord::name, Function.identity(), (first, second) -> first));
+
+        SpanRecord service = trace.get("CatalogService.getCategoryProducts");
+        assertNotNull(service, trace.keySet().toString());
+        assertEquals(http.spanId(), service.parentId());
+        assertEquals(service.spanId(), trace.get("CategoryRepository.findById").parentId());
+        assertEquals(service.spanId(), trace.get("ProductRepository.findByCategoryId").parentId());
+        assertEquals(http.spanId(), trace.get("CatalogResponseWriter.write").parentId());
+        assertTrue(service.durationMicros() <= http.durationMicros());
+    }
+}
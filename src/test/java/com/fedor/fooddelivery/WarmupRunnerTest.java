@@ -0,0 +1,126 @@
+package com.fedor.fooddelivery;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.fedor.fooddelivery.importer.CatalogImportFormat;
+import com.fedor.fooddelivery.importer.CatalogImportService;
+import com.fedor.fooddelivery.metrics.OrderValidationMetrics;
+import com.fedor.fooddelivery.service.OrderService;
+import com.fedor.fooddelivery.warmup.WarmupRunner;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Прогрев при старте: шаги выполняются до готовности узла, их время видно в метриках,
+ * заказы прогрева проходят валидацию без ошибок, а сами запросы не попадают в лог и метрики запросов
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.warmup.enabled=true",
+        "app.warmup.iterations=5"
+})
+@ActiveProfiles("embedded")
+@DisplayName("Warmup Runner Test")
+class WarmupRunnerTest {
+
+    private static final String CSV = """
+            category_id,category_name,category_url,product_id,product_name,description,price,product_url,currency
+            1,Шаверма,/shawarma,11,Острая,Лаваш,249.90,/p/11,RUB
+            2,Салаты,/salads,21,Цезарь,Салат,390,/p/21,RUB
+            """;
+
+    @Autowired
+    private WarmupRunner warmupRunner;
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private ApplicationAvailability applicationAvailability;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Should record every warm-up step before the node becomes ready")
+    void shouldRecordSteps_BeforeReady() {
+        // then
+        assertEquals(ReadinessState.ACCEPTING_TRAFFIC, applicationAvailability.getReadinessState());
+        for (String step : new String[]{"catalog-preload", "http-catalog", "http-orders"}) {
+            assertNotNull(meterRegistry.find("app.warmup.step").tag("step", step).timer(), step);
+        }
+    }
+
+    @Test
+    @DisplayName("Should send catalog and order requests that pass validation")
+    void shouldSendValidRequests() {
+        // given
+        catalogImportService.importCatalog(
+                new ByteArrayInputStream(CSV.getBytes(StandardCharsets.UTF_8)), CatalogImportFormat.CSV);
+        double catalogBefore = warmupRequests("/catalog", "200");
+        double categoryBefore = warmupRequests("/catalog/{id}", "200");
+        double cartBefore = warmupRequests("/cart", "200");
+
+        // when
+        warmupRunner.run(null);
+
+        // then
+        assertEquals(5, warmupRequests("/catalog", "200") - catalogBefore);
+        assertEquals(5, warmupRequests("/catalog/{id}", "200") - categoryBefore);
+        assertEquals(5, warmupRequests("/cart", "200") - cartBefore);
+        assertEquals(0.0, meterRegistry.find(OrderValidationMetrics.METRIC_NAME).counters().stream()
+                .mapToDouble(counter -> counter.count()).sum());
+    }
+
+    @Test
+    @DisplayName("Should keep warm-up requests out of request metrics and the INFO log")
+    void shouldNotRecordWarmupRequests() {
+        // given
+        catalogImportService.importCatalog(
+                new ByteArrayInputStream(CSV.getBytes(StandardCharsets.UTF_8)), CatalogImportFormat.CSV);
+        double cartBefore = warmupRequests("/cart", "200");
+        Logger orderLogger = (Logger) LoggerFactory.getLogger(OrderService.class);
+        Level level = orderLogger.getLevel();
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        orderLogger.setLevel(Level.INFO);
+        orderLogger.addAppender(appender);
+
+        // when
+        try {
+            warmupRunner.run(null);
+        } finally {
+            orderLogger.detachAppender(appender);
+            orderLogger.setLevel(level);
+        }
+
+        // then
+        assertEquals(5, warmupRequests("/cart", "200") - cartBefore);
+        assertNull(meterRegistry.find("http.server.requests").tag("uri", "/cart").timer());
+        assertNull(meterRegistry.find("app.service").tag("method", "createOrder").timer());
+        assertNull(meterRegistry.find("app.http.jdbc.statements").tag("uri", "/cart").summary());
+        assertEquals(List.of(), appender.list.stream().map(ILoggingEvent::getFormattedMessage).toList());
+    }
+
+    private double warmupRequests(String uri, String status) {
+        Counter counter = meterRegistry.find("app.warmup.requests").tag("uri", uri).tag("status", status).counter();
+        return counter != null ? counter.count() : 0;
+    }
+}
@@ -0,0 +1,35 @@
+-- Версии каталога миграций V6 и V8 для встроенной БД H2: таблицы создает Hibernate, этот скрипт добавляет
+-- change_version, created_version, previous_price, catalog_deletions и триггеры (H2CatalogVersionTrigger).
+-- БД в памяти общая для контекстов тестов, поэтому скрипт можно выполнить повторно
+DROP SEQUENCE IF EXISTS catalog_version;
+CREATE SEQUENCE catalog_version;
+
+ALTER TABLE categories ADD COLUMN IF NOT EXISTS change_version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE products ADD COLUMN IF NOT EXISTS change_version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE categories ADD COLUMN IF NOT EXISTS created_version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE products ADD COLUMN IF NOT EXISTS created_version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE products ADD COLUMN IF NOT EXISTS previous_price BIGINT;
+
+DROP TABLE IF EXISTS catalog_deletions;
+CREATE TABLE catalog_deletions
+(
+    change_version BIGINT PRIMARY KEY,
+    table_name     VARCHAR(32) NOT NULL,
+    id             BIGINT
+);
+
+DROP TRIGGER IF EXISTS categories_change_version;
+CREATE TRIGGER categories_change_version BEFORE INSERT, UPDATE ON categories
+    FOR EACH ROW CALL 'com.fedor.fooddelivery.H2CatalogVersionTrigger';
+
+DROP TRIGGER IF EXISTS products_change_version;
+CREATE TRIGGER products_change_version BEFORE INSERT, UPDATE ON products
+    FOR EACH ROW CALL 'com.fedor.fooddelivery.H2CatalogVersionTrigger';
+
+DROP TRIGGER IF EXISTS categories_record_deletion;
+CREATE TRIGGER categories_record_deletion AFTER DELETE ON categories
+    FOR EACH ROW CALL 'com.fedor.fooddelivery.H2CatalogVersionTrigger';
+
+DROP TRIGGER IF EXISTS products_record_deletion;
+CREATE TRIGGER products_record_deletion AFTER DELETE ON products
+    FOR EACH ROW CALL 'com.fedor.fooddelivery.H2CatalogVersionTrigger';